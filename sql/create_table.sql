@@ -0,0 +1,46 @@
+-- 图片文件表（按内容哈希去重，多条图片记录可共用同一份存储对象）
+create table if not exists picture_file
+(
+    id           bigint auto_increment comment 'id' primary key,
+    fileHash     char(64)                           not null comment '文件内容 SHA-256',
+    originalKey  varchar(512)                       null comment '原图对象键',
+    url          varchar(512)                       not null comment '图片 url',
+    thumbnailUrl varchar(512)                       null comment '缩略图 url',
+    picSize      bigint                             null comment '图片体积',
+    picWidth     int                                null comment '图片宽度',
+    picHeight    int                                null comment '图片高度',
+    picScale     double                             null comment '图片宽高比例',
+    picFormat    varchar(32)                        null comment '图片格式',
+    extraKeys    varchar(1024)                      null comment '其他衍生图对象键（JSON 数组）',
+    refCount     int      default 0                 not null comment '引用计数',
+    createTime   datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    updateTime   datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    unique key uk_fileHash (fileHash),
+    unique key uk_url (url),
+    index idx_refCount_updateTime (refCount, updateTime)
+) comment '图片文件' collate = utf8mb4_unicode_ci;
+
+-- 已有的图片文件表
+-- alter table picture_file add column originalKey varchar(512) null comment '原图对象键' after fileHash;
+-- alter table picture_file add column extraKeys varchar(1024) null comment '其他衍生图对象键（JSON 数组）' after picFormat;
+
+-- 图片表游标分页索引（排序字段 + id）
+alter table picture
+    add index idx_createTime_id (createTime, id),
+    add index idx_editTime_id (editTime, id),
+    add index idx_picSize_id (picSize, id);
+
+-- 图片标签表（picture.tags 的倒排索引）
+create table if not exists picture_tag
+(
+    id         bigint auto_increment comment 'id' primary key,
+    tag        varchar(128)                       not null comment '标签',
+    pictureId  bigint                             not null comment '图片 id',
+    createTime datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    unique key uk_tag_pictureId (tag, pictureId),
+    index idx_pictureId (pictureId)
+) comment '图片标签' collate = utf8mb4_unicode_ci;
+
+-- 图片表全文索引增量同步索引
+alter table picture
+    add index idx_updateTime_id (updateTime, id);
@@ -0,0 +1,40 @@
+package com.gzu.gqzpicturebackend.benchmark;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+/**
+ * 基准测试用的桩对象
+ * 不启动 Spring 容器，只把被测方法用到的依赖注入进去，避免数据库、redis 的耗时干扰结果
+ */
+final class BenchmarkStubs {
+
+    private BenchmarkStubs() {
+    }
+
+    /**
+     * 创建接口桩：按方法名返回结果，其余方法返回 null
+     *
+     * @param type 接口
+     * @param handler 方法名 -> 参数 -> 返回值
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Function<String, Function<Object[], Object>> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return "toString".equals(method.getName()) ? type.getSimpleName() + "Stub" : null;
+            }
+            Function<Object[], Object> answer = handler.apply(method.getName());
+            return answer == null ? null : answer.apply(args);
+        });
+    }
+
+    /**
+     * 注入私有字段（对应 @Resource）
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        ReflectionTestUtils.setField(target, fieldName, value);
+    }
+}
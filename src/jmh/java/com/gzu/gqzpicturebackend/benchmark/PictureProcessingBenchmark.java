@@ -0,0 +1,125 @@
+package com.gzu.gqzpicturebackend.benchmark;
+
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine;
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine.ProcessResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+/**
+ * 本地图片处理吞吐量基准测试（压缩图 + 缩略图，可选额外尺寸）
+ * 1. processSingleThread：单线程处理，作为单核基线；
+ * 2. processAllThreads：所有 JMH 线程同时处理，共享内存预算，观察多核扩展性；
+ * 3. submitBatch：通过引擎的线程池并行处理一批图片（与上传时的用法一致），结果按单张图片计
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="PictureProcessingBenchmark -t max"，需在多核机器上运行
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PictureProcessingBenchmark {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 每批提交的图片数
+     */
+    private static final int BATCH_SIZE = 32;
+
+    /**
+     * 原图：宽x高-格式
+     */
+    @Param({"1920x1080-jpg", "4000x3000-jpg", "1024x1024-png"})
+    private String image;
+
+    /**
+     * 额外尺寸，为空时只生成压缩图和缩略图
+     */
+    @Param({"", "1024"})
+    private String extraSizes;
+
+    private PictureProcessingEngine engine;
+
+    private ExecutorService executor;
+
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String[] parts = image.split("[x-]");
+        bytes = buildImage(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), parts[2]);
+        // 与 ThreadPoolConfig 中的图片处理线程池一致
+        executor = new ThreadPoolExecutor(CORES, CORES, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(200), new ThreadPoolExecutor.AbortPolicy());
+        engine = new PictureProcessingEngine();
+        BenchmarkStubs.inject(engine, "imageProcessExecutor", executor);
+        BenchmarkStubs.inject(engine, "meterRegistry", new SimpleMeterRegistry());
+        BenchmarkStubs.inject(engine, "memoryBudgetMb", 512);
+        BenchmarkStubs.inject(engine, "extraSizes", extraSizes.isEmpty() ? new int[0] : new int[]{Integer.parseInt(extraSizes)});
+        engine.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ProcessResult processSingleThread() throws IOException {
+        return engine.process(bytes);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public ProcessResult processAllThreads() throws IOException {
+        return engine.process(bytes);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<ProcessResult> submitBatch() {
+        List<Future<ProcessResult>> futures = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            futures.add(engine.submit(bytes));
+        }
+        List<ProcessResult> results = new ArrayList<>(BATCH_SIZE);
+        for (Future<ProcessResult> future : futures) {
+            results.add(engine.await(future));
+        }
+        return results;
+    }
+
+    /**
+     * 生成带随机色块的图片，避免纯色图片压缩过快
+     */
+    private static byte[] buildImage(int width, int height, String format) throws IOException {
+        boolean alpha = "png".equals(format);
+        BufferedImage bufferedImage = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = bufferedImage.createGraphics();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            graphics.setColor(new Color(random.nextInt(), alpha));
+            graphics.fillOval(random.nextInt(width), random.nextInt(height),
+                    random.nextInt(width / 4 + 1), random.nextInt(height / 4 + 1));
+        }
+        graphics.dispose();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(bufferedImage, format, outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package com.gzu.gqzpicturebackend.benchmark;
+
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.gzu.gqzpicturebackend.manage.cache.PictureQueryKey;
+import com.gzu.gqzpicturebackend.manage.search.PictureSearchIndex;
+import com.gzu.gqzpicturebackend.model.dto.picture.PictureQueryRequest;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import com.gzu.gqzpicturebackend.service.impl.PictureServiceImpl;
+import com.gzu.gqzpicturebackend.service.impl.PictureTagServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片查询条件基准测试
+ * 1. getQueryWrapper 构造查询条件，以及生成 SQL 片段（MyBatis 执行前都会做）；
+ * 2. 列表缓存 key：原有的 JSON 序列化 + MD5 与规范化后的 PictureQueryKey
+ * 全文索引未加载（走 LIKE 分支），标签条件为子查询
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args=PictureQueryBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PictureQueryBenchmark {
+
+    private PictureServiceImpl pictureService;
+
+    /**
+     * 首页默认查询：只有分页和排序
+     */
+    private PictureQueryRequest simpleRequest;
+
+    /**
+     * 带搜索词、分类、标签的查询
+     */
+    private PictureQueryRequest filterRequest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pictureService = new PictureServiceImpl();
+        // 标签条件只拼接子查询，不访问数据库
+        BenchmarkStubs.inject(pictureService, "pictureTagService", new PictureTagServiceImpl());
+        BenchmarkStubs.inject(pictureService, "pictureSearchIndex", new PictureSearchIndex());
+
+        simpleRequest = new PictureQueryRequest();
+        simpleRequest.setCurrent(1);
+        simpleRequest.setPageSize(20);
+        simpleRequest.setSortField("createTime");
+        simpleRequest.setSortOrder("descend");
+        simpleRequest.setReviewStatus(1);
+        simpleRequest.setNullSpaceId(true);
+
+        filterRequest = new PictureQueryRequest();
+        filterRequest.setCurrent(3);
+        filterRequest.setPageSize(20);
+        filterRequest.setSortField("createTime");
+        filterRequest.setSortOrder("descend");
+        filterRequest.setReviewStatus(1);
+        filterRequest.setNullSpaceId(true);
+        filterRequest.setSearchText("贵州 山");
+        filterRequest.setCategory("风景");
+        filterRequest.setTags(Arrays.asList("风景", "山", "云海"));
+        filterRequest.setPicFormat("webp");
+    }
+
+    @Benchmark
+    public QueryWrapper<Picture> queryWrapperSimple() {
+        return pictureService.getQueryWrapper(simpleRequest);
+    }
+
+    @Benchmark
+    public QueryWrapper<Picture> queryWrapperFilter() {
+        return pictureService.getQueryWrapper(filterRequest);
+    }
+
+    @Benchmark
+    public String queryWrapperFilterSql() {
+        return pictureService.getQueryWrapper(filterRequest).getCustomSqlSegment();
+    }
+
+    @Benchmark
+    public String legacyCacheKey() {
+        String queryCondition = JSONUtil.toJsonStr(filterRequest);
+        return DigestUtils.md5DigestAsHex(queryCondition.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String pictureQueryKey() {
+        return PictureQueryKey.hash(filterRequest);
+    }
+}
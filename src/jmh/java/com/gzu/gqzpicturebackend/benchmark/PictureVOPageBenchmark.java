@@ -0,0 +1,202 @@
+package com.gzu.gqzpicturebackend.benchmark;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.gzu.gqzpicturebackend.manage.cache.PictureIdPage;
+import com.gzu.gqzpicturebackend.manage.cache.UserVOCache;
+import com.gzu.gqzpicturebackend.manage.cache.codec.BinaryPictureVOCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.CacheCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.JsonPictureVOCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.PictureIdPageCodec;
+import com.gzu.gqzpicturebackend.manage.vo.RelatedEntityLoader;
+import com.gzu.gqzpicturebackend.mapper.SpaceMapper;
+import com.gzu.gqzpicturebackend.mapper.UserMapper;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import com.gzu.gqzpicturebackend.model.entity.Space;
+import com.gzu.gqzpicturebackend.model.entity.User;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+import com.gzu.gqzpicturebackend.service.impl.PictureServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 图片分页组装基准测试
+ * 1. getPictureVOPage：实体转视图并批量填充创建人、审核人、空间（mapper 用桩，记录查询次数）；
+ * 2. 列表缓存命中后的解码：id 分页 + 每张图片的缓存值（二进制 / JSON）
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args=PictureVOPageBenchmark，每次组装的查询次数在结束时打印
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PictureVOPageBenchmark {
+
+    @Param({"20", "50"})
+    private int pageSize;
+
+    private PictureServiceImpl pictureService;
+
+    private Page<Picture> picturePage;
+
+    private final AtomicLong pageCount = new AtomicLong();
+
+    private final AtomicLong userQueryCount = new AtomicLong();
+
+    private final AtomicLong spaceQueryCount = new AtomicLong();
+
+    private final CacheCodec<PictureIdPage> idPageCodec = new PictureIdPageCodec();
+
+    private final CacheCodec<PictureVO> binaryCodec = new BinaryPictureVOCodec();
+
+    private final CacheCodec<PictureVO> jsonCodec = new JsonPictureVOCodec();
+
+    private byte[] idPageBytes;
+
+    private List<byte[]> binaryBytesList;
+
+    private List<byte[]> jsonBytesList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // 用户缓存只在第一次组装时未命中，之后与线上稳定状态一致
+        UserMapper userMapper = BenchmarkStubs.stub(UserMapper.class, method ->
+                "selectBatchIds".equals(method) || "selectByIds".equals(method) ? args -> {
+                    userQueryCount.incrementAndGet();
+                    List<User> userList = new ArrayList<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        userList.add(buildUser((Long) id));
+                    }
+                    return userList;
+                } : null);
+        SpaceMapper spaceMapper = BenchmarkStubs.stub(SpaceMapper.class, method ->
+                "selectBatchIds".equals(method) || "selectByIds".equals(method) ? args -> {
+                    spaceQueryCount.incrementAndGet();
+                    List<Space> spaceList = new ArrayList<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        spaceList.add(buildSpace((Long) id));
+                    }
+                    return spaceList;
+                } : null);
+        UserVOCache userVOCache = new UserVOCache();
+        BenchmarkStubs.inject(userVOCache, "userMapper", userMapper);
+        RelatedEntityLoader relatedEntityLoader = new RelatedEntityLoader();
+        BenchmarkStubs.inject(relatedEntityLoader, "userVOCache", userVOCache);
+        BenchmarkStubs.inject(relatedEntityLoader, "spaceMapper", spaceMapper);
+        pictureService = new PictureServiceImpl();
+        BenchmarkStubs.inject(pictureService, "relatedEntityLoader", relatedEntityLoader);
+
+        List<Picture> pictureList = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            pictureList.add(buildPicture(i));
+        }
+        picturePage = new Page<>(1, pageSize, 1000);
+        picturePage.setRecords(pictureList);
+
+        // 缓存命中路径的数据
+        List<PictureVO> pictureVOList = pictureService.getPictureVOPage(picturePage, null).getRecords();
+        PictureIdPage idPage = new PictureIdPage();
+        idPage.setCurrent(1);
+        idPage.setSize(pageSize);
+        idPage.setTotal(1000);
+        List<Long> ids = new ArrayList<>();
+        binaryBytesList = new ArrayList<>();
+        jsonBytesList = new ArrayList<>();
+        for (PictureVO pictureVO : pictureVOList) {
+            ids.add(pictureVO.getId());
+            binaryBytesList.add(binaryCodec.encode(pictureVO));
+            jsonBytesList.add(jsonCodec.encode(pictureVO));
+        }
+        idPage.setIds(ids);
+        idPageBytes = idPageCodec.encode(idPage);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long pages = Math.max(pageCount.get(), 1);
+        System.out.printf("%n[queries] pageSize = %d, pages = %d, user queries = %d, space queries = %d (%.3f per page)%n",
+                pageSize, pages, userQueryCount.get(), spaceQueryCount.get(),
+                (double) (userQueryCount.get() + spaceQueryCount.get()) / pages);
+    }
+
+    @Benchmark
+    public Page<PictureVO> getPictureVOPage() {
+        pageCount.incrementAndGet();
+        return pictureService.getPictureVOPage(picturePage, null);
+    }
+
+    @Benchmark
+    public List<PictureVO> cacheHitDecodeBinary() {
+        return decode(binaryCodec, binaryBytesList);
+    }
+
+    @Benchmark
+    public List<PictureVO> cacheHitDecodeJson() {
+        return decode(jsonCodec, jsonBytesList);
+    }
+
+    private List<PictureVO> decode(CacheCodec<PictureVO> codec, List<byte[]> bytesList) {
+        PictureIdPage idPage = idPageCodec.decode(idPageBytes);
+        List<PictureVO> pictureVOList = new ArrayList<>(idPage.getIds().size());
+        for (byte[] bytes : bytesList) {
+            pictureVOList.add(codec.decode(bytes));
+        }
+        return pictureVOList;
+    }
+
+    private static Picture buildPicture(int i) {
+        Picture picture = new Picture();
+        picture.setId(1900000000000000000L + i);
+        picture.setUrl("https://gqz-picture-1300000000.cos.ap-guangzhou.myqcloud.com/public/1/2025-01-01_abc" + i + ".webp");
+        picture.setName("贵州的山 " + i);
+        picture.setIntroduction("雨后的黔东南，云雾缭绕");
+        picture.setCategory("风景");
+        picture.setTags("[\"风景\",\"山\",\"贵州\",\"云海\"]");
+        picture.setPicSize(356_000L + i);
+        picture.setPicWidth(1920);
+        picture.setPicHeight(1080);
+        picture.setPicScale(1.78);
+        picture.setPicFormat("webp");
+        // 10 个作者、2 个审核人、一半图片在私有空间
+        picture.setUserId(1800000000000000000L + i % 10);
+        picture.setReviewerId(1700000000000000000L + i % 2);
+        picture.setSpaceId(i % 2 == 0 ? null : 1600000000000000000L + i % 5);
+        picture.setReviewStatus(1);
+        picture.setCreateTime(new Date());
+        picture.setEditTime(new Date());
+        picture.setUpdateTime(new Date());
+        return picture;
+    }
+
+    private static User buildUser(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserAccount("user" + id);
+        user.setUserName("用户" + id % 100);
+        user.setUserAvatar("https://gqz-picture-1300000000.cos.ap-guangzhou.myqcloud.com/avatar/" + id + ".png");
+        user.setUserProfile("喜欢拍照");
+        user.setUserRole("user");
+        user.setCreateTime(new Date());
+        return user;
+    }
+
+    private static Space buildSpace(Long id) {
+        Space space = new Space();
+        space.setId(id);
+        space.setSpaceName("空间" + id % 100);
+        space.setSpaceLevel(0);
+        space.setMaxSize(100L * 1024 * 1024);
+        space.setMaxCount(100L);
+        space.setTotalSize(10L * 1024 * 1024);
+        space.setTotalCount(10L);
+        space.setUserId(1800000000000000000L);
+        space.setCreateTime(new Date());
+        return space;
+    }
+}
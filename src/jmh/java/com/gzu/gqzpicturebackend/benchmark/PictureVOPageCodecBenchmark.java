@@ -0,0 +1,130 @@
+package com.gzu.gqzpicturebackend.benchmark;
+
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.gzu.gqzpicturebackend.manage.cache.codec.BinaryPictureVOPageCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.CacheCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.JsonPictureVOPageCodec;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+import com.gzu.gqzpicturebackend.model.vo.UserVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片分页缓存编解码基准测试
+ * 对比原有的 Hutool JSON 路径（toJsonStr / toBean(Page.class)）、带类型的 JSON 解码、二进制及二进制 + gzip
+ * 运行：mvn -Pjmh test-compile exec:exec，结果输出到 target/jmh-result.json，各格式的数据大小在 setup 时打印
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PictureVOPageCodecBenchmark {
+
+    @Param({"10", "20"})
+    private int pageSize;
+
+    private Page<PictureVO> page;
+
+    private final CacheCodec<Page<PictureVO>> jsonCodec = new JsonPictureVOPageCodec();
+
+    private final CacheCodec<Page<PictureVO>> binaryCodec = new BinaryPictureVOPageCodec(Integer.MAX_VALUE);
+
+    private final CacheCodec<Page<PictureVO>> gzipCodec = new BinaryPictureVOPageCodec(0);
+
+    private String jsonString;
+
+    private byte[] jsonBytes;
+
+    private byte[] binaryBytes;
+
+    private byte[] gzipBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        page = new Page<>(3, pageSize, 1000);
+        List<PictureVO> records = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            records.add(buildPictureVO(i));
+        }
+        page.setRecords(records);
+        jsonString = JSONUtil.toJsonStr(page);
+        jsonBytes = jsonCodec.encode(page);
+        binaryBytes = binaryCodec.encode(page);
+        gzipBytes = gzipCodec.encode(page);
+        System.out.printf("%n[payload] pageSize = %d, json = %d bytes, binary = %d bytes, binary+gzip = %d bytes%n",
+                pageSize, jsonString.getBytes(StandardCharsets.UTF_8).length, binaryBytes.length, gzipBytes.length);
+    }
+
+    @Benchmark
+    public String legacyJsonEncode() {
+        return JSONUtil.toJsonStr(page);
+    }
+
+    @Benchmark
+    public Page<?> legacyJsonDecode() {
+        return JSONUtil.toBean(jsonString, Page.class);
+    }
+
+    @Benchmark
+    public Page<PictureVO> typedJsonDecode() {
+        return jsonCodec.decode(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binaryCodec.encode(page);
+    }
+
+    @Benchmark
+    public Page<PictureVO> binaryDecode() {
+        return binaryCodec.decode(binaryBytes);
+    }
+
+    @Benchmark
+    public byte[] gzipEncode() {
+        return gzipCodec.encode(page);
+    }
+
+    @Benchmark
+    public Page<PictureVO> gzipDecode() {
+        return gzipCodec.decode(gzipBytes);
+    }
+
+    private static PictureVO buildPictureVO(int i) {
+        PictureVO pictureVO = new PictureVO();
+        pictureVO.setId(1900000000000000000L + i);
+        pictureVO.setUrl("https://gqz-picture-1300000000.cos.ap-guangzhou.myqcloud.com/public/1900000000000000001/2025-05-10_abcdefgh" + i + ".webp");
+        pictureVO.setName("校园风景" + i);
+        pictureVO.setIntroduction("贵州大学西校区的傍晚，湖边的柳树和远处的教学楼，适合作为桌面背景");
+        pictureVO.setTags(Arrays.asList("校园", "高清", "背景"));
+        pictureVO.setCategory("风景");
+        pictureVO.setPicSize(1024L * 300 + i);
+        pictureVO.setPicWidth(1920);
+        pictureVO.setPicHeight(1080);
+        pictureVO.setPicScale(1.78);
+        pictureVO.setPicFormat("webp");
+        pictureVO.setUserId(1900000000000000001L);
+        pictureVO.setCreateTime(new Date());
+        pictureVO.setEditTime(new Date());
+        pictureVO.setUpdateTime(new Date());
+        UserVO user = new UserVO();
+        user.setId(1900000000000000001L);
+        user.setUserName("gqz");
+        user.setUserAccount("gqz123");
+        user.setUserAvatar("https://gqz-picture-1300000000.cos.ap-guangzhou.myqcloud.com/avatar/gqz.png");
+        user.setUserProfile("喜欢拍照");
+        user.setUserRole("user");
+        user.setCreateTime(new Date());
+        pictureVO.setUser(user);
+        return pictureVO;
+    }
+}
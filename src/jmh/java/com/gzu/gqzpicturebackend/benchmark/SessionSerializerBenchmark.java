@@ -0,0 +1,95 @@
+package com.gzu.gqzpicturebackend.benchmark;
+
+import com.gzu.gqzpicturebackend.manage.session.CompactSessionRedisSerializer;
+import com.gzu.gqzpicturebackend.model.dto.user.LoginUserSession;
+import com.gzu.gqzpicturebackend.model.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话登录态序列化基准测试
+ * 对比原有的 JDK 序列化完整 User 与精简登录态 + 紧凑序列化器，每个请求加载会话时都要反序列化一次
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args=SessionSerializerBenchmark，数据大小在 setup 时打印
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionSerializerBenchmark {
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    private final CompactSessionRedisSerializer compactSerializer = new CompactSessionRedisSerializer();
+
+    private User user;
+
+    private LoginUserSession loginUserSession;
+
+    private byte[] jdkUserBytes;
+
+    private byte[] compactBytes;
+
+    private byte[] jdkLongBytes;
+
+    private byte[] compactLongBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        user = new User();
+        user.setId(1900000000000000001L);
+        user.setUserAccount("gqz123");
+        user.setUserPassword("b0dd3697a192885d7c055db46155b26a");
+        user.setUserName("gqz");
+        user.setUserAvatar("https://gqz-picture-1300000000.cos.ap-guangzhou.myqcloud.com/avatar/gqz.png");
+        user.setUserProfile("喜欢拍照，贵州大学计算机学院");
+        user.setUserRole("user");
+        user.setEditTime(new Date());
+        user.setCreateTime(new Date());
+        user.setUpdateTime(new Date());
+        user.setIsDelete(0);
+        loginUserSession = LoginUserSession.of(user);
+        jdkUserBytes = jdkSerializer.serialize(user);
+        compactBytes = compactSerializer.serialize(loginUserSession);
+        // Spring Session 自身的 lastAccessedTime 等属性
+        jdkLongBytes = jdkSerializer.serialize(System.currentTimeMillis());
+        compactLongBytes = compactSerializer.serialize(System.currentTimeMillis());
+        System.out.printf("%n[payload] jdk User = %d bytes, compact login session = %d bytes, "
+                        + "jdk Long = %d bytes, compact Long = %d bytes%n",
+                jdkUserBytes.length, compactBytes.length, jdkLongBytes.length, compactLongBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jdkSerializeUser() {
+        return jdkSerializer.serialize(user);
+    }
+
+    @Benchmark
+    public Object jdkDeserializeUser() {
+        return jdkSerializer.deserialize(jdkUserBytes);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compactSerializer.serialize(loginUserSession);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compactSerializer.deserialize(compactBytes);
+    }
+
+    @Benchmark
+    public Object jdkDeserializeLong() {
+        return jdkSerializer.deserialize(jdkLongBytes);
+    }
+
+    @Benchmark
+    public Object compactDeserializeLong() {
+        return compactSerializer.deserialize(compactLongBytes);
+    }
+}
@@ -0,0 +1,145 @@
+package com.gzu.gqzpicturebackend.benchmark;
+
+import cn.hutool.json.JSONUtil;
+import com.gzu.gqzpicturebackend.model.convert.PictureConverter;
+import com.gzu.gqzpicturebackend.model.convert.SpaceConverter;
+import com.gzu.gqzpicturebackend.model.convert.TagsCodec;
+import com.gzu.gqzpicturebackend.model.convert.UserConverter;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import com.gzu.gqzpicturebackend.model.entity.Space;
+import com.gzu.gqzpicturebackend.model.entity.User;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+import com.gzu.gqzpicturebackend.model.vo.SpaceVO;
+import com.gzu.gqzpicturebackend.model.vo.UserVO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 视图转换基准测试
+ * 对比原有的 BeanUtils.copyProperties + JSONUtil 标签解析与逐字段转换 + TagsCodec，按一页图片计
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args=VOConverterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VOConverterBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private List<Picture> pictureList;
+
+    private User user;
+
+    private Space space;
+
+    private String tags;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pictureList = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Picture picture = new Picture();
+            picture.setId(1900000000000000000L + i);
+            picture.setUrl("https://gqz-picture-1300000000.cos.ap-guangzhou.myqcloud.com/public/1/2025-01-01_abc" + i + ".webp");
+            picture.setName("贵州的山 " + i);
+            picture.setIntroduction("雨后的黔东南，云雾缭绕");
+            picture.setCategory("风景");
+            picture.setTags("[\"风景\",\"山\",\"贵州\",\"云海\"]");
+            picture.setPicSize(356_000L + i);
+            picture.setPicWidth(1920);
+            picture.setPicHeight(1080);
+            picture.setPicScale(1.78);
+            picture.setPicFormat("webp");
+            picture.setUserId(1900000000000000001L);
+            picture.setSpaceId(1900000000000000002L);
+            picture.setCreateTime(new Date());
+            picture.setEditTime(new Date());
+            picture.setUpdateTime(new Date());
+            picture.setReviewStatus(1);
+            picture.setReviewerId(1900000000000000003L);
+            pictureList.add(picture);
+        }
+        user = new User();
+        user.setId(1900000000000000001L);
+        user.setUserAccount("gqz123");
+        user.setUserPassword("b0dd3697a192885d7c055db46155b26a");
+        user.setUserName("gqz");
+        user.setUserAvatar("https://gqz-picture-1300000000.cos.ap-guangzhou.myqcloud.com/avatar/gqz.png");
+        user.setUserProfile("喜欢拍照");
+        user.setUserRole("user");
+        user.setCreateTime(new Date());
+        space = new Space();
+        space.setId(1900000000000000002L);
+        space.setSpaceName("我的空间");
+        space.setSpaceLevel(0);
+        space.setMaxSize(100L * 1024 * 1024);
+        space.setMaxCount(100L);
+        space.setUserId(user.getId());
+        space.setCreateTime(new Date());
+        tags = pictureList.get(0).getTags();
+    }
+
+    @Benchmark
+    public List<PictureVO> legacyPicturePage() {
+        List<PictureVO> pictureVOList = new ArrayList<>(pictureList.size());
+        for (Picture picture : pictureList) {
+            PictureVO pictureVO = new PictureVO();
+            BeanUtils.copyProperties(picture, pictureVO);
+            pictureVO.setTags(JSONUtil.toList(picture.getTags(), String.class));
+            pictureVOList.add(pictureVO);
+        }
+        return pictureVOList;
+    }
+
+    @Benchmark
+    public List<PictureVO> converterPicturePage() {
+        List<PictureVO> pictureVOList = new ArrayList<>(pictureList.size());
+        for (Picture picture : pictureList) {
+            pictureVOList.add(PictureConverter.toVO(picture));
+        }
+        return pictureVOList;
+    }
+
+    @Benchmark
+    public List<String> legacyTagsDecode() {
+        return JSONUtil.toList(tags, String.class);
+    }
+
+    @Benchmark
+    public List<String> tagsCodecDecode() {
+        return TagsCodec.decode(tags);
+    }
+
+    @Benchmark
+    public UserVO legacyUserVO() {
+        UserVO userVO = new UserVO();
+        BeanUtils.copyProperties(user, userVO);
+        return userVO;
+    }
+
+    @Benchmark
+    public UserVO converterUserVO() {
+        return UserConverter.toVO(user);
+    }
+
+    @Benchmark
+    public SpaceVO legacySpaceVO() {
+        SpaceVO spaceVO = new SpaceVO();
+        BeanUtils.copyProperties(space, spaceVO);
+        return spaceVO;
+    }
+
+    @Benchmark
+    public SpaceVO converterSpaceVO() {
+        return SpaceConverter.toVO(space);
+    }
+}
@@ -0,0 +1,97 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import cn.hutool.core.util.ZipUtil;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.gzu.gqzpicturebackend.common.CursorPage;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 图片分页二进制编解码器
+ * 格式：版本（1 字节）+ 标记（1 字节，bit0 表示 gzip 压缩）+ 数据，
+ * 字段按固定顺序写入，不写字段名；数据超过阈值时整体 gzip 压缩
+ * 线上已改为 id 分页 + 单张图片缓存，这里只用于基准测试中对比整页缓存的格式
+ */
+public class BinaryPictureVOPageCodec implements CacheCodec<Page<PictureVO>> {
+
+    private static final int VERSION = 2;
+
+    private static final int FLAG_GZIP = 1;
+
+    /**
+     * 超过该大小（字节）才压缩，小数据压缩收益低
+     */
+    private final int compressThreshold;
+
+    public BinaryPictureVOPageCodec(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public String format() {
+        return "bin" + VERSION;
+    }
+
+    @Override
+    public byte[] encode(Page<PictureVO> page) {
+        List<PictureVO> records = page.getRecords();
+        BinaryOutput out = new BinaryOutput(256 + records.size() * 256);
+        out.writeVarLong(page.getCurrent());
+        out.writeVarLong(page.getSize());
+        out.writeVarLong(page.getTotal());
+        boolean cursorPage = page instanceof CursorPage;
+        out.writeBoolean(cursorPage);
+        if (cursorPage) {
+            out.writeString(((CursorPage<PictureVO>) page).getNextCursor());
+        }
+        out.writeVarLong(records.size());
+        for (PictureVO pictureVO : records) {
+            BinaryPictureVOCodec.write(out, pictureVO);
+        }
+        byte[] body = out.toByteArray();
+        int flags = 0;
+        if (body.length > compressThreshold) {
+            body = ZipUtil.gzip(body);
+            flags |= FLAG_GZIP;
+        }
+        byte[] bytes = new byte[body.length + 2];
+        bytes[0] = (byte) VERSION;
+        bytes[1] = (byte) flags;
+        System.arraycopy(body, 0, bytes, 2, body.length);
+        return bytes;
+    }
+
+    @Override
+    public Page<PictureVO> decode(byte[] bytes) {
+        if (bytes.length < 2 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("不支持的缓存数据版本");
+        }
+        BinaryInput in;
+        if ((bytes[1] & FLAG_GZIP) != 0) {
+            in = new BinaryInput(ZipUtil.unGzip(Arrays.copyOfRange(bytes, 2, bytes.length)), 0);
+        } else {
+            in = new BinaryInput(bytes, 2);
+        }
+        long current = in.readVarLong();
+        long size = in.readVarLong();
+        long total = in.readVarLong();
+        Page<PictureVO> page;
+        if (in.readBoolean()) {
+            CursorPage<PictureVO> cursorPage = new CursorPage<>(size);
+            cursorPage.setNextCursor(in.readString());
+            page = cursorPage;
+        } else {
+            page = new Page<>(current, size, total);
+        }
+        int count = (int) in.readVarLong();
+        List<PictureVO> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(BinaryPictureVOCodec.read(in));
+        }
+        page.setRecords(records);
+        return page;
+    }
+}
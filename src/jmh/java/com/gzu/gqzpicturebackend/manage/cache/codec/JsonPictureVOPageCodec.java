@@ -0,0 +1,42 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.gzu.gqzpicturebackend.common.CursorPage;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 图片分页 JSON 编解码器（原有格式，便于排查问题时直接查看缓存内容）
+ * 线上已改为 id 分页 + 单张图片缓存，这里只用于基准测试中对比整页缓存的格式
+ */
+public class JsonPictureVOPageCodec implements CacheCodec<Page<PictureVO>> {
+
+    @Override
+    public String format() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encode(Page<PictureVO> page) {
+        return JSONUtil.toJsonStr(page).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Page<PictureVO> decode(byte[] bytes) {
+        JSONObject jsonObject = JSONUtil.parseObj(new String(bytes, StandardCharsets.UTF_8));
+        Page<PictureVO> page;
+        if (jsonObject.containsKey("nextCursor")) {
+            CursorPage<PictureVO> cursorPage = new CursorPage<>(jsonObject.getLong("size"));
+            cursorPage.setNextCursor(jsonObject.getStr("nextCursor"));
+            page = cursorPage;
+        } else {
+            page = new Page<>(jsonObject.getLong("current"), jsonObject.getLong("size"), jsonObject.getLong("total"));
+        }
+        // 按元素类型解析，避免得到 JSONObject 列表
+        page.setRecords(JSONUtil.toList(jsonObject.getJSONArray("records"), PictureVO.class));
+        return page;
+    }
+}
@@ -5,11 +5,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.gzu.gqzpicturebackend.mapper")
 @EnableAspectJAutoProxy
 @EnableAsync
+@EnableScheduling
 public class GqzPictureBackendApplication {
 
     public static void main(String[] args) {
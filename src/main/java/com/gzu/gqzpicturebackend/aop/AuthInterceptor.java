@@ -3,7 +3,8 @@ package com.gzu.gqzpicturebackend.aop;
 import com.gzu.gqzpicturebackend.annotation.AuthCheck;
 import com.gzu.gqzpicturebackend.exception.BusinessException;
 import com.gzu.gqzpicturebackend.exception.ErrorCode;
-import com.gzu.gqzpicturebackend.model.entity.User;
+import com.gzu.gqzpicturebackend.manage.auth.AccessTokenManager;
+import com.gzu.gqzpicturebackend.manage.auth.TokenClaims;
 import com.gzu.gqzpicturebackend.model.enums.UserRoleEnum;
 import com.gzu.gqzpicturebackend.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,9 @@ public class AuthInterceptor {
     @Resource
     private UserService userService;
 
+    @Resource
+    private AccessTokenManager accessTokenManager;
+
     /**
      * 执行拦截
      * @param joinPoint
@@ -39,8 +43,9 @@ public class AuthInterceptor {
         String mustRole = authCheck.mustRole();
         RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
         HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
-        // 获取当前登录用户
-        User loginUser = userService.getLoginUser(request);
+        // 获取当前登录用户的角色，携带访问令牌时直接使用令牌中的角色（只做本地签名校验）
+        TokenClaims claims = accessTokenManager.resolve(request);
+        String userRole = claims != null ? claims.getUserRole() : userService.getLoginUser(request).getUserRole();
         UserRoleEnum mustRoleEnum = UserRoleEnum.getEnumByValue(mustRole);
         System.out.println("Must role enum: " + mustRoleEnum);
         // 如果不需要权限，放行
@@ -48,7 +53,7 @@ public class AuthInterceptor {
             return joinPoint.proceed();
         }
         // 必须有权限才会通过
-        UserRoleEnum userRoleEnum = UserRoleEnum.getEnumByValue(loginUser.getUserRole());
+        UserRoleEnum userRoleEnum = UserRoleEnum.getEnumByValue(userRole);
         if (userRoleEnum == null){
             throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
         }
@@ -0,0 +1,27 @@
+package com.gzu.gqzpicturebackend.common;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 游标分页结果
+ * 不查询总数，通过 nextCursor 获取下一页，nextCursor 为空表示没有更多数据
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class CursorPage<T> extends Page<T> {
+
+    /**
+     * 下一页游标
+     */
+    private String nextCursor;
+
+    public CursorPage() {
+        this(10);
+    }
+
+    public CursorPage(long size) {
+        super(1, size, false);
+    }
+}
@@ -0,0 +1,42 @@
+package com.gzu.gqzpicturebackend.config;
+
+import com.gzu.gqzpicturebackend.manage.cache.PictureIdPage;
+import com.gzu.gqzpicturebackend.manage.cache.codec.BinaryPictureVOCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.CacheCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.JsonPictureVOCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.PictureIdPageCodec;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheCodecConfig {
+
+    /**
+     * 缓存编码格式：binary（默认）或 json
+     */
+    @Value("${picture.cache.codec:binary}")
+    private String codec;
+
+    /**
+     * 单张图片缓存编解码器
+     * @return
+     */
+    @Bean
+    public CacheCodec<PictureVO> pictureVOCodec() {
+        if ("json".equals(codec)) {
+            return new JsonPictureVOCodec();
+        }
+        return new BinaryPictureVOCodec();
+    }
+
+    /**
+     * 列表查询结果（图片 id）编解码器
+     * @return
+     */
+    @Bean
+    public CacheCodec<PictureIdPage> pictureIdPageCodec() {
+        return new PictureIdPageCodec();
+    }
+}
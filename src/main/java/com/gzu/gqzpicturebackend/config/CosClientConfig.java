@@ -42,6 +42,32 @@ public class CosClientConfig {
      */
     private String bucket;
 
+    /**
+     * 分块上传阈值（字节），超过该大小自动切换为分块上传
+     * 注意：当前上传接口限制单文件不超过 2M，低于该阈值，放开上传大小限制后分块上传才会生效
+     */
+    private long multipartThreshold = 5 * 1024 * 1024;
+
+    /**
+     * 分块大小（字节），COS 要求除最后一块外不小于 1MB
+     */
+    private long partSize = 2 * 1024 * 1024;
+
+    /**
+     * 分块上传并发线程数
+     */
+    private int multipartThreads = 4;
+
+    /**
+     * 单个分块失败后的重试次数
+     */
+    private int partRetryTimes = 3;
+
+    /**
+     * 分块线程池队列已满时等待入队的最长时间（毫秒），超时则本次上传失败
+     */
+    private long partSubmitTimeoutMillis = 10_000;
+
     @Bean
     public COSClient cosClient() {
         // 初始化用户身份信息(secretId, secretKey)
@@ -0,0 +1,25 @@
+package com.gzu.gqzpicturebackend.config;
+
+import com.gzu.gqzpicturebackend.manage.session.CompactSessionRedisSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * 会话配置
+ */
+@Configuration
+public class SessionConfig {
+
+    /**
+     * 会话属性序列化器，Spring Session 按 bean 名称注入
+     * 关闭精简会话时使用默认的 JDK 序列化
+     * @return
+     */
+    @Bean("springSessionDefaultRedisSerializer")
+    @ConditionalOnProperty(name = "picture.session.compact", havingValue = "true", matchIfMissing = true)
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+        return new CompactSessionRedisSerializer();
+    }
+}
@@ -0,0 +1,165 @@
+package com.gzu.gqzpicturebackend.config;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import javax.annotation.Resource;
+import java.util.concurrent.*;
+
+/**
+ * 后台任务线程池
+ * 每类后台任务使用独立的有界线程池，队列长度和拒绝策略分开配置，
+ * 并暴露活跃线程数、队列长度、任务耗时和拒绝次数等指标（executor.* / executor.rejected）
+ */
+@Slf4j
+@Configuration
+@ConfigurationProperties(prefix = "picture.executor")
+@Data
+public class ThreadPoolConfig implements AsyncConfigurer {
+
+    /**
+     * 文件清理线程池
+     */
+    public static final String FILE_CLEAN_EXECUTOR = "fileCleanExecutor";
+
+    /**
+     * 图片处理线程池（本地生成衍生图）
+     */
+    public static final String IMAGE_PROCESS_EXECUTOR = "imageProcessExecutor";
+
+    /**
+     * 批量抓取线程池
+     */
+    public static final String CRAWL_EXECUTOR = "crawlExecutor";
+
+    /**
+     * 缓存刷新线程池
+     */
+    public static final String CACHE_REFRESH_EXECUTOR = "cacheRefreshExecutor";
+
+    /**
+     * 文件清理：任务可以丢弃，计数归零的文件会在下一轮回收
+     */
+    private PoolProperties fileClean = new PoolProperties(1, 2, 100);
+
+    /**
+     * 图片处理：CPU 密集，线程数跟随核数，满了直接拒绝，由调用线程自己处理
+     */
+    private PoolProperties imageProcess = new PoolProperties(Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors(), 200);
+
+    /**
+     * 批量抓取：IO 密集，满了由提交线程执行，形成反压
+     */
+    private PoolProperties crawl = new PoolProperties(4, 8, 50);
+
+    /**
+     * 缓存刷新：满了直接拒绝，调用方继续返回旧值，下次访问再触发刷新
+     */
+    private PoolProperties cacheRefresh = new PoolProperties(2, 4, 100);
+
+    @Lazy
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Bean(FILE_CLEAN_EXECUTOR)
+    public ExecutorService fileCleanExecutor() {
+        return buildExecutor("file-clean", fileClean, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Bean(IMAGE_PROCESS_EXECUTOR)
+    public ExecutorService imageProcessExecutor() {
+        return buildExecutor("image-process", imageProcess, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean(CRAWL_EXECUTOR)
+    public ExecutorService crawlExecutor() {
+        return buildExecutor("crawl", crawl, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(CACHE_REFRESH_EXECUTOR)
+    public ExecutorService cacheRefreshExecutor() {
+        return buildExecutor("cache-refresh", cacheRefresh, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 未指定线程池的 @Async 任务默认使用文件清理线程池
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return fileCleanExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> log.error("异步任务执行失败，method = {}", method.getName(), e);
+    }
+
+    /**
+     * 创建有界线程池并注册监控指标
+     *
+     * @param name 线程池名称
+     * @param properties 线程池参数
+     * @param rejectedHandler 拒绝策略
+     * @return
+     */
+    private ExecutorService buildExecutor(String name, PoolProperties properties, RejectedExecutionHandler rejectedHandler) {
+        Counter rejectedCounter = Counter.builder("executor.rejected")
+                .description("线程池拒绝的任务数")
+                .tag("name", name)
+                .register(meterRegistry);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getCoreSize(), properties.getMaxSize(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                ThreadFactoryBuilder.create().setNamePrefix(name + "-").build(),
+                (runnable, threadPoolExecutor) -> {
+                    // 先计数，再交给实际的拒绝策略
+                    rejectedCounter.increment();
+                    log.warn("线程池 {} 已满，拒绝任务，队列长度 = {}", name, threadPoolExecutor.getQueue().size());
+                    rejectedHandler.rejectedExecution(runnable, threadPoolExecutor);
+                });
+        // 包装后会记录任务排队时间（executor.idle）和执行时间（executor）
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, name);
+    }
+
+    /**
+     * 线程池参数
+     */
+    @Data
+    public static class PoolProperties {
+
+        /**
+         * 核心线程数
+         */
+        private int coreSize;
+
+        /**
+         * 最大线程数
+         */
+        private int maxSize;
+
+        /**
+         * 队列长度
+         */
+        private int queueCapacity;
+
+        public PoolProperties() {
+        }
+
+        public PoolProperties(int coreSize, int maxSize, int queueCapacity) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
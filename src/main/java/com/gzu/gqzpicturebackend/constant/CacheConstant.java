@@ -0,0 +1,17 @@
+package com.gzu.gqzpicturebackend.constant;
+
+/**
+ * 缓存常量
+ */
+public interface CacheConstant {
+
+    /**
+     * 请求属性：本次返回的是过期的缓存数据
+     */
+    String STALE_ATTRIBUTE = "cache_stale";
+
+    /**
+     * 响应头：本次返回的是过期的缓存数据（后端不可用时的降级结果）
+     */
+    String STALE_HEADER = "X-Cache-Stale";
+}
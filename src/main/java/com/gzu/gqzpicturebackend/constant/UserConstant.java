@@ -9,6 +9,16 @@ public interface UserConstant {
      */
     String USER_LOGIN_STATE = "user_login";
 
+    /**
+     * 请求属性：本次请求已解析的登录用户
+     */
+    String LOGIN_USER_ATTRIBUTE = "login_user";
+
+    /**
+     * 请求属性：本次请求已校验的令牌信息
+     */
+    String TOKEN_CLAIMS_ATTRIBUTE = "token_claims";
+
     // region 权限
     /**
      * 管理员角色
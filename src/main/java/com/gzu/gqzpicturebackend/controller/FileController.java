@@ -1,15 +1,14 @@
 package com.gzu.gqzpicturebackend.controller;
 
+import cn.hutool.core.io.IoUtil;
 import com.gzu.gqzpicturebackend.annotation.AuthCheck;
 import com.gzu.gqzpicturebackend.common.BaseResponse;
 import com.gzu.gqzpicturebackend.common.ResultUtils;
 import com.gzu.gqzpicturebackend.constant.UserConstant;
 import com.gzu.gqzpicturebackend.exception.BusinessException;
 import com.gzu.gqzpicturebackend.exception.ErrorCode;
-import com.gzu.gqzpicturebackend.manage.CosManager;
-import com.qcloud.cos.model.COSObject;
-import com.qcloud.cos.model.COSObjectInputStream;
-import com.qcloud.cos.utils.IOUtils;
+import com.gzu.gqzpicturebackend.manage.storage.ObjectStorage;
+import com.gzu.gqzpicturebackend.manage.storage.StoredObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -26,10 +25,10 @@ import java.io.IOException;
 @RequestMapping("/file")
 public class FileController {
 
-    private final CosManager cosManager;
+    private final ObjectStorage objectStorage;
 
-    public FileController(CosManager cosManager) {
-        this.cosManager = cosManager;
+    public FileController(ObjectStorage objectStorage) {
+        this.objectStorage = objectStorage;
     }
 
     /**
@@ -53,7 +52,7 @@ public class FileController {
             // 将上传的文件转移到临时文件中
             multipartFile.transferTo(file);
             // 将文件上传到目标存储系统
-            cosManager.putObject(filepath, file);
+            objectStorage.putObject(filepath, file);
             // 返回可访问的地址
             return ResultUtils.success(filepath);
         } catch (Exception e) {
@@ -84,26 +83,18 @@ public class FileController {
     @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
     @PostMapping("/test/download")
     public void testDownloadFile(String filepath, HttpServletResponse response) throws IOException {
-        COSObjectInputStream cosObjectInput = null;
-        try {
-            COSObject cosObject = cosManager.getObject(filepath);
-            cosObjectInput  = cosObject.getObjectContent();
-            byte[] bytes = IOUtils.toByteArray(cosObjectInput);
+        try (StoredObject storedObject = objectStorage.getObject(filepath)) {
             // 设置响应头
             response.setContentType("application/octet-stream;charset=UTF-8");
             response.setHeader("Content-Disposition", "attachment; filename=" + filepath);
-            // 写入响应
-            response.getOutputStream().write(bytes);
+            response.setContentLengthLong(storedObject.getContentLength());
+            // 边读边写，不把整个文件读入内存
+            IoUtil.copy(storedObject.getContent(), response.getOutputStream());
             response.getOutputStream().flush();
         } catch (Exception e) {
             log.error("file download error, filepath = " + filepath, e);
             // 抛出业务异常，表示文件下载失败
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "下载失败");
-        } finally {
-            // 释放流
-            if (cosObjectInput != null){
-                cosObjectInput.close();
-            }
         }
 
     }
@@ -1,6 +1,5 @@
 package com.gzu.gqzpicturebackend.controller;
 
-import cn.hutool.json.JSONUtil;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -8,11 +7,16 @@ import com.gzu.gqzpicturebackend.annotation.AuthCheck;
 import com.gzu.gqzpicturebackend.common.BaseResponse;
 import com.gzu.gqzpicturebackend.common.DeleteRequest;
 import com.gzu.gqzpicturebackend.common.ResultUtils;
+import com.gzu.gqzpicturebackend.constant.CacheConstant;
 import com.gzu.gqzpicturebackend.constant.UserConstant;
 import com.gzu.gqzpicturebackend.exception.BusinessException;
 import com.gzu.gqzpicturebackend.exception.ErrorCode;
 import com.gzu.gqzpicturebackend.exception.ThrowUtils;
+import com.gzu.gqzpicturebackend.manage.cache.CachedResponse;
+import com.gzu.gqzpicturebackend.manage.cache.ResponseBodyCache;
+import com.gzu.gqzpicturebackend.manage.search.PictureSearchIndex;
 import com.gzu.gqzpicturebackend.model.dto.picture.*;
+import com.gzu.gqzpicturebackend.model.convert.TagsCodec;
 import com.gzu.gqzpicturebackend.model.entity.Picture;
 import com.gzu.gqzpicturebackend.model.entity.Space;
 import com.gzu.gqzpicturebackend.model.entity.User;
@@ -20,16 +24,21 @@ import com.gzu.gqzpicturebackend.model.enums.PictureReviewStatusEnum;
 import com.gzu.gqzpicturebackend.model.vo.PictureTagCategory;
 import com.gzu.gqzpicturebackend.model.vo.PictureVO;
 import com.gzu.gqzpicturebackend.service.PictureService;
+import com.gzu.gqzpicturebackend.service.PictureTagService;
 import com.gzu.gqzpicturebackend.service.SpaceService;
 import com.gzu.gqzpicturebackend.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Date;
@@ -50,6 +59,24 @@ public class PictureController {
     @Resource
     private SpaceService spaceService;
 
+    @Resource
+    private PictureTagService pictureTagService;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private PictureSearchIndex pictureSearchIndex;
+
+    @Resource
+    private ResponseBodyCache responseBodyCache;
+
+    /**
+     * 是否缓存序列化好的响应体（关闭时每次解码后再由 Jackson 序列化）
+     */
+    @Value("${picture.cache.response-bytes:true}")
+    private boolean responseBytesEnabled;
+
 
 
     /**
@@ -112,19 +139,25 @@ public class PictureController {
         Picture picture = new Picture();
         BeanUtils.copyProperties(pictureUpdateRequest, picture);
         // 注意将 list 转为 string
-        picture.setTags(JSONUtil.toJsonStr(pictureUpdateRequest.getTags()));
+        picture.setTags(TagsCodec.encode(pictureUpdateRequest.getTags()));
         // 数据校验
         pictureService.validPicture(picture);
         // 判断是否存在
         long id = pictureUpdateRequest.getId();
-        Picture oldPicture = pictureService.getById(id);
+        Picture oldPicture = pictureService.getPictureByIdWithCache(id);
         ThrowUtils.throwIf(oldPicture == null, ErrorCode.NOT_FOUND_ERROR);
         // 补充审核参数
         User loginUser = userService.getLoginUser(request);
         pictureService.fillReviewParams(oldPicture,loginUser);
-        // 操作数据库
-        boolean result = pictureService.updateById(picture);
-        ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        // 操作数据库，同时更新标签索引
+        transactionTemplate.execute(status -> {
+            boolean result = pictureService.updateById(picture);
+            ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+            pictureTagService.syncTags(id, pictureUpdateRequest.getTags());
+            return true;
+        });
+        pictureSearchIndex.refresh(id);
+        pictureService.invalidatePictureCache(oldPicture, picture);
         return ResultUtils.success(true);
     }
 
@@ -148,8 +181,8 @@ public class PictureController {
     @GetMapping("/get/vo")
     public BaseResponse<PictureVO> getPictureVOById(long id, HttpServletRequest request) {
         ThrowUtils.throwIf(id <= 0, ErrorCode.PARAMS_ERROR);
-        // 查询数据库
-        Picture picture = pictureService.getById(id);
+        // 查询缓存，未命中再查询数据库
+        Picture picture = pictureService.getPictureByIdWithCache(id);
         ThrowUtils.throwIf(picture == null, ErrorCode.NOT_FOUND_ERROR);
         // 空间权限校验
         Long spaceId = picture.getSpaceId();
@@ -167,11 +200,8 @@ public class PictureController {
     @PostMapping("/list/page")
     @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
     public BaseResponse<Page<Picture>> listPictureByPage(@RequestBody PictureQueryRequest pictureQueryRequest) {
-        long current = pictureQueryRequest.getCurrent();
-        long size = pictureQueryRequest.getPageSize();
         // 查询数据库
-        Page<Picture> picturePage = pictureService.page(new Page<>(current, size),
-                pictureService.getQueryWrapper(pictureQueryRequest));
+        Page<Picture> picturePage = pictureService.listPictureByPage(pictureQueryRequest);
         return ResultUtils.success(picturePage);
     }
 
@@ -181,7 +211,6 @@ public class PictureController {
     @PostMapping("/list/page/vo")
     public BaseResponse<Page<PictureVO>> listPictureVOByPage(@RequestBody PictureQueryRequest pictureQueryRequest,
                                                              HttpServletRequest request) {
-        long current = pictureQueryRequest.getCurrent();
         long size = pictureQueryRequest.getPageSize();
         // 限制爬虫
         ThrowUtils.throwIf(size > 20, ErrorCode.PARAMS_ERROR);
@@ -202,19 +231,22 @@ public class PictureController {
                 throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "没有空间权限");
             }
         }
-        // 查询数据库
-        Page<Picture> picturePage = pictureService.page(new Page<>(current, size),
-                pictureService.getQueryWrapper(pictureQueryRequest));
+        // 查询数据库（游标模式不查询总数，也没有 OFFSET）
+        Page<Picture> picturePage = pictureQueryRequest.isCursorMode()
+                ? pictureService.listPictureByCursor(pictureQueryRequest)
+                : pictureService.listPictureByPage(pictureQueryRequest);
         // 获取封装类
         return ResultUtils.success(pictureService.getPictureVOPage(picturePage, request));
     }
 
     /**
      * 分页获取图片列表（封装类,有缓存）
+     * 开启响应体缓存时直接返回缓存的 JSON 字节（ResponseEntity<byte[]>），否则返回 BaseResponse<Page<PictureVO>>
      */
     @PostMapping("/list/page/vo/cache")
-    public BaseResponse<Page<PictureVO>> listPictureVOByPageWithCache(@RequestBody PictureQueryRequest pictureQueryRequest,
-                                                             HttpServletRequest request) {
+    public ResponseEntity<?> listPictureVOByPageWithCache(@RequestBody PictureQueryRequest pictureQueryRequest,
+                                                          HttpServletRequest request,
+                                                          HttpServletResponse response) {
         long size = pictureQueryRequest.getPageSize();
         // 限制爬虫
         ThrowUtils.throwIf(size > 20, ErrorCode.PARAMS_ERROR);
@@ -233,8 +265,24 @@ public class PictureController {
                 throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "没有空间权限");
             }
         }
+        if (responseBytesEnabled) {
+            // 直接返回缓存的响应体字节，不经过解码和序列化
+            CachedResponse cachedResponse = pictureService.listPictureVOByPageResponseWithCache(pictureQueryRequest, request);
+            setStaleHeader(request, response);
+            return responseBodyCache.toResponseEntity(cachedResponse, request);
+        }
         Page<PictureVO> resultPage = pictureService.listPictureVOByPageWithCache(pictureQueryRequest, request);
-        return ResultUtils.success(resultPage);
+        setStaleHeader(request, response);
+        return ResponseEntity.ok(ResultUtils.success(resultPage));
+    }
+
+    /**
+     * 后端不可用时返回的过期数据，告知前端
+     */
+    private void setStaleHeader(HttpServletRequest request, HttpServletResponse response) {
+        if (Boolean.TRUE.equals(request.getAttribute(CacheConstant.STALE_ATTRIBUTE))) {
+            response.setHeader(CacheConstant.STALE_HEADER, "true");
+        }
     }
 
     /**
@@ -0,0 +1,89 @@
+package com.gzu.gqzpicturebackend.controller;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.core.util.URLUtil;
+import com.gzu.gqzpicturebackend.manage.storage.LocalObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 本地存储的文件访问（picture.storage.type=local 时启用）
+ * 对象键带随机数且不会覆盖，可以长期缓存；支持单个 Range 请求
+ */
+@Slf4j
+@RestController
+@RequestMapping("/storage")
+@ConditionalOnProperty(name = "picture.storage.type", havingValue = "local")
+public class StorageController {
+
+    private static final String PATH_PREFIX = "/storage/";
+
+    @Resource
+    private LocalObjectStorage localObjectStorage;
+
+    /**
+     * 读取文件
+     *
+     * @param request
+     * @param response
+     */
+    @GetMapping("/**")
+    public void getObject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String key = URLUtil.decode(StrUtil.removePrefix(path, PATH_PREFIX), StandardCharsets.UTF_8);
+        long size = localObjectStorage.getObjectSize(key);
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (StrUtil.startWith(range, "bytes=") && !range.contains(",")) {
+            String spec = range.substring("bytes=".length()).trim();
+            String startStr = StrUtil.subBefore(spec, "-", false).trim();
+            String endStr = StrUtil.subAfter(spec, "-", false).trim();
+            boolean parsed = true;
+            try {
+                if (startStr.isEmpty()) {
+                    // bytes=-n：最后 n 个字节
+                    start = Math.max(0, size - Long.parseLong(endStr));
+                } else {
+                    start = Long.parseLong(startStr);
+                    if (!endStr.isEmpty()) {
+                        end = Math.min(end, Long.parseLong(endStr));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // 无法解析的 Range 忽略，按整个文件返回 200
+                parsed = false;
+                start = 0;
+                end = size - 1;
+            }
+            if (parsed) {
+                if (start >= size || start > end) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, size));
+            }
+        }
+        response.setContentType(localObjectStorage.getContentType(key));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000");
+        response.setContentLengthLong(end - start + 1);
+        if (size == 0) {
+            return;
+        }
+        localObjectStorage.transferTo(key, start, end, Channels.newChannel(response.getOutputStream()));
+    }
+}
@@ -54,6 +54,17 @@ public class UserController {
         return ResultUtils.success(loginUserVo);
     }
 
+    /**
+     * 刷新令牌（启用无状态令牌时可用）
+     * @param tokenRefreshRequest
+     * @return
+     */
+    @PostMapping("/token/refresh")
+    public BaseResponse<LoginUserVo> refreshToken(@RequestBody TokenRefreshRequest tokenRefreshRequest){
+        ThrowUtils.throwIf(tokenRefreshRequest == null, ErrorCode.PARAMS_ERROR);
+        return ResultUtils.success(userService.refreshToken(tokenRefreshRequest.getRefreshToken()));
+    }
+
     /**
      * 获取当前登录用户信息
      * @param request
@@ -136,6 +147,7 @@ public class UserController {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         boolean result = userService.removeById(deleteRequest.getId());
+        userService.invalidateLoginUser(deleteRequest.getId());
         return ResultUtils.success(result);
     }
 
@@ -152,6 +164,8 @@ public class UserController {
         BeanUtils.copyProperties(userUpdateRequest, user);
         boolean result = userService.updateById(user);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        // 用户信息或角色已修改，清除登录用户缓存
+        userService.invalidateLoginUser(user.getId());
         System.out.println(user);
         return ResultUtils.success(true);
     }
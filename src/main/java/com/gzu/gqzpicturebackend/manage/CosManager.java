@@ -1,10 +1,16 @@
 package com.gzu.gqzpicturebackend.manage;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.StrUtil;
 import com.gzu.gqzpicturebackend.config.CosClientConfig;
 import com.qcloud.cos.COSClient;
 import com.qcloud.cos.model.COSObject;
+import com.qcloud.cos.model.CompleteMultipartUploadResult;
+import com.qcloud.cos.model.DeleteObjectsRequest;
 import com.qcloud.cos.model.GetObjectRequest;
+import com.qcloud.cos.model.ObjectMetadata;
 import com.qcloud.cos.model.PutObjectRequest;
 import com.qcloud.cos.model.PutObjectResult;
 import com.qcloud.cos.model.ciModel.persistence.PicOperations;
@@ -12,6 +18,7 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
 import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +31,8 @@ public class CosManager {
     @Resource
     private COSClient cosClient;
 
+    @Resource
+    private CosMultipartUploader cosMultipartUploader;
 
     /**
      * 将文件上传到指定的存储桶中
@@ -33,6 +42,10 @@ public class CosManager {
      * @return 返回上传后的对象信息，包括ETag、版本ID等
      */
     public PutObjectResult putObject(String key, File file) {
+        // 大文件自动切换为分块上传
+        if (cosMultipartUploader.shouldUseMultipart(file.length())) {
+            return toPutObjectResult(cosMultipartUploader.upload(key, file, null));
+        }
         // 创建一个PutObjectRequest对象，指定上传的目标存储桶、对象键和本地文件
         PutObjectRequest putObjectRequest = new PutObjectRequest(cosClientConfig.getBucket(), key,
                 file);
@@ -40,6 +53,26 @@ public class CosManager {
         return cosClient.putObject(putObjectRequest);
     }
 
+    /**
+     * 流式上传对象
+     *
+     * @param key 文件在存储桶中的对象键（即路径和文件名）
+     * @param inputStream 文件输入流，由调用方关闭
+     * @param contentLength 文件长度，必须已知
+     * @return 返回上传后的对象信息，包括ETag、版本ID等
+     */
+    public PutObjectResult putObject(String key, InputStream inputStream, long contentLength) {
+        // 大文件自动切换为分块上传
+        if (cosMultipartUploader.shouldUseMultipart(contentLength)) {
+            return toPutObjectResult(cosMultipartUploader.upload(key, inputStream, contentLength, null));
+        }
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setContentLength(contentLength);
+        PutObjectRequest putObjectRequest = new PutObjectRequest(cosClientConfig.getBucket(), key,
+                inputStream, objectMetadata);
+        return cosClient.putObject(putObjectRequest);
+    }
+
     /**
      * 下载对象
      * @param key
@@ -50,6 +83,19 @@ public class CosManager {
         return cosClient.getObject(getObjectRequest);
     }
 
+    /**
+     * 下载对象的一段
+     * @param key
+     * @param start 起始位置（包含）
+     * @param end 结束位置（包含）
+     * @return
+     */
+    public COSObject getObject(String key, long start, long end) {
+        GetObjectRequest getObjectRequest = new GetObjectRequest(cosClientConfig.getBucket(), key);
+        getObjectRequest.setRange(start, end);
+        return cosClient.getObject(getObjectRequest);
+    }
+
     /**
      * 上传对象（附带图片信息）
      *
@@ -58,9 +104,54 @@ public class CosManager {
      * @return 返回上传后的对象信息，包括ETag、版本ID等
      */
     public PutObjectResult putPictureObject(String key, File file) {
+        // 大文件自动切换为分块上传，合并分块时再做图片处理
+        if (cosMultipartUploader.shouldUseMultipart(file.length())) {
+            return toPutObjectResult(cosMultipartUploader.upload(key, file, buildPicOperations(key, file.length())));
+        }
         // 创建一个PutObjectRequest对象，指定上传的目标存储桶、对象键和本地文件
         PutObjectRequest putObjectRequest = new PutObjectRequest(cosClientConfig.getBucket(), key,
                 file);
+        putObjectRequest.setPicOperations(buildPicOperations(key, file.length()));
+        return cosClient.putObject(putObjectRequest);
+    }
+
+    /**
+     * 流式上传对象（附带图片信息），不落临时文件
+     *
+     * @param key 文件在存储桶中的对象键（即路径和文件名）
+     * @param inputStream 文件输入流，上传结束后会被关闭
+     * @param contentLength 文件长度，必须已知
+     * @return 返回上传后的对象信息，包括ETag、版本ID等
+     */
+    public PutObjectResult putPictureObject(String key, InputStream inputStream, long contentLength) {
+        // 长度已知时 SDK 直接按流发送，不会把整个文件读进内存
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setContentLength(contentLength);
+        PooledBufferedInputStream bufferedInputStream = new PooledBufferedInputStream(inputStream);
+        try {
+            // 大文件自动切换为分块上传
+            if (cosMultipartUploader.shouldUseMultipart(contentLength)) {
+                return toPutObjectResult(cosMultipartUploader.upload(key, bufferedInputStream, contentLength,
+                        buildPicOperations(key, contentLength)));
+            }
+            PutObjectRequest putObjectRequest = new PutObjectRequest(cosClientConfig.getBucket(), key,
+                    bufferedInputStream, objectMetadata);
+            putObjectRequest.setPicOperations(buildPicOperations(key, contentLength));
+            return cosClient.putObject(putObjectRequest);
+        } finally {
+            // 归还缓冲区
+            IoUtil.close(bufferedInputStream);
+        }
+    }
+
+    /**
+     * 构造图片处理参数
+     *
+     * @param key 原图对象键
+     * @param fileSize 原图大小
+     * @return
+     */
+    private PicOperations buildPicOperations(String key, long fileSize) {
         // 对图片进行处理（获取基本信息也被视为一种对图片的处理）
         PicOperations picOperations = new PicOperations();
         // 1 表示返回图片信息，0 表示不返回
@@ -76,7 +167,7 @@ public class CosManager {
         rules.add(compressRule);
 
         // 2. 缩略图处理,仅对 > 20 KB 的图片进行缩略图处理
-        if (file.length() > 2 * 1024) {
+        if (fileSize > 2 * 1024) {
             PicOperations.Rule thumbnailRule = new PicOperations.Rule();
             // 拼接缩略图路径
             String thumbnailKey = FileUtil.mainName(key) + "_thumbnail." + FileUtil.getSuffix(key);
@@ -88,8 +179,38 @@ public class CosManager {
 
         // 构造处理参数
         picOperations.setRules(rules);
-        putObjectRequest.setPicOperations(picOperations);
-        return cosClient.putObject(putObjectRequest);
+        return picOperations;
+    }
+
+    /**
+     * 分块上传结果转换为普通上传结果，便于调用方统一处理
+     *
+     * @param completeMultipartUploadResult
+     * @return
+     */
+    private PutObjectResult toPutObjectResult(CompleteMultipartUploadResult completeMultipartUploadResult) {
+        PutObjectResult putObjectResult = new PutObjectResult();
+        putObjectResult.setETag(completeMultipartUploadResult.getETag());
+        putObjectResult.setVersionId(completeMultipartUploadResult.getVersionId());
+        putObjectResult.setCiUploadResult(completeMultipartUploadResult.getCiUploadResult());
+        return putObjectResult;
+    }
+
+    /**
+     * 根据访问地址获取对象键
+     *
+     * @param url 访问地址（域名 + / + 对象键）
+     * @return
+     */
+    public String getKeyFromUrl(String url) {
+        if (StrUtil.isBlank(url)) {
+            return url;
+        }
+        String prefix = cosClientConfig.getHost() + "/";
+        if (url.startsWith(prefix)) {
+            return url.substring(prefix.length());
+        }
+        return url;
     }
 
     /**
@@ -100,4 +221,20 @@ public class CosManager {
     public void deleteObject(String key) {
         cosClient.deleteObject(cosClientConfig.getBucket(), key);
     }
+
+    /**
+     * 批量删除对象（单次请求最多 1000 个）
+     * @param keys
+     */
+    public void deleteObjects(List<String> keys) {
+        for (List<String> subKeys : CollUtil.split(keys, 1000)) {
+            DeleteObjectsRequest deleteObjectsRequest = new DeleteObjectsRequest(cosClientConfig.getBucket());
+            List<DeleteObjectsRequest.KeyVersion> keyVersions = new ArrayList<>();
+            for (String key : subKeys) {
+                keyVersions.add(new DeleteObjectsRequest.KeyVersion(key));
+            }
+            deleteObjectsRequest.setKeys(keyVersions);
+            cosClient.deleteObjects(deleteObjectsRequest);
+        }
+    }
 }
@@ -0,0 +1,266 @@
+package com.gzu.gqzpicturebackend.manage;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.StrUtil;
+import com.gzu.gqzpicturebackend.config.CosClientConfig;
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.exception.CosClientException;
+import com.qcloud.cos.model.*;
+import com.qcloud.cos.model.ciModel.persistence.PicOperations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 分块上传
+ * 大文件拆成多个分块，在有界线程池中并行上传，单个分块失败单独重试；
+ * 整体失败时终止本次分块上传，删除已上传的分块（每次上传的对象键都带随机数，不会再续传）。
+ * 终止请求本身也可能失败，存储桶需配置生命周期规则，自动清理超过 1 天未完成的分块上传（AbortIncompleteMultipartUpload）
+ */
+@Slf4j
+@Component
+public class CosMultipartUploader {
+
+    @Resource
+    private CosClientConfig cosClientConfig;
+
+    @Resource
+    private COSClient cosClient;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 分块上传线程池（有界队列，满了限时等待入队，超时拒绝，不占用调用线程上传）
+     */
+    private ExecutorService partExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = cosClientConfig.getMultipartThreads();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 4),
+                ThreadFactoryBuilder.create().setNamePrefix("cos-multipart-").build(),
+                this::waitForQueue);
+        partExecutor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, "cos-multipart");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        partExecutor.shutdown();
+    }
+
+    /**
+     * 队列已满时限时等待入队，起到背压作用，超时或线程池已关闭时拒绝，由上传流程终止本次分块上传
+     */
+    private void waitForQueue(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("分块上传线程池已关闭");
+        }
+        try {
+            if (!executor.getQueue().offer(runnable, cosClientConfig.getPartSubmitTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("分块上传线程池繁忙，等待入队超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("等待分块上传入队被中断", e);
+        }
+    }
+
+    /**
+     * 是否需要走分块上传
+     *
+     * @param contentLength 文件大小
+     * @return
+     */
+    public boolean shouldUseMultipart(long contentLength) {
+        return contentLength > cosClientConfig.getMultipartThreshold();
+    }
+
+    /**
+     * 分块上传本地文件
+     *
+     * @param key 对象键
+     * @param file 本地文件
+     * @param picOperations 图片处理参数，可为空
+     * @return
+     */
+    public CompleteMultipartUploadResult upload(String key, File file, PicOperations picOperations) {
+        // 文件可以按偏移量随机读取，重试时直接重建请求
+        return doUpload(key, file.length(), picOperations, (partNumber, offset, partSize) -> () -> {
+            UploadPartRequest uploadPartRequest = new UploadPartRequest();
+            uploadPartRequest.setFile(file);
+            uploadPartRequest.setFileOffset(offset);
+            uploadPartRequest.setPartSize(partSize);
+            return uploadPartRequest;
+        });
+    }
+
+    /**
+     * 分块上传输入流
+     * 流只能顺序读取，每个分块读入内存后再提交，同时在途的分块数受线程池队列限制
+     *
+     * @param key 对象键
+     * @param inputStream 输入流
+     * @param contentLength 内容长度
+     * @param picOperations 图片处理参数，可为空
+     * @return
+     */
+    public CompleteMultipartUploadResult upload(String key, InputStream inputStream, long contentLength,
+                                                PicOperations picOperations) {
+        return doUpload(key, contentLength, picOperations, (partNumber, offset, partSize) -> {
+            byte[] bytes = new byte[(int) partSize];
+            int read = readFully(inputStream, bytes);
+            if (read != partSize) {
+                throw new IOException(StrUtil.format("分块 {} 数据不完整，期望 {} 字节，实际 {} 字节",
+                        partNumber, partSize, read));
+            }
+            return () -> {
+                UploadPartRequest uploadPartRequest = new UploadPartRequest();
+                uploadPartRequest.setInputStream(new ByteArrayInputStream(bytes));
+                uploadPartRequest.setPartSize(partSize);
+                return uploadPartRequest;
+            };
+        });
+    }
+
+    /**
+     * 执行分块上传
+     */
+    private CompleteMultipartUploadResult doUpload(String key, long contentLength, PicOperations picOperations,
+                                                   PartProvider partProvider) {
+        String bucket = cosClientConfig.getBucket();
+        long partSize = cosClientConfig.getPartSize();
+        // 1. 初始化分块上传
+        String uploadId = cosClient.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key)).getUploadId();
+        // 2. 按分块提交上传任务
+        List<PartETag> partETags = new ArrayList<>();
+        List<Future<PartETag>> futures = new ArrayList<>();
+        int partNumber = 1;
+        try {
+            for (long offset = 0; offset < contentLength; offset += partSize, partNumber++) {
+                long currentPartSize = Math.min(partSize, contentLength - offset);
+                Supplier<UploadPartRequest> requestSupplier = partProvider.prepare(partNumber, offset, currentPartSize);
+                final int finalPartNumber = partNumber;
+                futures.add(partExecutor.submit(() ->
+                        uploadPartWithRetry(key, uploadId, finalPartNumber, requestSupplier)));
+            }
+            // 3. 等待所有分块完成
+            for (Future<PartETag> future : futures) {
+                partETags.add(future.get());
+            }
+            // 4. 合并分块
+            partETags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+            CompleteMultipartUploadRequest completeRequest = new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags);
+            if (picOperations != null) {
+                completeRequest.setPicOperations(picOperations);
+            }
+            return cosClient.completeMultipartUpload(completeRequest);
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            log.error("分块上传失败，key = {}, uploadId = {}", key, uploadId, e);
+            // 终止上传，已上传的分块不再计费
+            abortQuietly(key, uploadId);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new CosClientException("分块上传失败：" + key, e);
+        }
+    }
+
+    /**
+     * 终止分块上传，失败时由存储桶的生命周期规则兜底清理
+     */
+    private void abortQuietly(String key, String uploadId) {
+        try {
+            cosClient.abortMultipartUpload(new AbortMultipartUploadRequest(cosClientConfig.getBucket(), key, uploadId));
+        } catch (Exception e) {
+            log.warn("终止分块上传失败，等待生命周期规则清理，key = {}, uploadId = {}", key, uploadId, e);
+        }
+    }
+
+    /**
+     * 上传单个分块，失败后单独重试
+     */
+    private PartETag uploadPartWithRetry(String key, String uploadId, int partNumber,
+                                         Supplier<UploadPartRequest> requestSupplier) throws InterruptedException {
+        int retryTimes = cosClientConfig.getPartRetryTimes();
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                UploadPartRequest uploadPartRequest = requestSupplier.get();
+                uploadPartRequest.setBucketName(cosClientConfig.getBucket());
+                uploadPartRequest.setKey(key);
+                uploadPartRequest.setUploadId(uploadId);
+                uploadPartRequest.setPartNumber(partNumber);
+                PartETag partETag = cosClient.uploadPart(uploadPartRequest).getPartETag();
+                recordPartTime(start, "success");
+                return partETag;
+            } catch (CosClientException e) {
+                recordPartTime(start, "failure");
+                if (attempt >= retryTimes) {
+                    throw e;
+                }
+                log.warn("分块上传失败，准备重试，key = {}, partNumber = {}, attempt = {}", key, partNumber, attempt + 1, e);
+                // 线性退避
+                Thread.sleep(200L * (attempt + 1));
+            }
+        }
+    }
+
+    /**
+     * 记录分块耗时
+     */
+    private void recordPartTime(long start, String result) {
+        Timer.builder("cos.multipart.part")
+                .description("COS 分块上传单个分块耗时")
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 读满缓冲区，直到流结束
+     *
+     * @return 实际读取的字节数
+     */
+    private static int readFully(InputStream inputStream, byte[] bytes) throws IOException {
+        int total = 0;
+        while (total < bytes.length) {
+            int n = inputStream.read(bytes, total, bytes.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 分块数据提供者
+     */
+    @FunctionalInterface
+    private interface PartProvider {
+
+        /**
+         * 准备分块数据（按分块顺序调用）
+         *
+         * @return 分块请求的工厂，重试时重新创建请求
+         */
+        Supplier<UploadPartRequest> prepare(int partNumber, long offset, long partSize) throws IOException;
+    }
+}
@@ -0,0 +1,118 @@
+package com.gzu.gqzpicturebackend.manage;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONUtil;
+import com.gzu.gqzpicturebackend.config.ThreadPoolConfig;
+import com.gzu.gqzpicturebackend.manage.storage.ObjectStorage;
+import com.gzu.gqzpicturebackend.model.entity.PictureFile;
+import com.gzu.gqzpicturebackend.service.PictureFileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 图片文件回收
+ * 引用计数为 0 的图片文件即为待回收队列，定时分批取出，先删除记录再批量删除对象存储中的文件
+ */
+@Slf4j
+@Component
+public class PictureFileCleaner {
+
+    /**
+     * 每批回收数量
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 计数归零后保留的时间（分钟），避免刚上传、尚未入库的文件被回收
+     */
+    private static final int GRACE_MINUTES = 10;
+
+    @Resource
+    private PictureFileService pictureFileService;
+
+    @Resource
+    private ObjectStorage objectStorage;
+
+    /**
+     * 是否正在回收，避免两轮回收重叠
+     */
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * 回收未被引用的图片文件
+     * 定时触发后在文件清理线程池中执行，不占用调度线程
+     */
+    @Async(ThreadPoolConfig.FILE_CLEAN_EXECUTOR)
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void clean() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            doClean();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void doClean() {
+        Date before = DateUtil.offsetMinute(new Date(), -GRACE_MINUTES);
+        List<PictureFile> pictureFileList;
+        do {
+            pictureFileList = pictureFileService.listUnreferenced(before, BATCH_SIZE);
+            cleanBatch(pictureFileList);
+        } while (pictureFileList.size() >= BATCH_SIZE);
+    }
+
+    /**
+     * 回收一批图片文件
+     * @param pictureFileList
+     */
+    private void cleanBatch(List<PictureFile> pictureFileList) {
+        if (CollUtil.isEmpty(pictureFileList)) {
+            return;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (PictureFile pictureFile : pictureFileList) {
+            // 删除记录时再确认一次计数，期间被重新引用的文件保留
+            if (!pictureFileService.removeIfUnreferenced(pictureFile.getId())) {
+                continue;
+            }
+            // 原图、图片（可能就是原图）、其他衍生图和缩略图
+            if (StrUtil.isNotBlank(pictureFile.getOriginalKey())) {
+                keys.add(pictureFile.getOriginalKey());
+            }
+            keys.add(objectStorage.getKeyFromUrl(pictureFile.getUrl()));
+            if (StrUtil.isNotBlank(pictureFile.getExtraKeys())) {
+                // 其他衍生图按上传时记录的对象键删除，与当前的尺寸配置无关
+                keys.addAll(JSONUtil.toList(pictureFile.getExtraKeys(), String.class));
+            }
+            if (StrUtil.isNotBlank(pictureFile.getThumbnailUrl())
+                    && !pictureFile.getThumbnailUrl().equals(pictureFile.getUrl())) {
+                keys.add(objectStorage.getKeyFromUrl(pictureFile.getThumbnailUrl()));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        // 记录已删除，失败的对象只能人工清理（按日志中的 key）
+        List<String> failedKeys = objectStorage.deleteObjects(new ArrayList<>(keys));
+        if (failedKeys.isEmpty()) {
+            log.info("回收图片文件 {} 个", keys.size());
+        } else {
+            log.error("回收图片文件 {} 个，删除失败 {} 个，keys = {}", keys.size(), failedKeys.size(), failedKeys);
+        }
+    }
+}
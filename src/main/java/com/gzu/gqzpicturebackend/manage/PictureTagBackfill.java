@@ -0,0 +1,72 @@
+package com.gzu.gqzpicturebackend.manage;
+
+import cn.hutool.core.util.StrUtil;
+import com.gzu.gqzpicturebackend.model.convert.TagsCodec;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import com.gzu.gqzpicturebackend.service.PictureService;
+import com.gzu.gqzpicturebackend.service.PictureTagService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 标签索引回填
+ * 把历史图片 picture.tags 中的 JSON 标签写入 picture_tag，可重复执行
+ * 配置 picture.tag-index.backfill=true 后在启动时执行一次
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "picture.tag-index", name = "backfill", havingValue = "true")
+public class PictureTagBackfill implements ApplicationRunner {
+
+    /**
+     * 每批处理的图片数量
+     */
+    private static final int BATCH_SIZE = 500;
+
+    @Resource
+    private PictureService pictureService;
+
+    @Resource
+    private PictureTagService pictureTagService;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("开始回填图片标签索引");
+        long lastId = 0;
+        long total = 0;
+        List<Picture> pictureList;
+        do {
+            // 按 id 顺序分批读取，只查需要的字段
+            pictureList = pictureService.lambdaQuery()
+                    .select(Picture::getId, Picture::getTags)
+                    .gt(Picture::getId, lastId)
+                    .orderByAsc(Picture::getId)
+                    .last("limit " + BATCH_SIZE)
+                    .list();
+            List<Picture> batch = pictureList;
+            transactionTemplate.execute(status -> {
+                for (Picture picture : batch) {
+                    if (StrUtil.isNotBlank(picture.getTags())) {
+                        pictureTagService.syncTags(picture.getId(), TagsCodec.decode(picture.getTags()));
+                    }
+                }
+                return true;
+            });
+            if (!pictureList.isEmpty()) {
+                lastId = pictureList.get(pictureList.size() - 1).getId();
+                total += pictureList.size();
+            }
+        } while (pictureList.size() >= BATCH_SIZE);
+        log.info("图片标签索引回填完成，共处理 {} 张图片", total);
+    }
+}
@@ -0,0 +1,130 @@
+package com.gzu.gqzpicturebackend.manage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 使用池化缓冲区的输入流
+ * 流式上传时包装原始输入流，缓冲区在关闭时归还到池中复用，避免每次上传都分配大数组
+ */
+public class PooledBufferedInputStream extends FilterInputStream {
+
+    /**
+     * 单个缓冲区大小 64KB
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 缓冲区池，最多保留 64 个
+     */
+    private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<>(64);
+
+    private byte[] buf;
+
+    private int pos;
+
+    private int count;
+
+    public PooledBufferedInputStream(InputStream in) {
+        super(in);
+        byte[] pooled = BUFFER_POOL.poll();
+        this.buf = pooled != null ? pooled : new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * 从底层流填充缓冲区
+     *
+     * @return 是否读到了数据
+     */
+    private boolean fill() throws IOException {
+        ensureOpen();
+        pos = 0;
+        count = 0;
+        int n = in.read(buf, 0, buf.length);
+        if (n > 0) {
+            count = n;
+        }
+        return n > 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buf == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pos >= count && !fill()) {
+            return -1;
+        }
+        return buf[pos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len == 0) {
+            return 0;
+        }
+        int avail = count - pos;
+        if (avail <= 0) {
+            // 请求的长度不小于缓冲区时直接读底层流，省一次拷贝
+            if (len >= buf.length) {
+                return in.read(b, off, len);
+            }
+            if (!fill()) {
+                return -1;
+            }
+            avail = count;
+        }
+        int n = Math.min(avail, len);
+        System.arraycopy(buf, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        long avail = count - pos;
+        if (avail <= 0) {
+            return in.skip(n);
+        }
+        long skipped = Math.min(avail, n);
+        pos += (int) skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return (count - pos) + in.available();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        byte[] b = buf;
+        if (b == null) {
+            return;
+        }
+        buf = null;
+        try {
+            in.close();
+        } finally {
+            // 归还缓冲区，池满则丢弃
+            BUFFER_POOL.offer(b);
+        }
+    }
+}
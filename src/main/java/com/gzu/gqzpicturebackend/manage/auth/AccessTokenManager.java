@@ -0,0 +1,320 @@
+package com.gzu.gqzpicturebackend.manage.auth;
+
+import cn.hutool.core.codec.Base64;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.gzu.gqzpicturebackend.constant.UserConstant;
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import com.gzu.gqzpicturebackend.model.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 无状态令牌（可选的登录方式，picture.auth.token.enabled=true 时启用）
+ * 令牌格式：base64url(载荷 JSON).base64url(HMAC-SHA256 签名)，载荷包含用户 id、登录会话 id、角色和有效期；
+ * 访问令牌只做本地签名校验，不读取会话；刷新令牌用于换取新的访问令牌，会话 id 不变。
+ * 注销时只吊销当前登录会话的令牌，角色变更和删除用户时吊销该用户此前签发的所有令牌；
+ * 吊销记录必须先写入 redis 才算成功，各节点定时同步到本地
+ */
+@Slf4j
+@Component
+public class AccessTokenManager {
+
+    public static final String TYPE_ACCESS = "access";
+
+    public static final String TYPE_REFRESH = "refresh";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * 吊销记录：用户 id 或 sid:会话 id -> 吊销时间（毫秒）
+     * 用户在吊销时间之前签发的令牌无效，被吊销的会话的令牌全部无效
+     */
+    private static final String REVOKED_KEY = "gqzpicture:token:revoked";
+
+    /**
+     * 吊销记录中会话的前缀
+     */
+    private static final String SESSION_MEMBER_PREFIX = "sid:";
+
+    /**
+     * 写入吊销记录的最大尝试次数
+     */
+    private static final int REVOKE_MAX_ATTEMPTS = 3;
+
+    /**
+     * 同步吊销记录时向前多取的毫秒数，覆盖节点间的时钟误差
+     */
+    private static final long SYNC_OVERLAP_MILLIS = 5_000;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${picture.auth.token.enabled:false}")
+    private boolean enabled;
+
+    @Value("${picture.auth.token.secret:}")
+    private String secret;
+
+    /**
+     * 访问令牌有效期（秒）
+     */
+    @Value("${picture.auth.token.access-ttl-seconds:900}")
+    private long accessTtlSeconds;
+
+    /**
+     * 刷新令牌有效期（秒）
+     */
+    @Value("${picture.auth.token.refresh-ttl-seconds:604800}")
+    private long refreshTtlSeconds;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 本地吊销记录：用户 id -> 吊销时间
+     */
+    private final Map<Long, Long> revokedMap = new ConcurrentHashMap<>();
+
+    /**
+     * 本地吊销记录：会话 id -> 吊销时间
+     */
+    private final Map<String, Long> revokedSessionMap = new ConcurrentHashMap<>();
+
+    /**
+     * 已同步到的吊销时间
+     */
+    private long syncedRevokedAt = 0;
+
+    private SecretKeySpec secretKey;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (StrUtil.length(secret) < 32) {
+            throw new IllegalStateException("启用无状态令牌时 picture.auth.token.secret 至少 32 个字符");
+        }
+        secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getAccessTtlSeconds() {
+        return accessTtlSeconds;
+    }
+
+    /**
+     * 生成新的登录会话 id，同一次登录签发的访问令牌和刷新令牌使用同一个会话 id
+     */
+    public String newSessionId() {
+        return IdUtil.fastSimpleUUID();
+    }
+
+    /**
+     * 签发令牌
+     *
+     * @param user 用户
+     * @param sessionId 登录会话 id
+     * @param type 令牌类型
+     * @return
+     */
+    public String issue(User user, String sessionId, String type) {
+        long now = System.currentTimeMillis();
+        long ttlSeconds = TYPE_REFRESH.equals(type) ? refreshTtlSeconds : accessTtlSeconds;
+        JSONObject payload = new JSONObject();
+        payload.set("typ", type);
+        payload.set("uid", user.getId());
+        payload.set("sid", sessionId);
+        payload.set("role", user.getUserRole());
+        payload.set("iat", now);
+        payload.set("exp", now + ttlSeconds * 1000);
+        String body = Base64.encodeUrlSafe(JSONUtil.toJsonStr(payload).getBytes(StandardCharsets.UTF_8));
+        return body + "." + Base64.encodeUrlSafe(sign(body));
+    }
+
+    /**
+     * 解析请求中的访问令牌（Authorization: Bearer ...），同一个请求只校验一次
+     *
+     * @param request
+     * @return 令牌信息，未启用或请求没有携带令牌时返回 null
+     */
+    public TokenClaims resolve(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        Object resolved = request.getAttribute(UserConstant.TOKEN_CLAIMS_ATTRIBUTE);
+        if (resolved != null) {
+            return (TokenClaims) resolved;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        TokenClaims claims = verify(authorization.substring(BEARER_PREFIX.length()).trim(), TYPE_ACCESS);
+        request.setAttribute(UserConstant.TOKEN_CLAIMS_ATTRIBUTE, claims);
+        return claims;
+    }
+
+    /**
+     * 校验令牌（签名、类型、有效期、吊销记录），只访问本地数据
+     *
+     * @param token 令牌
+     * @param type 期望的令牌类型
+     * @return 令牌信息
+     */
+    public TokenClaims verify(String token, String type) {
+        int index = token == null ? -1 : token.indexOf('.');
+        if (index <= 0) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "令牌无效");
+        }
+        String body = token.substring(0, index);
+        byte[] signature;
+        JSONObject payload;
+        try {
+            signature = Base64.decode(token.substring(index + 1));
+            payload = JSONUtil.parseObj(new String(Base64.decode(body), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "令牌无效");
+        }
+        if (!MessageDigest.isEqual(sign(body), signature)) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "令牌无效");
+        }
+        TokenClaims claims = new TokenClaims();
+        claims.setType(payload.getStr("typ"));
+        claims.setUserId(payload.getLong("uid"));
+        claims.setSessionId(payload.getStr("sid"));
+        claims.setUserRole(payload.getStr("role"));
+        claims.setIssuedAt(payload.getLong("iat"));
+        claims.setExpiresAt(payload.getLong("exp"));
+        if (!type.equals(claims.getType())) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "令牌类型错误");
+        }
+        if (claims.getExpiresAt() < System.currentTimeMillis()) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "令牌已过期");
+        }
+        Long revokedAt = revokedMap.get(claims.getUserId());
+        boolean sessionRevoked = claims.getSessionId() != null && revokedSessionMap.containsKey(claims.getSessionId());
+        if (sessionRevoked || revokedAt != null && claims.getIssuedAt() <= revokedAt) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "令牌已失效，请重新登录");
+        }
+        return claims;
+    }
+
+    /**
+     * 吊销用户此前签发的所有令牌（角色变更、删除用户时调用）
+     *
+     * @param userId 用户 id
+     */
+    public void revoke(long userId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revokedMap.merge(userId, now, Math::max);
+        saveRevocation(String.valueOf(userId), now);
+    }
+
+    /**
+     * 吊销一个登录会话的令牌（注销时调用），同一用户的其他登录不受影响
+     *
+     * @param claims 当前请求的令牌信息
+     */
+    public void revokeSession(TokenClaims claims) {
+        if (!enabled) {
+            return;
+        }
+        if (claims.getSessionId() == null) {
+            // 没有会话 id 的旧令牌只能按用户吊销
+            revoke(claims.getUserId());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revokedSessionMap.merge(claims.getSessionId(), now, Math::max);
+        saveRevocation(SESSION_MEMBER_PREFIX + claims.getSessionId(), now);
+    }
+
+    /**
+     * 写入吊销记录，失败时重试，仍然失败则抛出异常（只在本节点生效的吊销不能当作成功）
+     */
+    private void saveRevocation(String member, long revokedAt) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                stringRedisTemplate.opsForZSet().add(REVOKED_KEY, member, revokedAt);
+                return;
+            } catch (Exception e) {
+                if (attempt >= REVOKE_MAX_ATTEMPTS) {
+                    log.error("保存令牌吊销记录失败，member = {}", member, e);
+                    throw new BusinessException(ErrorCode.SYSTEM_ERROR, "令牌吊销失败，请稍后重试");
+                }
+                log.warn("保存令牌吊销记录失败，重试第 {} 次：{}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 同步其他节点的吊销记录，并清理已经没有有效令牌的记录
+     */
+    @Scheduled(initialDelay = 0, fixedDelay = 2_000)
+    public void syncRevocations() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expireBefore = now - Math.max(accessTtlSeconds, refreshTtlSeconds) * 1000;
+        try {
+            long since = Math.max(0, syncedRevokedAt - SYNC_OVERLAP_MILLIS);
+            Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(REVOKED_KEY, since, Double.MAX_VALUE);
+            if (tuples != null) {
+                for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                    long revokedAt = tuple.getScore().longValue();
+                    String member = tuple.getValue();
+                    if (member.startsWith(SESSION_MEMBER_PREFIX)) {
+                        revokedSessionMap.merge(member.substring(SESSION_MEMBER_PREFIX.length()), revokedAt, Math::max);
+                    } else {
+                        revokedMap.merge(Long.parseLong(member), revokedAt, Math::max);
+                    }
+                    syncedRevokedAt = Math.max(syncedRevokedAt, revokedAt);
+                }
+            }
+            stringRedisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, 0, expireBefore);
+        } catch (Exception e) {
+            log.warn("同步令牌吊销记录失败：{}", e.getMessage());
+        }
+        revokedMap.values().removeIf(revokedAt -> revokedAt < expireBefore);
+        revokedSessionMap.values().removeIf(revokedAt -> revokedAt < expireBefore);
+    }
+
+    private byte[] sign(String body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "令牌签名失败");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.gzu.gqzpicturebackend.manage.auth;
+
+import lombok.Data;
+
+/**
+ * 令牌中携带的信息
+ */
+@Data
+public class TokenClaims {
+
+    /**
+     * 令牌类型：access / refresh
+     */
+    private String type;
+
+    /**
+     * 用户 id
+     */
+    private long userId;
+
+    /**
+     * 登录会话 id，同一次登录签发的令牌相同，刷新后不变
+     */
+    private String sessionId;
+
+    /**
+     * 用户角色
+     */
+    private String userRole;
+
+    /**
+     * 签发时间（毫秒）
+     */
+    private long issuedAt;
+
+    /**
+     * 过期时间（毫秒）
+     */
+    private long expiresAt;
+}
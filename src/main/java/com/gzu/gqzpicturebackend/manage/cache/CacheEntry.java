@@ -0,0 +1,71 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 缓存条目：缓存值 + 软过期时间 + 硬过期时间
+ * 存储格式为 软过期时间（8 字节）+ 硬过期时间（8 字节）+ 缓存值
+ */
+@Data
+@AllArgsConstructor
+public class CacheEntry {
+
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * 软过期时间（毫秒时间戳），过期后仍可返回，但需要后台刷新
+     */
+    private long softExpireAt;
+
+    /**
+     * 硬过期时间（毫秒时间戳），过期后不可再返回
+     */
+    private long hardExpireAt;
+
+    /**
+     * 缓存值（编码后的字节）
+     */
+    private byte[] value;
+
+    public boolean isSoftExpired(long now) {
+        return now >= softExpireAt;
+    }
+
+    public boolean isHardExpired(long now) {
+        return now >= hardExpireAt;
+    }
+
+    /**
+     * 编码为存储格式
+     *
+     * @return
+     */
+    public byte[] encode() {
+        return ByteBuffer.allocate(HEADER_SIZE + value.length)
+                .putLong(softExpireAt)
+                .putLong(hardExpireAt)
+                .put(value)
+                .array();
+    }
+
+    /**
+     * 解析存储格式
+     *
+     * @param raw 存储的字节
+     * @return 格式不正确时返回 null
+     */
+    public static CacheEntry decode(byte[] raw) {
+        if (raw == null || raw.length < HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        long softExpireAt = buffer.getLong();
+        long hardExpireAt = buffer.getLong();
+        byte[] value = new byte[raw.length - HEADER_SIZE];
+        buffer.get(value);
+        return new CacheEntry(softExpireAt, hardExpireAt, value);
+    }
+}
@@ -0,0 +1,232 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.json.JSONUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 本地缓存失效总线
+ * 通过 Redis 发布订阅把本地缓存（Caffeine）的失效广播到所有节点：
+ * 1. 本节点的失效立即生效，广播先合并再发送，一批写操作只发一条消息；
+ * 2. 定时发送心跳并等待自己收到，收不到说明订阅已断开，期间的失效消息可能丢失，
+ *    恢复后清空所有注册的本地缓存重新加载
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements MessageListener {
+
+    /**
+     * 失效消息频道
+     */
+    private static final String CHANNEL = "gqzpicture:cacheInvalidation";
+
+    /**
+     * 合并失效消息的等待时间（毫秒）
+     */
+    private static final long COALESCE_MILLIS = 50;
+
+    /**
+     * 心跳超时时间（毫秒）
+     */
+    private static final long HEARTBEAT_TIMEOUT_MILLIS = 15_000;
+
+    /**
+     * 表示整个区域
+     */
+    private static final String ALL = "*";
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 当前节点 id，用于忽略自己发出的失效消息
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    /**
+     * 注册的本地缓存：区域 -> 缓存
+     */
+    private final Map<String, Cache<String, ?>> regionMap = new ConcurrentHashMap<>();
+
+    /**
+     * 待广播的失效条目
+     */
+    private final Set<String> pendingEntries = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * 最近一次收到自己心跳的时间
+     */
+    private volatile long lastHeartbeatMillis = System.currentTimeMillis();
+
+    /**
+     * 订阅是否已断开
+     */
+    private volatile boolean disconnected = false;
+
+    @PostConstruct
+    public void init() {
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("cache-invalidation-").setDaemon(true).build());
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flushExecutor.shutdown();
+    }
+
+    /**
+     * 注册本地缓存
+     *
+     * @param region 区域名称，各节点一致
+     * @param cache 本地缓存
+     */
+    public void register(String region, Cache<String, ?> cache) {
+        regionMap.put(region, cache);
+    }
+
+    /**
+     * 使所有节点上的单个 key 失效
+     *
+     * @param region 区域
+     * @param key 缓存 key
+     */
+    public void evict(String region, String key) {
+        publish(region + " " + key);
+    }
+
+    /**
+     * 使所有节点上指定前缀的 key 失效
+     *
+     * @param region 区域
+     * @param prefix key 前缀，为空表示整个区域
+     */
+    public void evictPrefix(String region, String prefix) {
+        publish(region + " " + (prefix == null ? "" : prefix) + ALL);
+    }
+
+    /**
+     * 本节点立即失效，广播合并后异步发送
+     */
+    private void publish(String entry) {
+        apply(entry);
+        pendingEntries.add(entry);
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.schedule(this::flush, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 发送合并后的失效消息
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        List<String> entries = new ArrayList<>(pendingEntries);
+        if (entries.isEmpty()) {
+            return;
+        }
+        pendingEntries.removeAll(entries);
+        CacheInvalidationMessage message = new CacheInvalidationMessage();
+        message.setNodeId(nodeId);
+        message.setEntries(entries);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, JSONUtil.toJsonStr(message));
+        } catch (Exception e) {
+            // 其他节点收不到这批失效消息，只能等待本地缓存过期或对方重连后清空
+            log.error("广播缓存失效消息失败，条目数 = {}", entries.size(), e);
+        }
+    }
+
+    /**
+     * 发送心跳，并检查上一次心跳是否收到
+     */
+    @Scheduled(fixedDelay = 5_000)
+    public void heartbeat() {
+        if (!disconnected && System.currentTimeMillis() - lastHeartbeatMillis > HEARTBEAT_TIMEOUT_MILLIS) {
+            disconnected = true;
+            log.warn("缓存失效订阅已断开，恢复后将清空本地缓存");
+        }
+        CacheInvalidationMessage message = new CacheInvalidationMessage();
+        message.setNodeId(nodeId);
+        message.setHeartbeat(true);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, JSONUtil.toJsonStr(message));
+        } catch (Exception e) {
+            log.warn("发送缓存失效心跳失败：{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidationMessage = JSONUtil.toBean(
+                new String(message.getBody(), StandardCharsets.UTF_8), CacheInvalidationMessage.class);
+        if (!nodeId.equals(invalidationMessage.getNodeId())) {
+            if (!invalidationMessage.isHeartbeat() && invalidationMessage.getEntries() != null) {
+                invalidationMessage.getEntries().forEach(this::apply);
+            }
+            return;
+        }
+        if (invalidationMessage.isHeartbeat()) {
+            lastHeartbeatMillis = System.currentTimeMillis();
+            if (disconnected) {
+                // 断开期间可能丢失了失效消息，清空所有本地缓存
+                disconnected = false;
+                regionMap.values().forEach(Cache::invalidateAll);
+                log.info("缓存失效订阅已恢复，已清空本地缓存");
+            }
+        }
+    }
+
+    /**
+     * 在本节点执行失效
+     */
+    private void apply(String entry) {
+        int index = entry.indexOf(' ');
+        if (index < 0) {
+            return;
+        }
+        Cache<String, ?> cache = regionMap.get(entry.substring(0, index));
+        if (cache == null) {
+            return;
+        }
+        String key = entry.substring(index + 1);
+        if (ALL.equals(key)) {
+            cache.invalidateAll();
+        } else if (key.endsWith(ALL)) {
+            String prefix = key.substring(0, key.length() - ALL.length());
+            cache.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+        } else {
+            cache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 缓存失效消息
+ */
+@Data
+public class CacheInvalidationMessage implements Serializable {
+
+    /**
+     * 发送消息的节点
+     */
+    private String nodeId;
+
+    /**
+     * 是否是心跳消息
+     */
+    private boolean heartbeat;
+
+    /**
+     * 失效条目，格式为 region + 空格 + key，key 以 * 结尾表示前缀，只有 * 表示整个区域
+     */
+    private List<String> entries;
+
+    private static final long serialVersionUID = 1L;
+}
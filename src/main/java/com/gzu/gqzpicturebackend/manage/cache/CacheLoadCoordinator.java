@@ -0,0 +1,186 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.util.IdUtil;
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 缓存重建协调（防缓存击穿）
+ * 1. 进程内：同一个 key 同时只有一个线程重建，其他线程等待它的结果（single-flight）；
+ * 2. 跨节点：重建前先抢 redis 租约，没抢到的节点短暂轮询 redis 等待结果，超时后再自己重建
+ */
+@Slf4j
+@Component
+public class CacheLoadCoordinator {
+
+    /**
+     * 重建租约 key
+     */
+    private static final String LEASE_KEY = "gqzpicture:cacheLease:%s";
+
+    /**
+     * 租约时长（毫秒），应大于一次重建的耗时
+     */
+    private static final long LEASE_MILLIS = 5_000;
+
+    /**
+     * 没抢到租约时等待其他节点重建的最长时间（毫秒）
+     */
+    private static final long REMOTE_WAIT_MILLIS = 1_000;
+
+    /**
+     * 轮询间隔（毫秒）
+     */
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    /**
+     * 进程内等待同一 key 重建结果的最长时间（秒）
+     */
+    private static final long LOCAL_WAIT_SECONDS = 10;
+
+    /**
+     * 只释放自己持有的租约
+     */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 正在重建的 key
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlightMap = new ConcurrentHashMap<>();
+
+    private Counter localCoalescedCounter;
+
+    private Counter remoteCoalescedCounter;
+
+    private Counter remoteWaitTimeoutCounter;
+
+    @PostConstruct
+    public void init() {
+        localCoalescedCounter = Counter.builder("cache.load.coalesced")
+                .description("等待其他请求重建缓存的次数")
+                .tag("scope", "local")
+                .register(meterRegistry);
+        remoteCoalescedCounter = Counter.builder("cache.load.coalesced")
+                .description("等待其他请求重建缓存的次数")
+                .tag("scope", "remote")
+                .register(meterRegistry);
+        remoteWaitTimeoutCounter = Counter.builder("cache.load.wait.timeout")
+                .description("等待其他节点重建缓存超时的次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 加载缓存值，同一个 key 同时只重建一次
+     *
+     * @param cacheKey 缓存 key
+     * @param remoteReader 读取 redis 中的缓存值，未命中返回 null
+     * @param rebuilder 重建缓存值（负责写入缓存）
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String cacheKey, Supplier<T> remoteReader, Supplier<T> rebuilder) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightMap.putIfAbsent(cacheKey, future);
+        if (inFlight != null) {
+            // 本进程已有线程在重建，等待其结果
+            localCoalescedCounter.increment();
+            return (T) awaitLocal(inFlight);
+        }
+        try {
+            T value = loadWithLease(cacheKey, remoteReader, rebuilder);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightMap.remove(cacheKey, future);
+        }
+    }
+
+    /**
+     * 抢到租约则重建，否则等待持有租约的节点写入缓存
+     */
+    private <T> T loadWithLease(String cacheKey, Supplier<T> remoteReader, Supplier<T> rebuilder) {
+        String leaseKey = String.format(LEASE_KEY, cacheKey);
+        String token = IdUtil.fastSimpleUUID();
+        Boolean acquired;
+        try {
+            acquired = stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, token, LEASE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // redis 不可用时直接重建
+            log.warn("获取缓存重建租约失败，key = {}：{}", cacheKey, e.getMessage());
+            return rebuilder.get();
+        }
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return rebuilder.get();
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+        // 其他节点正在重建，短暂轮询
+        remoteCoalescedCounter.increment();
+        long deadline = System.currentTimeMillis() + REMOTE_WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            T value = remoteReader.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        remoteWaitTimeoutCounter.increment();
+        return rebuilder.get();
+    }
+
+    private void releaseLease(String leaseKey, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(leaseKey), token);
+        } catch (Exception e) {
+            // 租约到期后自动释放
+            log.warn("释放缓存重建租约失败，key = {}：{}", leaseKey, e.getMessage());
+        }
+    }
+
+    private Object awaitLocal(CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.get(LOCAL_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加载缓存失败");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加载缓存被中断");
+        } catch (TimeoutException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加载缓存超时");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 缓存读取结果
+ */
+@Data
+@AllArgsConstructor
+public class CacheResult {
+
+    /**
+     * 缓存值（编码后的字节）
+     */
+    private byte[] value;
+
+    /**
+     * 是否是后端不可用时返回的过期数据
+     */
+    private boolean stale;
+}
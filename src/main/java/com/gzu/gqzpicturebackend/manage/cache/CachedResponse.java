@@ -0,0 +1,27 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 序列化好的响应体
+ */
+@Data
+@AllArgsConstructor
+public class CachedResponse {
+
+    /**
+     * 原始响应体的 ETag（带引号），gzip 副本的 ETag 由 ResponseBodyCache 另行生成
+     */
+    private String etag;
+
+    /**
+     * 响应体 JSON 字节
+     */
+    private byte[] body;
+
+    /**
+     * gzip 压缩后的响应体，响应体较小时为 null
+     */
+    private byte[] gzipBody;
+}
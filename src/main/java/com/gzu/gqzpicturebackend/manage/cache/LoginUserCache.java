@@ -0,0 +1,70 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.model.convert.UserConverter;
+import com.gzu.gqzpicturebackend.model.entity.User;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 登录用户缓存（本地，短时间）
+ * 已登录的请求不再每次查询用户表；用户信息或角色修改、用户删除后通过失效总线清除所有节点上的缓存
+ */
+@Component
+public class LoginUserCache {
+
+    /**
+     * 本地缓存区域
+     */
+    private static final String REGION = "loginUser";
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * 用户 id -> 用户
+     */
+    private final Cache<String, User> localCache = Caffeine.newBuilder()
+            .maximumSize(10_000L)
+            .expireAfterWrite(Duration.ofSeconds(60))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(REGION, localCache);
+    }
+
+    /**
+     * 获取用户，未命中时调用 loader 查询数据库
+     *
+     * @param userId 用户 id
+     * @param loader 从数据库加载用户，不存在返回 null
+     * @return 用户副本，不存在返回 null（不缓存）
+     */
+    public User get(long userId, Function<Long, User> loader) {
+        String key = String.valueOf(userId);
+        User user = localCache.getIfPresent(key);
+        if (user == null) {
+            user = loader.apply(userId);
+            if (user == null) {
+                return null;
+            }
+            localCache.put(key, user);
+        }
+        return UserConverter.copy(user);
+    }
+
+    /**
+     * 清除用户缓存（在用户修改或删除后调用）
+     *
+     * @param userId 用户 id
+     */
+    public void evict(long userId) {
+        cacheInvalidationBus.evict(REGION, String.valueOf(userId));
+    }
+}
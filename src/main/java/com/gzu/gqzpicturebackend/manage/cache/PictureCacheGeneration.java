@@ -0,0 +1,145 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.model.dto.picture.PictureQueryRequest;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图片列表缓存版本号
+ * 按范围（公共图库、空间、用户）维护版本号，写操作递增对应范围的版本号；
+ * 缓存 key 中带上查询涉及范围的当前版本号，写入后旧 key 不会再被访问，等待过期即可；
+ * 版本号在本地缓存一份，递增后通过失效总线通知所有节点
+ */
+@Slf4j
+@Component
+public class PictureCacheGeneration {
+
+    /**
+     * 版本号 key
+     */
+    private static final String GENERATION_KEY = "gqzpicture:cacheGeneration:%s";
+
+    private static final String PUBLIC_SCOPE = "public";
+
+    private static final String SPACE_SCOPE = "space:%s";
+
+    private static final String USER_SCOPE = "user:%s";
+
+    /**
+     * 本地缓存区域
+     */
+    private static final String REGION = "cacheGeneration";
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * 版本号本地缓存：版本号 key -> 版本号
+     * 失效消息和并发回填可能交错，过期时间兜底
+     */
+    private final Cache<String, String> localGenerationCache = Caffeine.newBuilder()
+            .maximumSize(10_000L)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(REGION, localGenerationCache);
+    }
+
+    /**
+     * 获取查询涉及范围的当前版本号，拼到缓存 key 中
+     *
+     * @param pictureQueryRequest 查询条件
+     * @return 例如 public-3 或 space:1-5.user:2-7；redis 不可用时返回 null，调用方不能使用带版本号的缓存
+     */
+    public String getVersion(PictureQueryRequest pictureQueryRequest) {
+        List<String> scopeList = new ArrayList<>();
+        if (pictureQueryRequest.getSpaceId() == null) {
+            scopeList.add(PUBLIC_SCOPE);
+        } else {
+            scopeList.add(String.format(SPACE_SCOPE, pictureQueryRequest.getSpaceId()));
+        }
+        if (pictureQueryRequest.getUserId() != null) {
+            scopeList.add(String.format(USER_SCOPE, pictureQueryRequest.getUserId()));
+        }
+        List<String> keyList = new ArrayList<>(scopeList.size());
+        for (String scope : scopeList) {
+            keyList.add(String.format(GENERATION_KEY, scope));
+        }
+        // 先查本地，缺失的再一次性从 redis 批量获取
+        Map<String, String> generationMap = new HashMap<>(localGenerationCache.getAllPresent(keyList));
+        if (generationMap.size() < keyList.size()) {
+            List<String> missKeyList = new ArrayList<>();
+            for (String key : keyList) {
+                if (!generationMap.containsKey(key)) {
+                    missKeyList.add(key);
+                }
+            }
+            List<String> generationList;
+            try {
+                generationList = stringRedisTemplate.opsForValue().multiGet(missKeyList);
+            } catch (Exception e) {
+                // redis 不可用，无法判断缓存是否过期，由调用方绕过缓存
+                log.warn("获取缓存版本号失败：{}", e.getMessage());
+                return null;
+            }
+            for (int i = 0; i < missKeyList.size(); i++) {
+                String generation = generationList == null ? null : generationList.get(i);
+                generation = generation == null ? "0" : generation;
+                generationMap.put(missKeyList.get(i), generation);
+                localGenerationCache.put(missKeyList.get(i), generation);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < scopeList.size(); i++) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(scopeList.get(i)).append('-').append(generationMap.get(keyList.get(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 图片变更后递增其所在范围的版本号（在事务提交后调用）
+     *
+     * @param picture 变更的图片，需包含 spaceId 和 userId
+     */
+    public void bump(Picture picture) {
+        List<String> scopeList = new ArrayList<>();
+        if (picture.getSpaceId() == null) {
+            scopeList.add(PUBLIC_SCOPE);
+        } else {
+            scopeList.add(String.format(SPACE_SCOPE, picture.getSpaceId()));
+        }
+        if (picture.getUserId() != null) {
+            scopeList.add(String.format(USER_SCOPE, picture.getUserId()));
+        }
+        for (String scope : scopeList) {
+            String key = String.format(GENERATION_KEY, scope);
+            try {
+                stringRedisTemplate.opsForValue().increment(key);
+                cacheInvalidationBus.evict(REGION, key);
+            } catch (Exception e) {
+                // 版本号递增失败时缓存只能等待过期
+                log.error("递增缓存版本号失败，scope = {}", scope, e);
+            }
+        }
+    }
+}
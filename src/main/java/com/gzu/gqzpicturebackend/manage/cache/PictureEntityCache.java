@@ -0,0 +1,167 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.util.RandomUtil;
+import cn.hutool.json.JSONUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.model.convert.PictureConverter;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 单张图片实体缓存（本地 + redis，读穿透）
+ * 1. 不存在的图片缓存空值一小段时间；
+ * 2. redis 未命中时由布隆过滤器判断从未存在过的 id，直接返回 null，不查询数据库；
+ * 3. 写操作在事务提交后调用 evict，通过失效总线同步到所有节点
+ */
+@Slf4j
+@Component
+public class PictureEntityCache {
+
+    private static final String KEY = "gqzpicture:picture:%s";
+
+    /**
+     * 本地缓存区域
+     */
+    private static final String REGION = "picture";
+
+    private static final String NULL_REGION = "pictureNull";
+
+    /**
+     * redis 中的空值标记
+     */
+    private static final String NULL_VALUE = "";
+
+    /**
+     * 过期时间（秒），另加 0 - 5 分钟随机值
+     */
+    private static final int TTL_SECONDS = 30 * 60;
+
+    private static final int TTL_JITTER_SECONDS = 5 * 60;
+
+    /**
+     * 空值过期时间（秒）
+     */
+    private static final int NULL_TTL_SECONDS = 60;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Resource
+    private PictureIdBloomFilter pictureIdBloomFilter;
+
+    /**
+     * 本地缓存：图片 id -> 图片
+     */
+    private final Cache<String, Picture> localCache = Caffeine.newBuilder()
+            .maximumSize(20_000L)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    /**
+     * 本地空值缓存：不存在的图片 id
+     */
+    private final Cache<String, Boolean> localNullCache = Caffeine.newBuilder()
+            .maximumSize(100_000L)
+            .expireAfterWrite(Duration.ofSeconds(NULL_TTL_SECONDS))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(REGION, localCache);
+        cacheInvalidationBus.register(NULL_REGION, localNullCache);
+    }
+
+    /**
+     * 获取图片，缓存未命中时调用 loader 从数据库加载并回填
+     *
+     * @param pictureId 图片 id
+     * @param loader 从数据库加载图片，不存在返回 null
+     * @return 图片副本（调用方可以修改），不存在返回 null
+     */
+    public Picture get(long pictureId, Function<Long, Picture> loader) {
+        String localKey = String.valueOf(pictureId);
+        // 1. 本地缓存
+        Picture picture = localCache.getIfPresent(localKey);
+        if (picture != null) {
+            return copy(picture);
+        }
+        if (localNullCache.getIfPresent(localKey) != null) {
+            return null;
+        }
+        // 2. redis
+        String key = String.format(KEY, pictureId);
+        try {
+            String value = stringRedisTemplate.opsForValue().get(key);
+            if (value != null) {
+                if (NULL_VALUE.equals(value)) {
+                    localNullCache.put(localKey, true);
+                    return null;
+                }
+                picture = JSONUtil.toBean(value, Picture.class);
+                localCache.put(localKey, picture);
+                return copy(picture);
+            }
+        } catch (Exception e) {
+            log.warn("读取图片缓存失败，pictureId = {}：{}", pictureId, e.getMessage());
+        }
+        // 3. 布隆过滤器拦截从未存在过的 id，只在查询数据库前检查，命中缓存时不多一次 redis 调用
+        if (!pictureIdBloomFilter.mightContain(pictureId)) {
+            localNullCache.put(localKey, true);
+            return null;
+        }
+        // 4. 数据库
+        picture = loader.apply(pictureId);
+        try {
+            if (picture == null) {
+                stringRedisTemplate.opsForValue().set(key, NULL_VALUE, NULL_TTL_SECONDS, TimeUnit.SECONDS);
+            } else {
+                int ttlSeconds = TTL_SECONDS + RandomUtil.randomInt(0, TTL_JITTER_SECONDS);
+                stringRedisTemplate.opsForValue().set(key, JSONUtil.toJsonStr(picture), ttlSeconds, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            // redis 不可用时只写本地缓存
+            log.warn("写入图片缓存失败，pictureId = {}：{}", pictureId, e.getMessage());
+        }
+        if (picture == null) {
+            localNullCache.put(localKey, true);
+            return null;
+        }
+        localCache.put(localKey, picture);
+        return copy(picture);
+    }
+
+    /**
+     * 使图片缓存失效（包括空值缓存，新增图片时也需调用）
+     *
+     * @param pictureId 图片 id
+     */
+    public void evict(long pictureId) {
+        try {
+            stringRedisTemplate.delete(String.format(KEY, pictureId));
+        } catch (Exception e) {
+            log.error("删除图片缓存失败，pictureId = {}", pictureId, e);
+        }
+        String localKey = String.valueOf(pictureId);
+        cacheInvalidationBus.evict(REGION, localKey);
+        cacheInvalidationBus.evict(NULL_REGION, localKey);
+    }
+
+    /**
+     * 本地缓存中的对象是共享的，返回副本
+     */
+    private static Picture copy(Picture picture) {
+        return PictureConverter.copy(picture);
+    }
+}
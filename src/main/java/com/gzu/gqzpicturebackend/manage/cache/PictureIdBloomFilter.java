@@ -0,0 +1,329 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.gzu.gqzpicturebackend.mapper.PictureMapper;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 图片 id 布隆过滤器（redis 位图，各节点共享）
+ * 不存在的 id 直接拒绝，防止随机 id 穿透到数据库；新增图片时写入，删除图片不移除（只会多放行）；
+ * 启动时在单独的线程中检查构建完成标记，未构建则由一个节点从数据库全量构建，构建完成前全部放行，完成后不再轮询；
+ * 写入失败的 id 在本节点放行并延迟重试，同时清除构建完成标记，
+ * 各节点查询时（同一个脚本）发现标记被清除后全部放行并重新构建，避免误判为不存在
+ */
+@Slf4j
+@Component
+public class PictureIdBloomFilter {
+
+    private static final String BLOOM_KEY = "gqzpicture:bloom:pictureId";
+
+    /**
+     * 构建完成标记
+     */
+    private static final String READY_KEY = "gqzpicture:bloom:pictureId:ready";
+
+    /**
+     * 构建锁，防止多个节点同时构建
+     */
+    private static final String BUILD_LOCK_KEY = "gqzpicture:bloom:pictureId:lock";
+
+    /**
+     * 位数：2^24 位（2 MB），100 万张图片时误判率约 0.05%，170 万张时约 1%
+     */
+    private static final long BIT_SIZE = 1L << 24;
+
+    /**
+     * 哈希函数个数
+     */
+    private static final int HASH_COUNT = 7;
+
+    /**
+     * 构建时每批查询的 id 数
+     */
+    private static final int BUILD_BATCH_SIZE = 5000;
+
+    /**
+     * 构建未完成（其他节点正在构建或构建失败）时的重试间隔（毫秒）
+     */
+    private static final long BUILD_RETRY_MILLIS = 10_000;
+
+    /**
+     * 写入失败的 id 的重试间隔（毫秒）
+     */
+    private static final long ADD_RETRY_MILLIS = 10_000;
+
+    /**
+     * 构建完成标记不存在返回 -1，任意一位为 0 即不存在返回 0
+     */
+    private static final DefaultRedisScript<Long> CONTAINS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[2]) == 0 then return -1 end "
+                    + "for i = 1, #ARGV do if redis.call('getbit', KEYS[1], ARGV[i]) == 0 then return 0 end end return 1",
+            Long.class);
+
+    /**
+     * 查询结果：构建完成标记不存在
+     */
+    private static final long NOT_READY = -1;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private PictureMapper pictureMapper;
+
+    /**
+     * 构建完成前全部放行
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * 写入失败、等待重试的图片 id，重试成功前在本节点放行
+     */
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean buildScheduled = new AtomicBoolean(false);
+
+    private final AtomicBoolean retryScheduled = new AtomicBoolean(false);
+
+    /**
+     * 构建和重试使用的单独线程，不占用请求线程和公共调度线程
+     */
+    private ScheduledExecutorService buildExecutor;
+
+    @PostConstruct
+    public void init() {
+        buildExecutor = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("bloom-filter-build-").setDaemon(true).build());
+        scheduleBuild(0);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        buildExecutor.shutdownNow();
+    }
+
+    /**
+     * 图片 id 是否可能存在
+     *
+     * @param pictureId 图片 id
+     * @return false 表示一定不存在
+     */
+    public boolean mightContain(long pictureId) {
+        if (!ready || pendingIds.contains(pictureId)) {
+            return true;
+        }
+        List<String> offsetList = new ArrayList<>(HASH_COUNT);
+        for (long offset : offsets(pictureId)) {
+            offsetList.add(String.valueOf(offset));
+        }
+        try {
+            Long result = stringRedisTemplate.execute(CONTAINS_SCRIPT, Arrays.asList(BLOOM_KEY, READY_KEY),
+                    offsetList.toArray());
+            if (result != null && result == NOT_READY) {
+                log.warn("图片 id 布隆过滤器构建标记已清除，重新构建前全部放行");
+                ready = false;
+                scheduleBuild(0);
+                return true;
+            }
+            return result == null || result != 0;
+        } catch (Exception e) {
+            // redis 不可用时放行，由负缓存和数据库兜底
+            log.warn("查询图片 id 布隆过滤器失败：{}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 写入新增的图片 id
+     *
+     * @param pictureId 图片 id
+     */
+    public void add(long pictureId) {
+        try {
+            addAll(Collections.singletonList(pictureId));
+        } catch (Exception e) {
+            log.error("写入图片 id 布隆过滤器失败，等待重试，pictureId = {}", pictureId, e);
+            pendingIds.add(pictureId);
+            invalidate();
+            scheduleRetry();
+        }
+    }
+
+    /**
+     * 清除构建完成标记：其他节点下次检查时全部放行，并由一个节点重新构建
+     */
+    private void invalidate() {
+        try {
+            stringRedisTemplate.delete(READY_KEY);
+        } catch (Exception e) {
+            // redis 不可用时各节点查询也会失败并放行，恢复后由重试补上
+            log.warn("清除布隆过滤器构建标记失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 延迟重试写入失败的图片 id，已安排时不重复安排
+     */
+    private void scheduleRetry() {
+        if (retryScheduled.compareAndSet(false, true)) {
+            buildExecutor.schedule(() -> {
+                try {
+                    retryPending();
+                } finally {
+                    retryScheduled.set(false);
+                }
+                // 仍有失败的（或重试期间新增的）id，继续安排
+                if (!pendingIds.isEmpty()) {
+                    scheduleRetry();
+                }
+            }, ADD_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 重试写入失败的图片 id
+     */
+    private void retryPending() {
+        if (pendingIds.isEmpty()) {
+            return;
+        }
+        List<Long> pictureIdList = new ArrayList<>(pendingIds);
+        try {
+            addAll(pictureIdList);
+            pendingIds.removeAll(pictureIdList);
+            log.info("重新写入图片 id 布隆过滤器，数量 = {}", pictureIdList.size());
+        } catch (Exception e) {
+            log.warn("重新写入图片 id 布隆过滤器失败，数量 = {}：{}", pictureIdList.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 安排一次构建检查，已安排时不重复安排
+     */
+    private void scheduleBuild(long delayMillis) {
+        if (buildScheduled.compareAndSet(false, true)) {
+            buildExecutor.schedule(() -> {
+                boolean built = false;
+                try {
+                    built = ensureBuilt();
+                } finally {
+                    buildScheduled.set(false);
+                }
+                // 构建完成后不再检查，直到查询时发现标记被清除
+                if (!built) {
+                    scheduleBuild(BUILD_RETRY_MILLIS);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 检查构建完成标记，未构建则抢锁从数据库全量构建
+     *
+     * @return 是否已构建完成
+     */
+    private boolean ensureBuilt() {
+        // 重新构建前先补上本节点写入失败的 id
+        retryPending();
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(READY_KEY))) {
+                ready = true;
+                return true;
+            }
+            ready = false;
+            String token = IdUtil.fastSimpleUUID();
+            Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(BUILD_LOCK_KEY, token, 10, TimeUnit.MINUTES);
+            if (!Boolean.TRUE.equals(locked)) {
+                // 其他节点正在构建，稍后再检查
+                return false;
+            }
+            long lastId = 0;
+            long total = 0;
+            List<Object> idList;
+            do {
+                idList = pictureMapper.selectObjs(new QueryWrapper<Picture>()
+                        .select("id")
+                        .gt("id", lastId)
+                        .orderByAsc("id")
+                        .last("limit " + BUILD_BATCH_SIZE));
+                List<Long> pictureIdList = new ArrayList<>(idList.size());
+                for (Object id : idList) {
+                    pictureIdList.add(((Number) id).longValue());
+                }
+                if (!pictureIdList.isEmpty()) {
+                    addAll(pictureIdList);
+                    lastId = pictureIdList.get(pictureIdList.size() - 1);
+                    total += pictureIdList.size();
+                }
+            } while (idList.size() >= BUILD_BATCH_SIZE);
+            stringRedisTemplate.opsForValue().set(READY_KEY, "1");
+            stringRedisTemplate.delete(BUILD_LOCK_KEY);
+            ready = true;
+            log.info("图片 id 布隆过滤器构建完成，图片数 = {}", total);
+            return true;
+        } catch (Exception e) {
+            // 锁到期后由下一次检查重新构建
+            log.error("构建图片 id 布隆过滤器失败", e);
+            return false;
+        }
+    }
+
+    private void addAll(List<Long> pictureIds) {
+        byte[] key = BLOOM_KEY.getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long pictureId : pictureIds) {
+                for (long offset : offsets(pictureId)) {
+                    connection.stringCommands().setBit(key, offset, true);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 双重哈希计算各位的偏移量
+     */
+    private static long[] offsets(long pictureId) {
+        long hash1 = mix(pictureId);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        long[] offsets = new long[HASH_COUNT];
+        for (int i = 0; i < HASH_COUNT; i++) {
+            offsets[i] = Math.floorMod(hash1 + i * hash2, BIT_SIZE);
+        }
+        return offsets;
+    }
+
+    /**
+     * 64 位整数哈希（MurmurHash3 fmix64）
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 列表查询结果：按顺序排列的图片 id 及分页信息（不含图片内容）
+ */
+@Data
+public class PictureIdPage {
+
+    private long current;
+
+    private long size;
+
+    private long total;
+
+    /**
+     * 是否是游标分页
+     */
+    private boolean cursorPage;
+
+    /**
+     * 下一页游标（游标分页）
+     */
+    private String nextCursor;
+
+    /**
+     * 图片 id，按查询结果排序
+     */
+    private List<Long> ids;
+}
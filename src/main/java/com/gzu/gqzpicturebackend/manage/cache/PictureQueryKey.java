@@ -0,0 +1,64 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.StrUtil;
+import com.gzu.gqzpicturebackend.model.dto.picture.PictureQueryRequest;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 图片查询条件的规范化 key
+ * 字段按名称排序，忽略 null、空白字符串和空列表，标签排序后拼接，等价的查询条件得到相同的 key
+ */
+public class PictureQueryKey {
+
+    private PictureQueryKey() {
+    }
+
+    /**
+     * 规范化的查询条件
+     *
+     * @param pictureQueryRequest 查询条件
+     * @return 例如 current=1&nullSpaceId=true&pageSize=20&reviewStatus=1&tags=[高清,校园]
+     */
+    public static String canonicalize(PictureQueryRequest pictureQueryRequest) {
+        Map<String, Object> fieldMap = new TreeMap<>(BeanUtil.beanToMap(pictureQueryRequest, false, true));
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> entry : fieldMap.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof CharSequence && StrUtil.isBlank((CharSequence) value)) {
+                continue;
+            }
+            if (value instanceof Collection) {
+                if (((Collection<?>) value).isEmpty()) {
+                    continue;
+                }
+                List<String> valueList = new ArrayList<>();
+                for (Object element : (Collection<?>) value) {
+                    valueList.add(String.valueOf(element));
+                }
+                Collections.sort(valueList);
+                value = valueList;
+            } else if (value instanceof Date) {
+                value = ((Date) value).getTime();
+            }
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(entry.getKey()).append('=').append(value);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 规范化查询条件的摘要，用作缓存 key
+     *
+     * @param pictureQueryRequest 查询条件
+     * @return
+     */
+    public static String hash(PictureQueryRequest pictureQueryRequest) {
+        return DigestUtils.md5DigestAsHex(canonicalize(pictureQueryRequest).getBytes(StandardCharsets.UTF_8));
+    }
+}
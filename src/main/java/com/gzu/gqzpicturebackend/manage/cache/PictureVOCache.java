@@ -0,0 +1,189 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.RandomUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.manage.cache.codec.CacheCodec;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 单张图片缓存（本地 + redis），存储编码后的图片
+ * 列表缓存只保存图片 id，组装时从这里批量获取；图片变更只需失效它自己的条目
+ * 只保存图片自身的字段，上传者、审核人在组装时从 UserVOCache 关联，用户修改不需要失效图片缓存
+ */
+@Slf4j
+@Component
+public class PictureVOCache {
+
+    /**
+     * 缓存 key：编码格式 + 图片 id
+     */
+    private static final String KEY = "gqzpicture:pictureVO:%s:%s";
+
+    /**
+     * 本地缓存区域
+     */
+    private static final String REGION = "pictureVO";
+
+    /**
+     * redis 过期时间（秒），另加 0 - 10 分钟随机值
+     */
+    private static final int TTL_SECONDS = 60 * 60;
+
+    private static final int TTL_JITTER_SECONDS = 10 * 60;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Resource
+    private CacheCodec<PictureVO> pictureVOCodec;
+
+    /**
+     * 本地缓存：图片 id -> 编码后的图片
+     */
+    private final Cache<String, byte[]> localCache = Caffeine.newBuilder()
+            .maximumSize(50_000L)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(REGION, localCache);
+    }
+
+    /**
+     * 批量获取图片，依次查询本地缓存、redis，仍缺失的一次性加载并回填
+     *
+     * @param pictureIds 图片 id
+     * @param loader 批量加载图片，不存在的图片不返回
+     * @return 图片 id -> 编码后的图片，不含不存在的图片
+     */
+    public Map<Long, byte[]> getAll(Collection<Long> pictureIds, Function<List<Long>, List<PictureVO>> loader) {
+        Map<Long, byte[]> resultMap = new HashMap<>();
+        if (CollUtil.isEmpty(pictureIds)) {
+            return resultMap;
+        }
+        // 1. 本地缓存
+        List<Long> missIdList = new ArrayList<>();
+        for (Long pictureId : pictureIds) {
+            byte[] value = localCache.getIfPresent(String.valueOf(pictureId));
+            if (value != null) {
+                resultMap.put(pictureId, value);
+            } else {
+                missIdList.add(pictureId);
+            }
+        }
+        if (missIdList.isEmpty()) {
+            return resultMap;
+        }
+        // 2. redis 批量获取
+        List<Long> dbIdList = new ArrayList<>();
+        try {
+            List<byte[]> valueList = redisMultiGet(missIdList);
+            for (int i = 0; i < missIdList.size(); i++) {
+                byte[] value = valueList == null ? null : valueList.get(i);
+                if (value != null) {
+                    resultMap.put(missIdList.get(i), value);
+                    localCache.put(String.valueOf(missIdList.get(i)), value);
+                } else {
+                    dbIdList.add(missIdList.get(i));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("批量读取图片缓存失败：{}", e.getMessage());
+            dbIdList = missIdList;
+        }
+        if (dbIdList.isEmpty()) {
+            return resultMap;
+        }
+        // 3. 数据库批量加载并回填
+        Map<Long, byte[]> loadedMap = putAll(loader.apply(dbIdList));
+        resultMap.putAll(loadedMap);
+        return resultMap;
+    }
+
+    /**
+     * 批量写入图片
+     *
+     * @param pictureVOList 图片
+     * @return 图片 id -> 编码后的图片
+     */
+    public Map<Long, byte[]> putAll(List<PictureVO> pictureVOList) {
+        Map<Long, byte[]> valueMap = new HashMap<>();
+        for (PictureVO pictureVO : pictureVOList) {
+            valueMap.put(pictureVO.getId(), pictureVOCodec.encode(pictureVO));
+        }
+        if (valueMap.isEmpty()) {
+            return valueMap;
+        }
+        valueMap.forEach((pictureId, value) -> localCache.put(String.valueOf(pictureId), value));
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<Long, byte[]> entry : valueMap.entrySet()) {
+                    int ttlSeconds = TTL_SECONDS + RandomUtil.randomInt(0, TTL_JITTER_SECONDS);
+                    connection.stringCommands().set(key(entry.getKey()), entry.getValue(),
+                            Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // redis 不可用时只写本地缓存
+            log.warn("批量写入图片缓存失败：{}", e.getMessage());
+        }
+        return valueMap;
+    }
+
+    /**
+     * 解码缓存的图片
+     *
+     * @param bytes 编码后的图片
+     * @return
+     */
+    public PictureVO decode(byte[] bytes) {
+        return pictureVOCodec.decode(bytes);
+    }
+
+    /**
+     * 使单张图片的缓存失效（在事务提交后调用）
+     *
+     * @param pictureId 图片 id
+     */
+    public void evict(Long pictureId) {
+        try {
+            stringRedisTemplate.delete(new String(key(pictureId), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("删除图片缓存失败，pictureId = {}", pictureId, e);
+        }
+        cacheInvalidationBus.evict(REGION, String.valueOf(pictureId));
+    }
+
+    private List<byte[]> redisMultiGet(List<Long> pictureIds) {
+        byte[][] keys = new byte[pictureIds.size()][];
+        for (int i = 0; i < pictureIds.size(); i++) {
+            keys[i] = key(pictureIds.get(i));
+        }
+        return stringRedisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(keys));
+    }
+
+    private byte[] key(Long pictureId) {
+        return String.format(KEY, pictureVOCodec.format(), pictureId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,161 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.ZipUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 响应体缓存
+ * 以缓存值的摘要为 key 保存最终的响应体字节（及 gzip 副本），命中时直接作为响应体返回，
+ * 不再经过解码和 Jackson 序列化；缓存值变了摘要也会变，因此不需要单独失效
+ */
+@Component
+public class ResponseBodyCache {
+
+    /**
+     * 响应体超过该大小（字节）才保存 gzip 副本
+     */
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    /**
+     * 所有响应体的总大小上限（字节）
+     */
+    private static final long MAX_WEIGHT = 64L * 1024 * 1024;
+
+    private static final MediaType JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    /**
+     * 与 MVC 使用同一个 ObjectMapper，输出和普通接口一致（如 Long 转字符串）
+     */
+    @Resource
+    private ObjectMapper objectMapper;
+
+    /**
+     * 缓存值摘要 -> 响应体
+     */
+    private final Cache<String, CachedResponse> responseCache = Caffeine.newBuilder()
+            .maximumWeight(MAX_WEIGHT)
+            .weigher((String key, CachedResponse value) -> value.getBody().length
+                    + (value.getGzipBody() == null ? 0 : value.getGzipBody().length))
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    /**
+     * 获取缓存值对应的响应体，没有则构建
+     *
+     * @param parts 组成响应的缓存值（编码后的字节），按顺序计算摘要
+     * @param bodySupplier 构建响应对象（只在未命中时调用）
+     * @return
+     */
+    public CachedResponse get(List<byte[]> parts, Supplier<Object> bodySupplier) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (byte[] part : parts) {
+            messageDigest.update(part);
+        }
+        String etag = "\"" + HexUtil.encodeHexStr(messageDigest.digest()) + "\"";
+        return responseCache.get(etag, k -> {
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(bodySupplier.get());
+            } catch (JsonProcessingException e) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "序列化响应失败");
+            }
+            byte[] gzipBody = body.length >= GZIP_MIN_SIZE ? ZipUtil.gzip(body) : null;
+            return new CachedResponse(k, body, gzipBody);
+        });
+    }
+
+    /**
+     * 构建响应，If-None-Match 命中时返回 304，客户端支持时返回 gzip 副本
+     * gzip 副本和原始响应体是不同的表示，使用不同的 ETag
+     *
+     * @param cachedResponse 响应体
+     * @param request
+     * @return
+     */
+    public ResponseEntity<byte[]> toResponseEntity(CachedResponse cachedResponse, HttpServletRequest request) {
+        byte[] bytes = cachedResponse.getBody();
+        String etag = cachedResponse.getEtag();
+        boolean gzip = false;
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (cachedResponse.getGzipBody() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            bytes = cachedResponse.getGzipBody();
+            etag = gzipEtag(etag);
+            gzip = true;
+        }
+        // 接口是 POST，ServletWebRequest.checkNotModified 只处理 GET/HEAD，这里自己比较
+        if (matchesIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(JSON_UTF8)
+                .contentLength(bytes.length);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(bytes);
+    }
+
+    /**
+     * gzip 副本的 ETag："abc" -> "abc-gzip"
+     */
+    static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * If-None-Match 是否命中
+     * 按逗号拆分成 ETag 列表逐个比较，支持 *，按弱比较忽略 W/ 前缀
+     *
+     * @param ifNoneMatch 请求头，可为空
+     * @param etag 当前表示的 ETag（带引号）
+     * @return
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if ("*".equals(candidate)) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
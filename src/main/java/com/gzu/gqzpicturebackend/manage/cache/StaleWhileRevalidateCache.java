@@ -0,0 +1,258 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import cn.hutool.core.util.RandomUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.config.ThreadPoolConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 二级缓存（本地 + redis），支持软 / 硬两个过期时间
+ * 1. 软过期后仍返回旧值，同时在后台刷新（stale-while-revalidate）；
+ * 2. 热点 key 在软过期前提前刷新（refresh-ahead）；
+ * 3. 数据库或 redis 不可用时返回最近一次的正确结果，并标记为过期数据
+ */
+@Slf4j
+@Component
+public class StaleWhileRevalidateCache {
+
+    /**
+     * 软过期时间（毫秒）
+     */
+    private static final long SOFT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    /**
+     * 硬过期时间（秒），另加 0 - 10 分钟随机值，防止缓存雪崩
+     */
+    private static final int HARD_TTL_SECONDS = 60 * 60;
+
+    private static final int HARD_TTL_JITTER_SECONDS = 10 * 60;
+
+    /**
+     * 剩余软过期时间低于该比例时，热点 key 提前刷新
+     */
+    private static final double REFRESH_AHEAD_RATIO = 0.2;
+
+    /**
+     * 1 分钟内访问次数达到该值视为热点 key
+     */
+    private static final int HOT_KEY_THRESHOLD = 10;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private CacheLoadCoordinator cacheLoadCoordinator;
+
+    @Resource(name = ThreadPoolConfig.CACHE_REFRESH_EXECUTOR)
+    private ExecutorService cacheRefreshExecutor;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 最近一次的正确结果：不带版本号的 key -> 缓存值，后端不可用时兜底
+     */
+    private final Cache<String, byte[]> lastGoodCache = Caffeine.newBuilder()
+            .maximumSize(10_000L)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    /**
+     * 最近 1 分钟的访问次数，用于识别热点 key
+     */
+    private final Cache<String, AtomicInteger> hitCountCache = Caffeine.newBuilder()
+            .maximumSize(10_000L)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    /**
+     * 正在后台刷新的 key
+     */
+    private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+    private Counter staleServedCounter;
+
+    private Counter refreshCounter;
+
+    @PostConstruct
+    public void init() {
+        staleServedCounter = Counter.builder("cache.stale.served")
+                .description("后端不可用时返回过期数据的次数")
+                .register(meterRegistry);
+        refreshCounter = Counter.builder("cache.refresh")
+                .description("后台刷新缓存的次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 读取缓存
+     *
+     * @param localCache 本地缓存，存储编码后的缓存条目
+     * @param cacheKey 缓存 key
+     * @param stableKey 不随数据版本变化的 key，用于保存最近一次的正确结果
+     * @param loader 从数据库加载缓存值（编码后的字节）
+     * @return
+     */
+    public CacheResult get(Cache<String, byte[]> localCache, String cacheKey, String stableKey, Supplier<byte[]> loader) {
+        long now = System.currentTimeMillis();
+        // 1. 从本地缓存中查询
+        CacheEntry entry = CacheEntry.decode(localCache.getIfPresent(cacheKey));
+        if (entry != null && !entry.isHardExpired(now)) {
+            return hit(localCache, cacheKey, stableKey, entry, loader, now);
+        }
+        // 2. 本地缓存未命中，查询 redis 缓存
+        byte[] raw;
+        try {
+            raw = redisGet(cacheKey);
+        } catch (Exception e) {
+            log.warn("读取 redis 缓存失败，key = {}：{}", cacheKey, e.getMessage());
+            byte[] lastGood = lastGoodCache.getIfPresent(stableKey);
+            if (lastGood != null) {
+                staleServedCounter.increment();
+                return new CacheResult(lastGood, true);
+            }
+            raw = null;
+        }
+        entry = CacheEntry.decode(raw);
+        if (entry != null && !entry.isHardExpired(now)) {
+            localCache.put(cacheKey, raw);
+            return hit(localCache, cacheKey, stableKey, entry, loader, now);
+        }
+        // 3. 查询数据库，同一个 key 同时只重建一次
+        try {
+            byte[] loaded = load(localCache, cacheKey, stableKey, loader);
+            return new CacheResult(CacheEntry.decode(loaded).getValue(), false);
+        } catch (RuntimeException e) {
+            byte[] lastGood = lastGoodCache.getIfPresent(stableKey);
+            if (lastGood == null) {
+                throw e;
+            }
+            log.warn("加载缓存失败，返回过期数据，key = {}", cacheKey, e);
+            staleServedCounter.increment();
+            return new CacheResult(lastGood, true);
+        }
+    }
+
+    /**
+     * 不经过缓存直接加载（数据版本未知时，任何已缓存的值都可能已经过期）
+     * 同一个 key 同时只加载一次，加载失败时返回最近一次的正确结果
+     *
+     * @param stableKey 不随数据版本变化的 key
+     * @param loader 从数据库加载缓存值（编码后的字节）
+     * @return
+     */
+    public CacheResult getUncached(String stableKey, Supplier<byte[]> loader) {
+        try {
+            byte[] value = cacheLoadCoordinator.load(stableKey, () -> null, loader);
+            lastGoodCache.put(stableKey, value);
+            return new CacheResult(value, false);
+        } catch (RuntimeException e) {
+            byte[] lastGood = lastGoodCache.getIfPresent(stableKey);
+            if (lastGood == null) {
+                throw e;
+            }
+            log.warn("加载失败，返回过期数据，key = {}", stableKey, e);
+            staleServedCounter.increment();
+            return new CacheResult(lastGood, true);
+        }
+    }
+
+    /**
+     * 命中缓存，按需触发后台刷新
+     */
+    private CacheResult hit(Cache<String, byte[]> localCache, String cacheKey, String stableKey, CacheEntry entry,
+                            Supplier<byte[]> loader, long now) {
+        lastGoodCache.put(stableKey, entry.getValue());
+        int hitCount = hitCountCache.get(cacheKey, k -> new AtomicInteger()).incrementAndGet();
+        boolean needRefresh = entry.isSoftExpired(now)
+                || (hitCount >= HOT_KEY_THRESHOLD && entry.getSoftExpireAt() - now < SOFT_TTL_MILLIS * REFRESH_AHEAD_RATIO);
+        if (needRefresh && refreshingKeys.add(cacheKey)) {
+            try {
+                cacheRefreshExecutor.submit(() -> {
+                    try {
+                        refreshCounter.increment();
+                        load(localCache, cacheKey, stableKey, loader);
+                    } catch (Exception e) {
+                        log.warn("后台刷新缓存失败，key = {}", cacheKey, e);
+                    } finally {
+                        refreshingKeys.remove(cacheKey);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 刷新线程池已满，下次访问再刷新
+                refreshingKeys.remove(cacheKey);
+            }
+        }
+        return new CacheResult(entry.getValue(), false);
+    }
+
+    /**
+     * 重建缓存，返回编码后的缓存条目
+     */
+    private byte[] load(Cache<String, byte[]> localCache, String cacheKey, String stableKey, Supplier<byte[]> loader) {
+        byte[] raw = cacheLoadCoordinator.load(cacheKey, () -> readFresh(cacheKey), () -> {
+            byte[] value = loader.get();
+            long now = System.currentTimeMillis();
+            int hardTtlSeconds = HARD_TTL_SECONDS + RandomUtil.randomInt(0, HARD_TTL_JITTER_SECONDS);
+            CacheEntry entry = new CacheEntry(now + SOFT_TTL_MILLIS, now + hardTtlSeconds * 1000L, value);
+            byte[] encoded = entry.encode();
+            try {
+                redisSet(cacheKey, encoded, hardTtlSeconds);
+            } catch (Exception e) {
+                // redis 不可用时只写本地缓存
+                log.warn("写入 redis 缓存失败，key = {}：{}", cacheKey, e.getMessage());
+            }
+            return encoded;
+        });
+        localCache.put(cacheKey, raw);
+        lastGoodCache.put(stableKey, CacheEntry.decode(raw).getValue());
+        return raw;
+    }
+
+    /**
+     * 读取 redis 中未软过期的缓存条目，用于等待其他节点重建的结果
+     */
+    private byte[] readFresh(String cacheKey) {
+        byte[] raw = redisGet(cacheKey);
+        CacheEntry entry = CacheEntry.decode(raw);
+        if (entry == null || entry.isSoftExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return raw;
+    }
+
+    /**
+     * 直接读写 redis 中的字节，不经过字符串转换
+     */
+    private byte[] redisGet(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        return stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(keyBytes));
+    }
+
+    private void redisSet(String key, byte[] value, long ttlSeconds) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.stringCommands().set(keyBytes, value, Expiration.seconds(ttlSeconds),
+                        RedisStringCommands.SetOption.upsert()));
+    }
+}
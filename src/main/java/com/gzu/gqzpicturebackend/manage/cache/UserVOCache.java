@@ -0,0 +1,82 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.mapper.UserMapper;
+import com.gzu.gqzpicturebackend.model.convert.UserConverter;
+import com.gzu.gqzpicturebackend.model.entity.User;
+import com.gzu.gqzpicturebackend.model.vo.UserVO;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 脱敏用户缓存（本地）
+ * 组装图片、空间等视图时共用，缺失的用户一次批量查询；用户修改或删除后通过失效总线清除
+ */
+@Component
+public class UserVOCache {
+
+    /**
+     * 本地缓存区域
+     */
+    private static final String REGION = "userVO";
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * 用户 id -> 脱敏用户
+     */
+    private final Cache<String, UserVO> localCache = Caffeine.newBuilder()
+            .maximumSize(20_000L)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(REGION, localCache);
+    }
+
+    /**
+     * 批量获取脱敏用户，缓存中缺失的一次性查询数据库
+     *
+     * @param userIds 用户 id
+     * @return 用户 id -> 脱敏用户副本，不存在的用户不在结果中
+     */
+    public Map<Long, UserVO> getAll(Collection<Long> userIds) {
+        Map<Long, UserVO> userVOMap = new HashMap<>(userIds.size() * 2);
+        List<Long> missIds = new ArrayList<>();
+        for (Long userId : userIds) {
+            UserVO userVO = localCache.getIfPresent(String.valueOf(userId));
+            if (userVO == null) {
+                missIds.add(userId);
+            } else {
+                userVOMap.put(userId, UserConverter.copy(userVO));
+            }
+        }
+        if (!missIds.isEmpty()) {
+            for (User user : userMapper.selectBatchIds(missIds)) {
+                UserVO userVO = UserConverter.toVO(user);
+                localCache.put(String.valueOf(user.getId()), userVO);
+                userVOMap.put(user.getId(), UserConverter.copy(userVO));
+            }
+        }
+        return userVOMap;
+    }
+
+    /**
+     * 清除用户缓存（在用户修改或删除后调用）
+     *
+     * @param userId 用户 id
+     */
+    public void evict(long userId) {
+        cacheInvalidationBus.evict(REGION, String.valueOf(userId));
+    }
+}
@@ -0,0 +1,93 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 紧凑二进制读取，与 BinaryOutput 对应
+ */
+public class BinaryInput {
+
+    private final byte[] bytes;
+
+    private int position;
+
+    public BinaryInput(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        if (position >= bytes.length) {
+            throw new IllegalStateException("数据不完整");
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public long readVarLong() {
+        long v = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public Long readNullableLong() {
+        return readBoolean() ? readVarLong() : null;
+    }
+
+    public Integer readNullableInt() {
+        return readBoolean() ? (int) readVarLong() : null;
+    }
+
+    public Double readNullableDouble() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | readByte();
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public Date readNullableDate() {
+        Long time = readNullableLong();
+        return time == null ? null : new Date(time);
+    }
+
+    public String readString() {
+        int length = (int) readVarLong() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (position + length > bytes.length) {
+            throw new IllegalStateException("数据不完整");
+        }
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public List<String> readStringList() {
+        int size = (int) readVarLong() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString());
+        }
+        return list;
+    }
+}
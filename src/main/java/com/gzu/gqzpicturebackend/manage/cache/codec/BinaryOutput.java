@@ -0,0 +1,96 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 紧凑二进制写入
+ * 整数使用变长编码（zigzag + varint），可空字段先写 1 字节标记
+ */
+public class BinaryOutput {
+
+    private final ByteArrayOutputStream out;
+
+    public BinaryOutput(int initialSize) {
+        out = new ByteArrayOutputStream(initialSize);
+    }
+
+    public void writeByte(int value) {
+        out.write(value);
+    }
+
+    public void writeBoolean(boolean value) {
+        out.write(value ? 1 : 0);
+    }
+
+    public void writeVarLong(long value) {
+        // zigzag，负数也能用较少的字节表示
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    public void writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value);
+        }
+    }
+
+    public void writeNullableInt(Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value);
+        }
+    }
+
+    public void writeNullableDouble(Double value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            long bits = Double.doubleToLongBits(value);
+            for (int i = 7; i >= 0; i--) {
+                out.write((int) (bits >>> (i * 8)));
+            }
+        }
+    }
+
+    public void writeNullableDate(Date value) {
+        writeNullableLong(value == null ? null : value.getTime());
+    }
+
+    /**
+     * 写字符串：长度 + 1（0 表示 null）+ UTF-8 字节
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 写字符串列表：数量 + 1（0 表示 null）+ 各字符串
+     */
+    public void writeStringList(List<String> value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(value.size() + 1L);
+        for (String s : value) {
+            writeString(s);
+        }
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+
+/**
+ * 单张图片二进制编解码器
+ * 格式：版本（1 字节）+ 数据，字段按固定顺序写入，不写字段名；
+ * 缓存的只有公共图库的图片，不写所属空间；上传者、审核人只写 id，组装时再关联
+ */
+public class BinaryPictureVOCodec implements CacheCodec<PictureVO> {
+
+    private static final int VERSION = 3;
+
+    @Override
+    public String format() {
+        return "bin" + VERSION;
+    }
+
+    @Override
+    public byte[] encode(PictureVO pictureVO) {
+        BinaryOutput out = new BinaryOutput(256);
+        out.writeByte(VERSION);
+        write(out, pictureVO);
+        return out.toByteArray();
+    }
+
+    @Override
+    public PictureVO decode(byte[] bytes) {
+        if (bytes.length < 1 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("不支持的缓存数据版本");
+        }
+        return read(new BinaryInput(bytes, 1));
+    }
+
+    /**
+     * 写入图片字段（基准测试中的分页编解码器复用）
+     */
+    static void write(BinaryOutput out, PictureVO pictureVO) {
+        out.writeNullableLong(pictureVO.getId());
+        out.writeString(pictureVO.getUrl());
+        out.writeString(pictureVO.getName());
+        out.writeString(pictureVO.getIntroduction());
+        out.writeStringList(pictureVO.getTags());
+        out.writeString(pictureVO.getCategory());
+        out.writeNullableLong(pictureVO.getPicSize());
+        out.writeNullableInt(pictureVO.getPicWidth());
+        out.writeNullableInt(pictureVO.getPicHeight());
+        out.writeNullableDouble(pictureVO.getPicScale());
+        out.writeString(pictureVO.getPicFormat());
+        out.writeNullableLong(pictureVO.getUserId());
+        out.writeNullableLong(pictureVO.getReviewerId());
+        out.writeNullableLong(pictureVO.getSpaceId());
+        out.writeNullableDate(pictureVO.getCreateTime());
+        out.writeNullableDate(pictureVO.getEditTime());
+        out.writeNullableDate(pictureVO.getUpdateTime());
+    }
+
+    /**
+     * 读取图片字段（基准测试中的分页编解码器复用）
+     */
+    static PictureVO read(BinaryInput in) {
+        PictureVO pictureVO = new PictureVO();
+        pictureVO.setId(in.readNullableLong());
+        pictureVO.setUrl(in.readString());
+        pictureVO.setName(in.readString());
+        pictureVO.setIntroduction(in.readString());
+        pictureVO.setTags(in.readStringList());
+        pictureVO.setCategory(in.readString());
+        pictureVO.setPicSize(in.readNullableLong());
+        pictureVO.setPicWidth(in.readNullableInt());
+        pictureVO.setPicHeight(in.readNullableInt());
+        pictureVO.setPicScale(in.readNullableDouble());
+        pictureVO.setPicFormat(in.readString());
+        pictureVO.setUserId(in.readNullableLong());
+        pictureVO.setReviewerId(in.readNullableLong());
+        pictureVO.setSpaceId(in.readNullableLong());
+        pictureVO.setCreateTime(in.readNullableDate());
+        pictureVO.setEditTime(in.readNullableDate());
+        pictureVO.setUpdateTime(in.readNullableDate());
+        return pictureVO;
+    }
+}
@@ -0,0 +1,47 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import com.gzu.gqzpicturebackend.model.vo.UserVO;
+
+/**
+ * 脱敏用户二进制读写
+ * 字段按固定顺序写入，不写字段名，用户可为空；图片缓存只保存用户 id，列表响应体的摘要需要包含组装时关联的用户
+ */
+public final class BinaryUserVOCodec {
+
+    private BinaryUserVOCodec() {
+    }
+
+    /**
+     * 写入用户字段，用户为空时只写一个标记
+     */
+    public static void write(BinaryOutput out, UserVO userVO) {
+        out.writeBoolean(userVO != null);
+        if (userVO != null) {
+            out.writeNullableLong(userVO.getId());
+            out.writeString(userVO.getUserName());
+            out.writeString(userVO.getUserAccount());
+            out.writeString(userVO.getUserAvatar());
+            out.writeString(userVO.getUserProfile());
+            out.writeString(userVO.getUserRole());
+            out.writeNullableDate(userVO.getCreateTime());
+        }
+    }
+
+    /**
+     * 读取用户字段
+     */
+    public static UserVO read(BinaryInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        UserVO userVO = new UserVO();
+        userVO.setId(in.readNullableLong());
+        userVO.setUserName(in.readString());
+        userVO.setUserAccount(in.readString());
+        userVO.setUserAvatar(in.readString());
+        userVO.setUserProfile(in.readString());
+        userVO.setUserRole(in.readString());
+        userVO.setCreateTime(in.readNullableDate());
+        return userVO;
+    }
+}
@@ -0,0 +1,32 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+/**
+ * 缓存编解码器
+ *
+ * @param <T> 缓存对象类型
+ */
+public interface CacheCodec<T> {
+
+    /**
+     * 编码格式名称，拼到缓存 key 中，切换格式后不会读到旧格式的数据
+     *
+     * @return
+     */
+    String format();
+
+    /**
+     * 编码
+     *
+     * @param value 缓存对象
+     * @return 字节
+     */
+    byte[] encode(T value);
+
+    /**
+     * 解码
+     *
+     * @param bytes 字节
+     * @return 缓存对象
+     */
+    T decode(byte[] bytes);
+}
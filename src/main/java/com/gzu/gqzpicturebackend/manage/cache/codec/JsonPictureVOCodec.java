@@ -0,0 +1,27 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import cn.hutool.json.JSONUtil;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 单张图片 JSON 编解码器（便于排查问题时直接查看缓存内容）
+ */
+public class JsonPictureVOCodec implements CacheCodec<PictureVO> {
+
+    @Override
+    public String format() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encode(PictureVO pictureVO) {
+        return JSONUtil.toJsonStr(pictureVO).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public PictureVO decode(byte[] bytes) {
+        return JSONUtil.toBean(new String(bytes, StandardCharsets.UTF_8), PictureVO.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import com.gzu.gqzpicturebackend.manage.cache.PictureIdPage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 图片 id 分页编解码器
+ * 格式：版本（1 字节）+ 分页信息 + id 列表，相邻 id 写差值
+ */
+public class PictureIdPageCodec implements CacheCodec<PictureIdPage> {
+
+    private static final int VERSION = 1;
+
+    @Override
+    public String format() {
+        return "ids" + VERSION;
+    }
+
+    @Override
+    public byte[] encode(PictureIdPage idPage) {
+        List<Long> ids = idPage.getIds();
+        BinaryOutput out = new BinaryOutput(32 + ids.size() * 10);
+        out.writeByte(VERSION);
+        out.writeVarLong(idPage.getCurrent());
+        out.writeVarLong(idPage.getSize());
+        out.writeVarLong(idPage.getTotal());
+        out.writeBoolean(idPage.isCursorPage());
+        if (idPage.isCursorPage()) {
+            out.writeString(idPage.getNextCursor());
+        }
+        out.writeVarLong(ids.size());
+        long previous = 0;
+        for (Long id : ids) {
+            out.writeVarLong(id - previous);
+            previous = id;
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public PictureIdPage decode(byte[] bytes) {
+        if (bytes.length < 1 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("不支持的缓存数据版本");
+        }
+        BinaryInput in = new BinaryInput(bytes, 1);
+        PictureIdPage idPage = new PictureIdPage();
+        idPage.setCurrent(in.readVarLong());
+        idPage.setSize(in.readVarLong());
+        idPage.setTotal(in.readVarLong());
+        idPage.setCursorPage(in.readBoolean());
+        if (idPage.isCursorPage()) {
+            idPage.setNextCursor(in.readString());
+        }
+        int count = (int) in.readVarLong();
+        List<Long> ids = new ArrayList<>(count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += in.readVarLong();
+            ids.add(previous);
+        }
+        idPage.setIds(ids);
+        return idPage;
+    }
+}
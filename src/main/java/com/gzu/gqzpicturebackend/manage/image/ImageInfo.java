@@ -0,0 +1,34 @@
+package com.gzu.gqzpicturebackend.manage.image;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 从文件头读取的图片信息
+ */
+@Data
+@AllArgsConstructor
+public class ImageInfo {
+
+    /**
+     * 图片格式（png / jpg / webp / gif），按文件内容判断，与后缀无关
+     */
+    private String format;
+
+    /**
+     * 图片宽度
+     */
+    private int width;
+
+    /**
+     * 图片高度
+     */
+    private int height;
+
+    /**
+     * 像素数
+     */
+    public long getPixels() {
+        return (long) width * height;
+    }
+}
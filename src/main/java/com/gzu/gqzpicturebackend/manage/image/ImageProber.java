@@ -0,0 +1,314 @@
+package com.gzu.gqzpicturebackend.manage.image;
+
+import java.io.*;
+
+/**
+ * 图片文件头探测
+ * 只读取 PNG / JPEG / WebP / GIF 的文件头，得到真实格式和宽高，不解码像素
+ */
+public final class ImageProber {
+
+    /**
+     * 最多读取的字节数
+     * JPEG 的尺寸在 SOF 段中，前面可能有 EXIF、ICC 等较大的段，其他格式只需要前几十个字节
+     */
+    public static final int MAX_PROBE_BYTES = 256 * 1024;
+
+    public static final String FORMAT_PNG = "png";
+
+    public static final String FORMAT_JPG = "jpg";
+
+    public static final String FORMAT_WEBP = "webp";
+
+    public static final String FORMAT_GIF = "gif";
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private ImageProber() {
+    }
+
+    /**
+     * 探测内存中的图片
+     *
+     * @param bytes 文件内容（至少包含文件头）
+     * @return 无法识别或文件头损坏时返回 null
+     */
+    public static ImageInfo probe(byte[] bytes) {
+        try {
+            return probe(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 探测本地文件
+     *
+     * @param file 文件
+     * @return 无法识别或文件头损坏时返回 null
+     */
+    public static ImageInfo probe(File file) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            return probe(inputStream);
+        }
+    }
+
+    /**
+     * 探测输入流，最多读取 MAX_PROBE_BYTES 个字节
+     * 会消费流中的数据，需要继续使用时调用方先 mark(MAX_PROBE_BYTES)，探测后再 reset
+     *
+     * @param inputStream 输入流
+     * @return 无法识别或文件头损坏时返回 null
+     * @throws IOException 读取失败
+     */
+    public static ImageInfo probe(InputStream inputStream) throws IOException {
+        HeaderReader reader = new HeaderReader(inputStream);
+        try {
+            byte[] head = new byte[12];
+            int n = reader.readUpTo(head);
+            if (n >= 8 && startsWith(head, PNG_SIGNATURE)) {
+                return probePng(reader);
+            }
+            if (n >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+                return probeJpeg(reader, head, n);
+            }
+            if (n >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                    && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+                return probeWebp(reader);
+            }
+            if (n >= 10 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8'
+                    && (head[4] == '7' || head[4] == '9') && head[5] == 'a') {
+                return probeGif(reader, head);
+            }
+            return null;
+        } catch (EOFException e) {
+            // 文件头不完整，或者超过了读取上限
+            return null;
+        }
+    }
+
+    /**
+     * PNG：签名之后第一个块必须是 IHDR，依次为宽、高（大端 4 字节）
+     */
+    private static ImageInfo probePng(HeaderReader reader) throws IOException {
+        // 已读取 12 字节：签名 8 字节 + IHDR 长度 4 字节
+        byte[] ihdr = reader.readFully(12);
+        if (ihdr[0] != 'I' || ihdr[1] != 'H' || ihdr[2] != 'D' || ihdr[3] != 'R') {
+            return null;
+        }
+        return info(FORMAT_PNG, readIntBE(ihdr, 4), readIntBE(ihdr, 8));
+    }
+
+    /**
+     * JPEG：逐段跳过，直到 SOF 段（帧头），其中依次为精度 1 字节、高、宽（大端 2 字节）
+     */
+    private static ImageInfo probeJpeg(HeaderReader reader, byte[] head, int n) throws IOException {
+        // 已读取的字节放回去按段解析，SOI 之后从第 2 个字节开始
+        HeaderReader segmentReader = reader.prepend(head, 2, n - 2);
+        while (true) {
+            int marker = segmentReader.readUnsignedByte();
+            if (marker != 0xFF) {
+                return null;
+            }
+            // 标记前可以有任意个填充的 0xFF
+            do {
+                marker = segmentReader.readUnsignedByte();
+            } while (marker == 0xFF);
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // 没有长度的独立标记
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // 图像结束或扫描开始之前都没有帧头
+                return null;
+            }
+            int length = segmentReader.readUnsignedShort();
+            if (length < 2) {
+                return null;
+            }
+            if (isStartOfFrame(marker)) {
+                byte[] frame = segmentReader.readFully(5);
+                return info(FORMAT_JPG, readShortBE(frame, 3), readShortBE(frame, 1));
+            }
+            segmentReader.skip(length - 2);
+        }
+    }
+
+    /**
+     * SOF0 - SOF15，排除 DHT(C4)、JPG(C8)、DAC(CC)
+     */
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    /**
+     * WebP：RIFF 头之后的第一个块决定编码方式
+     * VP8X 为扩展格式，画布宽高减一（小端 3 字节）；VP8L 为无损，宽高减一各 14 位；VP8 为有损，关键帧头中宽高各 14 位
+     */
+    private static ImageInfo probeWebp(HeaderReader reader) throws IOException {
+        // 块类型 4 字节 + 块长度 4 字节 + 最多 10 字节的块内容
+        byte[] chunk = reader.readFully(18);
+        int b = 8;
+        if (chunk[0] == 'V' && chunk[1] == 'P' && chunk[2] == '8' && chunk[3] == 'X') {
+            int width = 1 + readInt24LE(chunk, b + 4);
+            int height = 1 + readInt24LE(chunk, b + 7);
+            return info(FORMAT_WEBP, width, height);
+        }
+        if (chunk[0] == 'V' && chunk[1] == 'P' && chunk[2] == '8' && chunk[3] == 'L') {
+            if ((chunk[b] & 0xFF) != 0x2F) {
+                return null;
+            }
+            int bits = (chunk[b + 1] & 0xFF) | (chunk[b + 2] & 0xFF) << 8
+                    | (chunk[b + 3] & 0xFF) << 16 | (chunk[b + 4] & 0xFF) << 24;
+            int width = 1 + (bits & 0x3FFF);
+            int height = 1 + ((bits >> 14) & 0x3FFF);
+            return info(FORMAT_WEBP, width, height);
+        }
+        if (chunk[0] == 'V' && chunk[1] == 'P' && chunk[2] == '8' && chunk[3] == ' ') {
+            // 3 字节帧标记之后是起始码 9D 01 2A
+            if ((chunk[b + 3] & 0xFF) != 0x9D || (chunk[b + 4] & 0xFF) != 0x01 || (chunk[b + 5] & 0xFF) != 0x2A) {
+                return null;
+            }
+            int width = readShortLE(chunk, b + 6) & 0x3FFF;
+            int height = readShortLE(chunk, b + 8) & 0x3FFF;
+            return info(FORMAT_WEBP, width, height);
+        }
+        return null;
+    }
+
+    /**
+     * GIF：逻辑屏幕宽、高（小端 2 字节）
+     */
+    private static ImageInfo probeGif(HeaderReader reader, byte[] head) {
+        return info(FORMAT_GIF, readShortLE(head, 6), readShortLE(head, 8));
+    }
+
+    private static ImageInfo info(String format, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        return new ImageInfo(format, width, height);
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readIntBE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static int readShortBE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 8 | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readShortLE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int readInt24LE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16;
+    }
+
+    /**
+     * 带读取上限的顺序读取器，超过上限或流结束时抛出 EOFException
+     */
+    private static class HeaderReader {
+
+        private final InputStream inputStream;
+
+        private byte[] pending;
+
+        private int pendingPos;
+
+        private int pendingEnd;
+
+        private int remaining = MAX_PROBE_BYTES;
+
+        HeaderReader(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        /**
+         * 把已读取的字节放回到读取器前面
+         */
+        HeaderReader prepend(byte[] bytes, int offset, int length) {
+            pending = bytes;
+            pendingPos = offset;
+            pendingEnd = offset + length;
+            return this;
+        }
+
+        /**
+         * 尽量读满数组，流结束时返回实际读取的字节数
+         */
+        int readUpTo(byte[] bytes) throws IOException {
+            int total = 0;
+            while (total < bytes.length) {
+                int n = inputStream.read(bytes, total, bytes.length - total);
+                if (n < 0) {
+                    break;
+                }
+                total += n;
+            }
+            remaining -= total;
+            return total;
+        }
+
+        int readUnsignedByte() throws IOException {
+            if (pendingPos < pendingEnd) {
+                return pending[pendingPos++] & 0xFF;
+            }
+            consume(1);
+            int b = inputStream.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        int readUnsignedShort() throws IOException {
+            return readUnsignedByte() << 8 | readUnsignedByte();
+        }
+
+        byte[] readFully(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) readUnsignedByte();
+            }
+            return bytes;
+        }
+
+        void skip(long length) throws IOException {
+            while (length > 0 && pendingPos < pendingEnd) {
+                pendingPos++;
+                length--;
+            }
+            consume(length);
+            while (length > 0) {
+                long skipped = inputStream.skip(length);
+                if (skipped <= 0) {
+                    // skip 可能返回 0，逐字节确认是否已到流末尾
+                    if (inputStream.read() < 0) {
+                        throw new EOFException();
+                    }
+                    skipped = 1;
+                }
+                length -= skipped;
+            }
+        }
+
+        private void consume(long length) throws EOFException {
+            if (length > remaining) {
+                throw new EOFException();
+            }
+            remaining -= length;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.gzu.gqzpicturebackend.manage.image;
+
+import com.gzu.gqzpicturebackend.config.ThreadPoolConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 图片处理引擎（本地生成衍生图，规则与 COS 数据万象一致）
+ * 1. 压缩图：classpath 中有 webp 编码器时转为 webp，否则不透明图片转为 jpg、透明图片转为 png；
+ * 2. 缩略图：原图大于 2KB 时等比缩小到 256*256 以内（不放大），格式与原图相同；
+ * 3. 额外尺寸：按 picture.image.extra-sizes 等比缩小，格式与压缩图相同，从大到小依次由上一级缩小得到；
+ * 任务在图片处理线程池（线程数 = 核数）中执行，线程池已满时不生成衍生图（只保留原图），不占用调用线程；
+ * 按像素数估算解码内存，所有任务共享一个内存预算，超出时限时排队等待；
+ * 等待超时后中断任务，任务在各阶段之间检查中断，尽早释放内存预算和 CPU
+ */
+@Slf4j
+@Component
+public class PictureProcessingEngine {
+
+    /**
+     * 缩略图最大宽高
+     */
+    public static final int THUMBNAIL_SIZE = 256;
+
+    /**
+     * 超过该大小才生成缩略图，与 COS 规则一致
+     */
+    public static final long THUMBNAIL_MIN_FILE_SIZE = 2 * 1024;
+
+    /**
+     * 解码的最大像素数，超过时不生成衍生图
+     */
+    public static final long MAX_PIXELS = 40_000_000L;
+
+    /**
+     * 衍生图后缀：压缩图的格式可能与原图相同（jpg、png），必须带后缀，否则会覆盖原图
+     */
+    public static final String SUFFIX_COMPRESSED = "_compressed";
+
+    public static final String SUFFIX_THUMBNAIL = "_thumbnail";
+
+    /**
+     * 每个像素占用的估算字节数：解码后的图片（最多 4 字节）+ 缩小、去透明等中间结果
+     */
+    private static final int BYTES_PER_PIXEL = 8;
+
+    /**
+     * 等待处理结果的最长时间（秒）
+     */
+    private static final long PROCESS_TIMEOUT_SECONDS = 60;
+
+    private static final float JPEG_QUALITY = 0.8f;
+
+    @Resource(name = ThreadPoolConfig.IMAGE_PROCESS_EXECUTOR)
+    private ExecutorService imageProcessExecutor;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 所有任务共享的解码内存预算（MB）
+     */
+    @Value("${picture.image.memory-budget-mb:512}")
+    private int memoryBudgetMb;
+
+    /**
+     * 额外生成的尺寸（最长边像素），逗号分隔，为空时不生成
+     */
+    @Value("${picture.image.extra-sizes:}")
+    private int[] extraSizes;
+
+    private final boolean webpSupported = ImageIO.getImageWritersByFormatName("webp").hasNext();
+
+    /**
+     * 内存预算，单位 KB
+     */
+    private Semaphore memoryPermits;
+
+    private int totalPermits;
+
+    private Timer processTimer;
+
+    @PostConstruct
+    public void init() {
+        totalPermits = Math.max(1, memoryBudgetMb) * 1024;
+        memoryPermits = new Semaphore(totalPermits, true);
+        extraSizes = normalizeSizes(extraSizes);
+        processTimer = Timer.builder("picture.process")
+                .description("本地生成衍生图耗时（不含排队）")
+                .register(meterRegistry);
+        Gauge.builder("picture.process.memory.available", memoryPermits, Semaphore::availablePermits)
+                .description("剩余的解码内存预算（KB）")
+                .baseUnit("kilobytes")
+                .register(meterRegistry);
+        if (!webpSupported) {
+            log.info("未找到 webp 编码器，压缩图使用 jpg / png");
+        }
+    }
+
+    /**
+     * 提交内存中的图片
+     *
+     * @param bytes 图片内容
+     * @return 处理结果，图片无法解码或过大时结果为 null
+     */
+    public Future<ProcessResult> submit(byte[] bytes) {
+        return submit(() -> new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes)), bytes.length);
+    }
+
+    /**
+     * 提交本地文件
+     *
+     * @param file 图片文件
+     * @return 处理结果，图片无法解码或过大时结果为 null
+     */
+    public Future<ProcessResult> submit(File file) {
+        return submit(() -> new FileImageInputStream(file), file.length());
+    }
+
+    /**
+     * 等待处理结果，超时后中断任务
+     *
+     * @param future submit 返回的结果
+     * @return 处理结果，失败或超时时返回 null
+     */
+    public ProcessResult await(Future<ProcessResult> future) {
+        try {
+            return future.get(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("生成衍生图超时，已中断任务");
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("生成衍生图失败", e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * 在当前线程处理，同样受内存预算限制，等待预算超时时抛出 IOException
+     *
+     * @param bytes 图片内容
+     * @return 处理结果，图片无法解码或过大时返回 null
+     */
+    public ProcessResult process(byte[] bytes) throws IOException {
+        return process(() -> new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes)), bytes.length);
+    }
+
+    private Future<ProcessResult> submit(ImageSource source, long fileSize) {
+        try {
+            return imageProcessExecutor.submit(() -> process(source, fileSize));
+        } catch (RejectedExecutionException e) {
+            // 线程池已满时立即失败，不在调用线程（请求线程）解码，结果为 null 时只保留原图
+            log.warn("图片处理线程池已满，本次不生成衍生图");
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 解码、生成所有衍生图
+     */
+    private ProcessResult process(ImageSource source, long fileSize) throws IOException {
+        try (ImageInputStream imageInputStream = source.open()) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                long pixels = (long) width * height;
+                if (pixels > MAX_PIXELS) {
+                    log.warn("图片过大，不生成衍生图，pixels = {}", pixels);
+                    return null;
+                }
+                int permits = (int) Math.min(totalPermits, Math.max(1, pixels * BYTES_PER_PIXEL / 1024));
+                try {
+                    // 限时等待，内存预算长时间被占满时放弃，不无限阻塞当前线程
+                    if (!memoryPermits.tryAcquire(permits, PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                        throw new IOException("等待解码内存预算超时");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("等待内存预算时被中断");
+                }
+                long start = System.nanoTime();
+                try {
+                    BufferedImage image = reader.read(0);
+                    checkInterrupted();
+                    ProcessResult result = new ProcessResult();
+                    result.setWidth(width);
+                    result.setHeight(height);
+                    result.setSourceFormat(normalizeFormat(reader.getFormatName()));
+                    result.setDerivatives(derive(image, result.getSourceFormat(), fileSize));
+                    return result;
+                } finally {
+                    memoryPermits.release(permits);
+                    processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 生成压缩图、额外尺寸和缩略图
+     */
+    private List<Derivative> derive(BufferedImage image, String sourceFormat, long fileSize) throws IOException {
+        List<Derivative> derivatives = new ArrayList<>();
+        boolean hasAlpha = image.getColorModel().hasAlpha();
+        String compressedFormat = compressedFormat(hasAlpha);
+        derivatives.add(encode(image, SUFFIX_COMPRESSED, compressedFormat, fileSize));
+        // 从大到小依次缩小，每一级都从上一级开始，避免每次都从原图缩小
+        BufferedImage current = image;
+        for (int size : extraSizes) {
+            if (size >= Math.max(image.getWidth(), image.getHeight())) {
+                continue;
+            }
+            checkInterrupted();
+            current = scaleDown(current, size, size);
+            derivatives.add(encode(current, "_" + size, compressedFormat, 0));
+        }
+        if (fileSize > THUMBNAIL_MIN_FILE_SIZE) {
+            checkInterrupted();
+            String thumbnailFormat = writableFormat(sourceFormat, hasAlpha);
+            current = scaleDown(current, THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+            derivatives.add(encode(current, SUFFIX_THUMBNAIL, thumbnailFormat, 0));
+        }
+        return derivatives;
+    }
+
+    /**
+     * 调用方已放弃等待时停止处理
+     */
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("生成衍生图被中断");
+        }
+    }
+
+    private Derivative encode(BufferedImage image, String suffix, String format, long sizeHint) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) Math.min(Math.max(sizeHint, 8192), 16 << 20));
+        write(image, format, outputStream);
+        Derivative derivative = new Derivative();
+        derivative.setSuffix(suffix);
+        derivative.setFormat(format);
+        derivative.setWidth(image.getWidth());
+        derivative.setHeight(image.getHeight());
+        derivative.setBytes(outputStream.toByteArray());
+        return derivative;
+    }
+
+    /**
+     * 压缩图的格式
+     */
+    private String compressedFormat(boolean hasAlpha) {
+        if (webpSupported) {
+            return "webp";
+        }
+        return hasAlpha ? "png" : "jpg";
+    }
+
+    /**
+     * 原图格式可以写出时保持原格式，否则使用压缩图的格式
+     */
+    private String writableFormat(String format, boolean hasAlpha) {
+        if (format != null && ImageIO.getImageWritersByFormatName(format).hasNext()) {
+            return format;
+        }
+        return compressedFormat(hasAlpha);
+    }
+
+    /**
+     * 等比缩小到指定宽高以内，不放大；缩小倍数较大时逐次减半，减少锯齿
+     */
+    static BufferedImage scaleDown(BufferedImage image, int maxWidth, int maxHeight) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(maxWidth * 1.0 / width, maxHeight * 1.0 / height);
+        if (ratio >= 1) {
+            return image;
+        }
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage scaled = new BufferedImage(width, height, type);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = scaled;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * 编码图片，jpg 使用固定压缩质量，全程在内存中完成
+     */
+    static void write(BufferedImage image, String format, ByteArrayOutputStream outputStream) throws IOException {
+        if ("jpg".equals(format) && image.getColorModel().hasAlpha()) {
+            image = toRgb(image);
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("不支持的图片格式：" + format);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpg".equals(format) && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static String normalizeFormat(String formatName) {
+        String format = formatName == null ? null : formatName.toLowerCase(Locale.ROOT);
+        return "jpeg".equals(format) ? "jpg" : format;
+    }
+
+    /**
+     * 去掉不合法的尺寸，去重后从大到小排列；缩略图尺寸单独生成
+     */
+    static int[] normalizeSizes(int[] sizes) {
+        if (sizes == null) {
+            return new int[0];
+        }
+        return Arrays.stream(sizes)
+                .filter(size -> size > THUMBNAIL_SIZE)
+                .boxed()
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @FunctionalInterface
+    private interface ImageSource {
+
+        ImageInputStream open() throws IOException;
+    }
+
+    /**
+     * 处理结果
+     */
+    @Data
+    public static class ProcessResult {
+
+        /**
+         * 原图宽度
+         */
+        private int width;
+
+        /**
+         * 原图高度
+         */
+        private int height;
+
+        /**
+         * 原图格式
+         */
+        private String sourceFormat;
+
+        /**
+         * 衍生图，第一个为压缩图
+         */
+        private List<Derivative> derivatives;
+
+        public Derivative getCompressed() {
+            return derivatives.get(0);
+        }
+
+        /**
+         * 缩略图，没有生成时为 null
+         */
+        public Derivative getThumbnail() {
+            Derivative last = derivatives.get(derivatives.size() - 1);
+            return SUFFIX_THUMBNAIL.equals(last.getSuffix()) ? last : null;
+        }
+    }
+
+    /**
+     * 衍生图
+     */
+    @Data
+    public static class Derivative {
+
+        /**
+         * 对象键后缀（加在原图主文件名之后）
+         */
+        private String suffix;
+
+        /**
+         * 图片格式，同时作为扩展名
+         */
+        private String format;
+
+        private int width;
+
+        private int height;
+
+        /**
+         * 编码后的内容
+         */
+        private byte[] bytes;
+
+        /**
+         * 衍生图的对象键：原图去掉扩展名 + 后缀 + 格式
+         *
+         * @param originalKey 原图对象键
+         * @return
+         */
+        public String keyFor(String originalKey) {
+            int slash = originalKey.lastIndexOf('/');
+            int dot = originalKey.lastIndexOf('.');
+            String basePath = dot > slash ? originalKey.substring(0, dot) : originalKey;
+            return basePath + suffix + "." + format;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.gzu.gqzpicturebackend.manage.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * n-gram 分词器
+ * 按非字母数字字符切分成片段，片段内切成单字和相邻两字（bigram），中文不需要词典也能检索；
+ * 查询时长度为 1 的片段用单字，其余只用 bigram，相邻 bigram 全部命中近似于子串匹配
+ */
+public final class NGramTokenizer {
+
+    private NGramTokenizer() {
+    }
+
+    /**
+     * 建索引时分词（单字 + bigram，可重复，重复次数即词频）
+     *
+     * @param text 文本
+     * @return
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String segment : split(text)) {
+            for (int i = 0; i < segment.length(); i++) {
+                tokens.add(segment.substring(i, i + 1));
+                if (i + 1 < segment.length()) {
+                    tokens.add(segment.substring(i, i + 2));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 查询时分词
+     *
+     * @param text 查询词
+     * @return
+     */
+    public static List<String> tokenizeForQuery(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String segment : split(text)) {
+            if (segment.length() == 1) {
+                tokens.add(segment);
+                continue;
+            }
+            for (int i = 0; i + 1 < segment.length(); i++) {
+                tokens.add(segment.substring(i, i + 2));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 转小写，按非字母数字字符切分
+     */
+    private static List<String> split(String text) {
+        List<String> segments = new ArrayList<>();
+        if (text == null) {
+            return segments;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            } else if (sb.length() > 0) {
+                segments.add(sb.toString());
+                sb.setLength(0);
+            }
+        }
+        if (sb.length() > 0) {
+            segments.add(sb.toString());
+        }
+        return segments;
+    }
+}
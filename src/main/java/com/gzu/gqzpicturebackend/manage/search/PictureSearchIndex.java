@@ -0,0 +1,378 @@
+package com.gzu.gqzpicturebackend.manage.search;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.StrUtil;
+import com.gzu.gqzpicturebackend.mapper.PictureMapper;
+import com.gzu.gqzpicturebackend.model.convert.TagsCodec;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 图片全文索引（进程内倒排索引）
+ * 对名称、简介、分类、标签做 n-gram 分词，检索时返回按相关度排序的图片 id；
+ * 本实例的写操作通过 refresh 立即生效，其他实例的写操作由定时同步按 updateTime 增量追上；
+ * 每张图片同时保存空间、上传者和审核状态，检索时先按范围过滤，命中结果不截断，由调用方在索引内分页
+ */
+@Slf4j
+@Component
+public class PictureSearchIndex {
+
+    /**
+     * 字段：名称
+     */
+    public static final int FIELD_NAME = 1;
+
+    /**
+     * 字段：简介
+     */
+    public static final int FIELD_INTRODUCTION = 1 << 1;
+
+    /**
+     * 字段：分类
+     */
+    public static final int FIELD_CATEGORY = 1 << 2;
+
+    /**
+     * 字段：标签
+     */
+    public static final int FIELD_TAGS = 1 << 3;
+
+    /**
+     * 全部字段
+     */
+    public static final int FIELD_ALL = FIELD_NAME | FIELD_INTRODUCTION | FIELD_CATEGORY | FIELD_TAGS;
+
+    /**
+     * 每批同步的图片数
+     */
+    private static final int SYNC_BATCH_SIZE = 1000;
+
+    /**
+     * 增量同步时向前多取的秒数，覆盖提交较晚的事务
+     */
+    private static final int SYNC_OVERLAP_SECONDS = 10;
+
+    /**
+     * 定时同步的间隔（毫秒）
+     */
+    private static final long SYNC_INTERVAL_MILLIS = 30_000;
+
+    @Resource
+    private PictureMapper pictureMapper;
+
+    /**
+     * 倒排表：词 -> (图片 id -> 命中信息)
+     */
+    private final Map<String, Map<Long, Posting>> postingMap = new HashMap<>();
+
+    /**
+     * 正排表：图片 id -> 包含的词和过滤属性，用于删除和重建单张图片的索引
+     */
+    private final Map<Long, Doc> docMap = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 已同步到的最大更新时间
+     */
+    private Date syncedUpdateTime = new Date(0);
+
+    /**
+     * 首次全量加载完成前不可用，调用方需降级
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * 索引同步单独使用一个线程，全量加载不占用共享的定时任务线程
+     */
+    private ScheduledExecutorService syncExecutor;
+
+    @PostConstruct
+    public void init() {
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("picture-search-index-").setDaemon(true).build());
+        syncExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (Exception e) {
+                // 异常不能抛出，否则后续的同步不再执行
+                log.error("同步图片全文索引失败", e);
+            }
+        }, 0, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        syncExecutor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 检索图片
+     *
+     * @param text 查询词
+     * @param fieldMask 检索的字段（FIELD_* 按位或）
+     * @param scope 检索范围，为 null 表示不限制
+     * @return 范围内全部命中的图片 id，按相关度降序；查询词中没有可检索的字符时返回 null（不做限制）
+     */
+    public List<Long> search(String text, int fieldMask, SearchScope scope) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(NGramTokenizer.tokenizeForQuery(text)));
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        Map<Long, Float> scoreMap;
+        lock.readLock().lock();
+        try {
+            // 从最短的倒排链开始，候选集合只会越来越小
+            List<Map<Long, Posting>> postingsList = new ArrayList<>();
+            for (String token : tokens) {
+                Map<Long, Posting> postings = postingMap.get(token);
+                if (postings == null) {
+                    return Collections.emptyList();
+                }
+                postingsList.add(postings);
+            }
+            postingsList.sort(Comparator.comparingInt(Map::size));
+            scoreMap = new HashMap<>();
+            for (Map.Entry<Long, Posting> entry : postingsList.get(0).entrySet()) {
+                if ((entry.getValue().fields & fieldMask) != 0
+                        && (scope == null || scope.matches(docMap.get(entry.getKey())))) {
+                    scoreMap.put(entry.getKey(), entry.getValue().score);
+                }
+            }
+            for (int i = 1; i < postingsList.size() && !scoreMap.isEmpty(); i++) {
+                Map<Long, Posting> postings = postingsList.get(i);
+                Iterator<Map.Entry<Long, Float>> iterator = scoreMap.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Long, Float> entry = iterator.next();
+                    Posting posting = postings.get(entry.getKey());
+                    if (posting == null || (posting.fields & fieldMask) == 0) {
+                        iterator.remove();
+                    } else {
+                        entry.setValue(entry.getValue() + posting.score);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // 相关度降序，相同时新图片在前
+        List<Map.Entry<Long, Float>> entryList = new ArrayList<>(scoreMap.entrySet());
+        entryList.sort((a, b) -> {
+            int cmp = Float.compare(b.getValue(), a.getValue());
+            return cmp != 0 ? cmp : Long.compare(b.getKey(), a.getKey());
+        });
+        List<Long> pictureIdList = new ArrayList<>(entryList.size());
+        for (Map.Entry<Long, Float> entry : entryList) {
+            pictureIdList.add(entry.getKey());
+        }
+        return pictureIdList;
+    }
+
+    /**
+     * 从数据库重新加载单张图片的索引（图片已删除时移除索引）
+     * 在写操作的事务提交后调用，失败只记录日志，由定时同步兜底
+     *
+     * @param pictureId 图片 id
+     */
+    public void refresh(Long pictureId) {
+        if (pictureId == null) {
+            return;
+        }
+        try {
+            Picture picture = pictureMapper.selectById(pictureId);
+            if (picture == null) {
+                remove(pictureId);
+            } else {
+                index(picture);
+            }
+        } catch (Exception e) {
+            log.warn("刷新图片全文索引失败，pictureId = {}", pictureId, e);
+        }
+    }
+
+    /**
+     * 定时同步数据库中的变更（首次执行时全量加载）
+     */
+    void sync() {
+        Date since = ready ? DateUtil.offsetSecond(syncedUpdateTime, -SYNC_OVERLAP_SECONDS) : new Date(0);
+        long lastId = 0;
+        long total = 0;
+        Date maxUpdateTime = syncedUpdateTime;
+        List<Picture> pictureList;
+        do {
+            // 包含已逻辑删除的图片，用于移除索引
+            pictureList = pictureMapper.listForSearchIndex(since, lastId, SYNC_BATCH_SIZE);
+            for (Picture picture : pictureList) {
+                if (picture.getIsDelete() != null && picture.getIsDelete() == 1) {
+                    remove(picture.getId());
+                } else {
+                    index(picture);
+                }
+                if (picture.getUpdateTime().after(maxUpdateTime)) {
+                    maxUpdateTime = picture.getUpdateTime();
+                }
+            }
+            if (!pictureList.isEmpty()) {
+                Picture last = pictureList.get(pictureList.size() - 1);
+                since = last.getUpdateTime();
+                lastId = last.getId();
+                total += pictureList.size();
+            }
+        } while (pictureList.size() >= SYNC_BATCH_SIZE);
+        syncedUpdateTime = maxUpdateTime;
+        if (!ready) {
+            ready = true;
+            log.info("图片全文索引加载完成，图片数 = {}，词数 = {}", total, postingMap.size());
+        }
+    }
+
+    /**
+     * 建立单张图片的索引（先移除旧索引）
+     */
+    private void index(Picture picture) {
+        Map<String, Posting> tokenPostingMap = new HashMap<>();
+        addField(tokenPostingMap, picture.getName(), FIELD_NAME, 3f);
+        addField(tokenPostingMap, picture.getIntroduction(), FIELD_INTRODUCTION, 1f);
+        addField(tokenPostingMap, picture.getCategory(), FIELD_CATEGORY, 2f);
+        if (StrUtil.isNotBlank(picture.getTags())) {
+            for (String tag : TagsCodec.decode(picture.getTags())) {
+                addField(tokenPostingMap, tag, FIELD_TAGS, 2f);
+            }
+        }
+        Long pictureId = picture.getId();
+        lock.writeLock().lock();
+        try {
+            removeInternal(pictureId);
+            for (Map.Entry<String, Posting> entry : tokenPostingMap.entrySet()) {
+                postingMap.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(pictureId, entry.getValue());
+            }
+            Doc doc = new Doc();
+            doc.tokens = new HashSet<>(tokenPostingMap.keySet());
+            doc.spaceId = picture.getSpaceId();
+            doc.userId = picture.getUserId();
+            doc.reviewStatus = picture.getReviewStatus();
+            docMap.put(pictureId, doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除单张图片的索引
+     */
+    private void remove(Long pictureId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(pictureId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long pictureId) {
+        Doc doc = docMap.remove(pictureId);
+        if (doc == null) {
+            return;
+        }
+        for (String token : doc.tokens) {
+            Map<Long, Posting> postings = postingMap.get(token);
+            if (postings != null) {
+                postings.remove(pictureId);
+                if (postings.isEmpty()) {
+                    postingMap.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * 字段分词后累加词频得分
+     */
+    private static void addField(Map<String, Posting> tokenPostingMap, String text, int field, float weight) {
+        if (StrUtil.isBlank(text)) {
+            return;
+        }
+        for (String token : NGramTokenizer.tokenizeForIndex(text)) {
+            Posting posting = tokenPostingMap.computeIfAbsent(token, k -> new Posting());
+            posting.score += weight;
+            posting.fields |= field;
+        }
+    }
+
+    /**
+     * 倒排链中的一项：得分（字段权重 × 词频）和命中的字段
+     */
+    private static class Posting {
+
+        private float score;
+
+        private int fields;
+    }
+
+    /**
+     * 正排表中的一项：包含的词和检索范围用到的属性
+     */
+    private static class Doc {
+
+        private Set<String> tokens;
+
+        private Long spaceId;
+
+        private Long userId;
+
+        private Integer reviewStatus;
+    }
+
+    /**
+     * 检索范围，字段为空表示不限制
+     */
+    @Data
+    public static class SearchScope {
+
+        /**
+         * 空间 id
+         */
+        private Long spaceId;
+
+        /**
+         * 是否只查询公共图库（空间 id 为空）
+         */
+        private boolean nullSpaceId;
+
+        /**
+         * 上传者 id
+         */
+        private Long userId;
+
+        /**
+         * 审核状态
+         */
+        private Integer reviewStatus;
+
+        boolean matches(Doc doc) {
+            if (doc == null) {
+                return false;
+            }
+            return (spaceId == null || spaceId.equals(doc.spaceId))
+                    && (!nullSpaceId || doc.spaceId == null)
+                    && (userId == null || userId.equals(doc.userId))
+                    && (reviewStatus == null || reviewStatus.equals(doc.reviewStatus));
+        }
+    }
+}
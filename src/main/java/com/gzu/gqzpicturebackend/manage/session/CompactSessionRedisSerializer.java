@@ -0,0 +1,96 @@
+package com.gzu.gqzpicturebackend.manage.session;
+
+import com.gzu.gqzpicturebackend.manage.cache.codec.BinaryInput;
+import com.gzu.gqzpicturebackend.manage.cache.codec.BinaryOutput;
+import com.gzu.gqzpicturebackend.model.dto.user.LoginUserSession;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * 会话属性序列化器（替代 JDK 序列化）
+ * 登录态和 Spring Session 自身的时间戳等常用类型写成 1 字节类型标记 + 紧凑二进制；
+ * 其他类型仍使用 JDK 序列化，JDK 序列化的数据以 0xACED 开头，与类型标记不冲突，旧会话可以继续读取
+ */
+public class CompactSessionRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final int TYPE_LONG = 1;
+
+    private static final int TYPE_INTEGER = 2;
+
+    private static final int TYPE_STRING = 3;
+
+    private static final int TYPE_BOOLEAN = 4;
+
+    private static final int TYPE_LOGIN_USER_SESSION = 5;
+
+    /**
+     * JDK 序列化数据的魔数
+     */
+    private static final byte JDK_MAGIC_0 = (byte) 0xAC;
+
+    private static final byte JDK_MAGIC_1 = (byte) 0xED;
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        BinaryOutput out = new BinaryOutput(32);
+        if (value instanceof LoginUserSession) {
+            LoginUserSession loginUserSession = (LoginUserSession) value;
+            out.writeByte(TYPE_LOGIN_USER_SESSION);
+            out.writeVarLong(loginUserSession.getUserId());
+            out.writeString(loginUserSession.getUserRole());
+            out.writeVarLong(loginUserSession.getVersion());
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeVarLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeVarLong((Integer) value);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            out.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else {
+            return jdkSerializer.serialize(value);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length >= 2 && bytes[0] == JDK_MAGIC_0 && bytes[1] == JDK_MAGIC_1) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        BinaryInput in = new BinaryInput(bytes, 1);
+        switch (bytes[0]) {
+            case TYPE_LOGIN_USER_SESSION:
+                LoginUserSession loginUserSession = new LoginUserSession();
+                loginUserSession.setUserId(in.readVarLong());
+                loginUserSession.setUserRole(in.readString());
+                loginUserSession.setVersion(in.readVarLong());
+                return loginUserSession;
+            case TYPE_LONG:
+                return in.readVarLong();
+            case TYPE_INTEGER:
+                return (int) in.readVarLong();
+            case TYPE_STRING:
+                return in.readString();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            default:
+                throw new SerializationException("不支持的会话数据类型：" + bytes[0]);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.gzu.gqzpicturebackend.manage.storage;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.gzu.gqzpicturebackend.config.CosClientConfig;
+import com.gzu.gqzpicturebackend.manage.CosManager;
+import com.qcloud.cos.exception.MultiObjectDeleteException;
+import com.qcloud.cos.model.COSObject;
+import com.qcloud.cos.model.ObjectMetadata;
+import com.qcloud.cos.model.PutObjectResult;
+import com.qcloud.cos.model.ciModel.persistence.CIObject;
+import com.qcloud.cos.model.ciModel.persistence.CIUploadResult;
+import com.qcloud.cos.model.ciModel.persistence.ImageInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 腾讯云 COS 存储
+ * 衍生图由数据万象在上传时按规则生成（webp 压缩图、缩略图）
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "picture.storage.type", havingValue = "cos", matchIfMissing = true)
+public class CosObjectStorage implements ObjectStorage {
+
+    @Resource
+    private CosManager cosManager;
+
+    @Resource
+    private CosClientConfig cosClientConfig;
+
+    @Override
+    public void putObject(String key, File file) {
+        cosManager.putObject(key, file);
+    }
+
+    @Override
+    public void putObject(String key, InputStream inputStream, long contentLength) {
+        // 不带图片处理规则的流式上传
+        cosManager.putObject(key, inputStream, contentLength);
+    }
+
+    @Override
+    public StoredPicture putPicture(String key, File file) {
+        return toStoredPicture(cosManager.putPictureObject(key, file), key, file.length());
+    }
+
+    @Override
+    public StoredPicture putPicture(String key, InputStream inputStream, long contentLength) {
+        return toStoredPicture(cosManager.putPictureObject(key, inputStream, contentLength), key, contentLength);
+    }
+
+    @Override
+    public StoredObject getObject(String key) {
+        return toStoredObject(cosManager.getObject(key));
+    }
+
+    @Override
+    public StoredObject getObject(String key, long start, long end) {
+        return toStoredObject(cosManager.getObject(key, start, end));
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        cosManager.deleteObject(key);
+    }
+
+    @Override
+    public List<String> deleteObjects(List<String> keys) {
+        List<String> failedKeys = new ArrayList<>();
+        // 单次请求最多 1000 个，某一批失败不影响其他批
+        for (List<String> subKeys : CollUtil.split(keys, 1000)) {
+            try {
+                cosManager.deleteObjects(subKeys);
+            } catch (MultiObjectDeleteException e) {
+                e.getErrors().forEach(error -> {
+                    log.error("对象删除失败，key = {}, code = {}", error.getKey(), error.getCode());
+                    failedKeys.add(error.getKey());
+                });
+            } catch (Exception e) {
+                log.error("对象批量删除失败，数量 = {}", subKeys.size(), e);
+                failedKeys.addAll(subKeys);
+            }
+        }
+        return failedKeys;
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return cosClientConfig.getHost() + "/" + StrUtil.removePrefix(key, "/");
+    }
+
+    @Override
+    public String getKeyFromUrl(String url) {
+        return cosManager.getKeyFromUrl(url);
+    }
+
+    /**
+     * 数据万象的处理结果转换为图片信息
+     * 有压缩图时使用压缩图（第二个结果为缩略图，没有则与压缩图相同），否则使用原图
+     */
+    private StoredPicture toStoredPicture(PutObjectResult putObjectResult, String key, long picSize) {
+        CIUploadResult ciUploadResult = putObjectResult.getCiUploadResult();
+        StoredPicture storedPicture = new StoredPicture();
+        List<CIObject> objectList = ciUploadResult.getProcessResults().getObjectList();
+        if (CollUtil.isNotEmpty(objectList)) {
+            CIObject compressedCiObject = objectList.get(0);
+            CIObject thumbnailCiObject = objectList.size() > 1 ? objectList.get(1) : compressedCiObject;
+            storedPicture.setUrl(getUrl(compressedCiObject.getKey()));
+            storedPicture.setThumbnailUrl(getUrl(thumbnailCiObject.getKey()));
+            storedPicture.setPicSize(compressedCiObject.getSize().longValue());
+            storedPicture.setPicWidth(compressedCiObject.getWidth());
+            storedPicture.setPicHeight(compressedCiObject.getHeight());
+            storedPicture.setPicFormat(compressedCiObject.getFormat());
+            return storedPicture;
+        }
+        ImageInfo imageInfo = ciUploadResult.getOriginalInfo().getImageInfo();
+        storedPicture.setUrl(getUrl(key));
+        storedPicture.setPicSize(picSize);
+        storedPicture.setPicWidth(imageInfo.getWidth());
+        storedPicture.setPicHeight(imageInfo.getHeight());
+        storedPicture.setPicFormat(imageInfo.getFormat());
+        return storedPicture;
+    }
+
+    private StoredObject toStoredObject(COSObject cosObject) {
+        ObjectMetadata objectMetadata = cosObject.getObjectMetadata();
+        return new StoredObject(cosObject.getObjectContent(), objectMetadata.getContentLength(),
+                objectMetadata.getInstanceLength(), objectMetadata.getContentType());
+    }
+}
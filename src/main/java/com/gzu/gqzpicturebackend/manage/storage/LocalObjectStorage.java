@@ -0,0 +1,324 @@
+package com.gzu.gqzpicturebackend.manage.storage;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.*;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本地磁盘存储
+ * 对象按对象键的 md5 前 4 位分两级目录存放（root/ab/cd/对象键），避免单个目录文件过多；
+ * 写入先写临时文件再原子改名，读取使用 FileChannel，整段输出时走 transferTo 零拷贝；
+ * 衍生图（压缩图、缩略图）在本地生成，规则与 COS 一致
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "picture.storage.type", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    @Value("${picture.storage.local.root:${user.home}/gqz-picture-storage}")
+    private String root;
+
+    /**
+     * 访问地址前缀，对应 StorageController
+     */
+    @Value("${picture.storage.local.host:http://localhost:8123/api/storage}")
+    private String host;
+
+    @Resource
+    private LocalPictureProcessor localPictureProcessor;
+
+    private Path rootPath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        rootPath = Paths.get(root).toAbsolutePath().normalize();
+        Files.createDirectories(rootPath);
+        host = StrUtil.removeSuffix(host, "/");
+        log.info("使用本地存储，目录 = {}", rootPath);
+    }
+
+    @Override
+    public void putObject(String key, File file) {
+        Path target = resolve(key);
+        try (FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            writeAtomically(target, temp -> {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    // 文件到文件的零拷贝
+                    long size = source.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, out);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入本地存储失败：" + key, e);
+        }
+    }
+
+    @Override
+    public void putObject(String key, InputStream inputStream, long contentLength) {
+        Path target = resolve(key);
+        try {
+            writeAtomically(target, temp -> Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING));
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入本地存储失败：" + key, e);
+        }
+    }
+
+    @Override
+    public StoredPicture putPicture(String key, File file) {
+        return localPictureProcessor.putPicture(this, key, file);
+    }
+
+    @Override
+    public StoredPicture putPicture(String key, InputStream inputStream, long contentLength) {
+        putObject(key, inputStream, contentLength);
+        return localPictureProcessor.processPicture(this, key, resolve(key).toFile());
+    }
+
+    @Override
+    public StoredObject getObject(String key) {
+        return getObject(key, 0, Long.MAX_VALUE);
+    }
+
+    @Override
+    public StoredObject getObject(String key, long start, long end) {
+        Path path = resolve(key);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            long size = channel.size();
+            long length = rangeLength(size, start, end);
+            channel.position(start);
+            InputStream content = new BoundedInputStream(Channels.newInputStream(channel), length);
+            return new StoredObject(content, length, size, getContentType(key));
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "文件不存在");
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("读取本地存储失败：" + key, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * 文件直接写入目标通道，目标为 socket 时由内核完成拷贝（sendfile）
+     */
+    @Override
+    public long transferTo(String key, long start, long end, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long length = rangeLength(channel.size(), start, end);
+            long position = start;
+            long limit = start + length;
+            while (position < limit) {
+                long transferred = channel.transferTo(position, limit - position, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            return position - start;
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "文件不存在");
+        }
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("删除本地文件失败：" + key, e);
+        }
+    }
+
+    @Override
+    public List<String> deleteObjects(List<String> keys) {
+        List<String> failedKeys = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (Exception e) {
+                log.error("删除本地文件失败，key = {}", key, e);
+                failedKeys.add(key);
+            }
+        }
+        return failedKeys;
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return host + "/" + normalizeKey(key);
+    }
+
+    @Override
+    public String getKeyFromUrl(String url) {
+        if (StrUtil.isBlank(url)) {
+            return url;
+        }
+        String prefix = host + "/";
+        return url.startsWith(prefix) ? url.substring(prefix.length()) : url;
+    }
+
+    /**
+     * 对象大小
+     */
+    public long getObjectSize(String key) {
+        try {
+            return Files.size(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "文件不存在");
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取本地存储失败：" + key, e);
+        }
+    }
+
+    /**
+     * 对象的内容类型
+     */
+    public String getContentType(String key) {
+        if ("webp".equalsIgnoreCase(FileUtil.getSuffix(key))) {
+            return "image/webp";
+        }
+        String contentType = URLConnection.guessContentTypeFromName(key);
+        return contentType == null ? "application/octet-stream" : contentType;
+    }
+
+    /**
+     * 对象键对应的文件：root/md5 前 2 位/md5 第 3、4 位/对象键
+     */
+    Path resolve(String key) {
+        String normalizedKey = normalizeKey(key);
+        String hash = DigestUtil.md5Hex(normalizedKey);
+        Path path = rootPath.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(normalizedKey).normalize();
+        if (!path.startsWith(rootPath)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "对象键不合法");
+        }
+        return path;
+    }
+
+    /**
+     * 去掉开头的 /，不允许 .. 路径
+     */
+    static String normalizeKey(String key) {
+        if (StrUtil.isBlank(key)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "对象键为空");
+        }
+        String normalizedKey = StrUtil.removePrefix(key.replace('\\', '/'), "/");
+        for (String segment : normalizedKey.split("/")) {
+            if ("..".equals(segment)) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "对象键不合法");
+            }
+        }
+        return normalizedKey;
+    }
+
+    /**
+     * 先写入同目录下的临时文件，再原子改名，读取方不会看到写了一半的文件
+     */
+    private static void writeAtomically(Path target, PathWriter writer) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload", ".tmp");
+        try {
+            writer.write(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 请求范围 [start, end] 的实际长度，end 超过文件末尾时截断到末尾
+     */
+    static long rangeLength(long size, long start, long end) {
+        if (start < 0 || start > size || end < start - 1) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "请求范围不合法");
+        }
+        return Math.min(end, size - 1) - start + 1;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException ignored) {
+            // 忽略关闭异常
+        }
+    }
+
+    @FunctionalInterface
+    private interface PathWriter {
+
+        void write(Path path) throws IOException;
+    }
+
+    /**
+     * 只读取指定长度的输入流
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
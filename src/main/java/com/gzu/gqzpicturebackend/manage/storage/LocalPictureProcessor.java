@@ -0,0 +1,94 @@
+package com.gzu.gqzpicturebackend.manage.storage;
+
+import cn.hutool.core.io.FileUtil;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import com.gzu.gqzpicturebackend.exception.ThrowUtils;
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine;
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine.Derivative;
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine.ProcessResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.concurrent.Future;
+
+/**
+ * 本地生成衍生图并写入对象存储，代替 COS 数据万象的处理规则
+ * 衍生图在图片处理引擎中生成，同时由调用线程上传原图，两者并行
+ */
+@Slf4j
+@Component
+public class LocalPictureProcessor {
+
+    @Resource
+    private PictureProcessingEngine pictureProcessingEngine;
+
+    /**
+     * 上传本地文件及其衍生图
+     *
+     * @param objectStorage 对象存储
+     * @param key 原图对象键
+     * @param file 图片文件
+     * @return
+     */
+    public StoredPicture putPicture(ObjectStorage objectStorage, String key, File file) {
+        Future<ProcessResult> future = pictureProcessingEngine.submit(file);
+        try {
+            objectStorage.putObject(key, file);
+        } catch (RuntimeException e) {
+            // 原图上传失败，衍生图不再需要
+            future.cancel(true);
+            throw e;
+        }
+        return storeDerivatives(objectStorage, key, file.length(), pictureProcessingEngine.await(future));
+    }
+
+    /**
+     * 为已经上传的原图生成衍生图
+     *
+     * @param objectStorage 对象存储
+     * @param key 原图对象键
+     * @param file 原图在本地的文件
+     * @return
+     */
+    public StoredPicture processPicture(ObjectStorage objectStorage, String key, File file) {
+        ProcessResult result = pictureProcessingEngine.await(pictureProcessingEngine.submit(file));
+        return storeDerivatives(objectStorage, key, file.length(), result);
+    }
+
+    /**
+     * 上传衍生图，图片无法处理时只保留原图
+     */
+    private StoredPicture storeDerivatives(ObjectStorage objectStorage, String key, long fileSize, ProcessResult result) {
+        StoredPicture storedPicture = new StoredPicture();
+        if (result == null) {
+            storedPicture.setUrl(objectStorage.getUrl(key));
+            storedPicture.setPicSize(fileSize);
+            storedPicture.setPicFormat(FileUtil.getSuffix(key));
+            return storedPicture;
+        }
+        for (Derivative derivative : result.getDerivatives()) {
+            String derivativeKey = derivative.keyFor(key);
+            // 衍生图不能覆盖原图
+            ThrowUtils.throwIf(derivativeKey.equals(key), ErrorCode.SYSTEM_ERROR, "衍生图与原图对象键相同");
+            byte[] bytes = derivative.getBytes();
+            objectStorage.putObject(derivativeKey, new ByteArrayInputStream(bytes), bytes.length);
+        }
+        Derivative compressed = result.getCompressed();
+        Derivative thumbnail = result.getThumbnail() != null ? result.getThumbnail() : compressed;
+        storedPicture.setUrl(objectStorage.getUrl(compressed.keyFor(key)));
+        storedPicture.setThumbnailUrl(objectStorage.getUrl(thumbnail.keyFor(key)));
+        storedPicture.setPicSize(compressed.getBytes().length);
+        storedPicture.setPicWidth(result.getWidth());
+        storedPicture.setPicHeight(result.getHeight());
+        storedPicture.setPicFormat(compressed.getFormat());
+        for (Derivative derivative : result.getDerivatives()) {
+            if (derivative != compressed && derivative != result.getThumbnail()) {
+                storedPicture.getExtraKeys().add(derivative.keyFor(key));
+            }
+        }
+        return storedPicture;
+    }
+}
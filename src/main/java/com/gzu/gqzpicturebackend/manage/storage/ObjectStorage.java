@@ -0,0 +1,127 @@
+package com.gzu.gqzpicturebackend.manage.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 对象存储
+ * 业务代码只依赖该接口，由 picture.storage.type 选择实现：cos（默认）或 local（本地磁盘，压测和私有化部署使用）
+ */
+public interface ObjectStorage {
+
+    /**
+     * 上传对象
+     *
+     * @param key 对象键
+     * @param file 本地文件
+     */
+    void putObject(String key, File file);
+
+    /**
+     * 上传对象
+     *
+     * @param key 对象键
+     * @param inputStream 输入流，由调用方关闭
+     * @param contentLength 内容长度
+     */
+    void putObject(String key, InputStream inputStream, long contentLength);
+
+    /**
+     * 上传图片并生成衍生图（压缩图、缩略图）
+     *
+     * @param key 原图对象键
+     * @param file 本地文件
+     * @return 图片信息，地址为压缩后的图片
+     */
+    StoredPicture putPicture(String key, File file);
+
+    /**
+     * 上传图片并生成衍生图（压缩图、缩略图）
+     *
+     * @param key 原图对象键
+     * @param inputStream 输入流，由调用方关闭
+     * @param contentLength 内容长度
+     * @return 图片信息，地址为压缩后的图片
+     */
+    StoredPicture putPicture(String key, InputStream inputStream, long contentLength);
+
+    /**
+     * 下载对象
+     *
+     * @param key 对象键
+     * @return 对象内容，使用后需关闭
+     */
+    StoredObject getObject(String key);
+
+    /**
+     * 下载对象的一段
+     *
+     * @param key 对象键
+     * @param start 起始位置（包含）
+     * @param end 结束位置（包含），超出对象长度时截断
+     * @return 对象内容，使用后需关闭
+     */
+    StoredObject getObject(String key, long start, long end);
+
+    /**
+     * 把对象的一段写入通道，本地存储使用零拷贝
+     *
+     * @param key 对象键
+     * @param start 起始位置（包含）
+     * @param end 结束位置（包含）
+     * @param target 目标通道
+     * @return 写入的字节数
+     */
+    default long transferTo(String key, long start, long end, WritableByteChannel target) throws IOException {
+        try (StoredObject storedObject = getObject(key, start, end);
+             ReadableByteChannel source = Channels.newChannel(storedObject.getContent())) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long total = 0;
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    total += target.write(buffer);
+                }
+                buffer.clear();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * 删除对象
+     *
+     * @param key 对象键
+     */
+    void deleteObject(String key);
+
+    /**
+     * 批量删除对象
+     *
+     * @param keys 对象键
+     * @return 删除失败的对象键
+     */
+    List<String> deleteObjects(List<String> keys);
+
+    /**
+     * 获取访问地址
+     *
+     * @param key 对象键
+     * @return
+     */
+    String getUrl(String key);
+
+    /**
+     * 根据访问地址获取对象键
+     *
+     * @param url 访问地址
+     * @return
+     */
+    String getKeyFromUrl(String url);
+}
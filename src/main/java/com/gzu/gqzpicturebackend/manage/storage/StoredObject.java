@@ -0,0 +1,41 @@
+package com.gzu.gqzpicturebackend.manage.storage;
+
+import cn.hutool.core.io.IoUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Closeable;
+import java.io.InputStream;
+
+/**
+ * 下载的对象
+ */
+@Data
+@AllArgsConstructor
+public class StoredObject implements Closeable {
+
+    /**
+     * 内容
+     */
+    private InputStream content;
+
+    /**
+     * 本次返回的内容长度
+     */
+    private long contentLength;
+
+    /**
+     * 对象总长度
+     */
+    private long totalLength;
+
+    /**
+     * 内容类型
+     */
+    private String contentType;
+
+    @Override
+    public void close() {
+        IoUtil.close(content);
+    }
+}
@@ -0,0 +1,48 @@
+package com.gzu.gqzpicturebackend.manage.storage;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 上传后的图片信息（与具体存储无关）
+ */
+@Data
+public class StoredPicture {
+
+    /**
+     * 图片地址（有压缩图时为压缩图）
+     */
+    private String url;
+
+    /**
+     * 缩略图地址
+     */
+    private String thumbnailUrl;
+
+    /**
+     * 图片大小
+     */
+    private long picSize;
+
+    /**
+     * 图片宽度
+     */
+    private int picWidth;
+
+    /**
+     * 图片高度
+     */
+    private int picHeight;
+
+    /**
+     * 图片格式
+     */
+    private String picFormat;
+
+    /**
+     * 除图片和缩略图外的其他衍生图对象键（额外尺寸），随文件记录保存，回收时一并删除
+     */
+    private List<String> extraKeys = new ArrayList<>();
+}
@@ -22,8 +22,7 @@ public class FilePictureUpload extends PictureUploadTemplate{
         ThrowUtils.throwIf(multipartFile == null, ErrorCode.PARAMS_ERROR, "文件不能为空");
         // 1. 校验文件大小
         long fileSize = multipartFile.getSize();
-        final long ONE_M = 1024 * 1024;
-        ThrowUtils.throwIf(fileSize > 2 * ONE_M, ErrorCode.PARAMS_ERROR, "文件大小不能超过 2M");
+        ThrowUtils.throwIf(fileSize > MAX_FILE_SIZE, ErrorCode.PARAMS_ERROR, "文件大小不能超过 2M");
 
         // 2. 校验文件后缀
         String fileSuffix = FileUtil.getSuffix(multipartFile.getOriginalFilename());
@@ -44,4 +43,11 @@ public class FilePictureUpload extends PictureUploadTemplate{
         multipartFile.transferTo(file);
     }
 
+    @Override
+    protected PictureStream openPictureStream(Object inputSource) throws Exception {
+        MultipartFile multipartFile = (MultipartFile) inputSource;
+        // 上传文件的大小总是已知的，直接流式上传
+        return new PictureStream(multipartFile.getInputStream(), multipartFile.getSize());
+    }
+
 }
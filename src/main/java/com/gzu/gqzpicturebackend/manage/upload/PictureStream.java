@@ -0,0 +1,38 @@
+package com.gzu.gqzpicturebackend.manage.upload;
+
+import cn.hutool.core.io.IoUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Closeable;
+import java.io.InputStream;
+
+/**
+ * 图片输入流及其长度
+ */
+@Data
+@AllArgsConstructor
+public class PictureStream implements Closeable {
+
+    /**
+     * 输入流
+     */
+    private InputStream inputStream;
+
+    /**
+     * 内容长度，未知时为 -1
+     */
+    private long contentLength;
+
+    /**
+     * 长度是否已知
+     */
+    public boolean isLengthKnown() {
+        return contentLength >= 0;
+    }
+
+    @Override
+    public void close() {
+        IoUtil.close(inputStream);
+    }
+}
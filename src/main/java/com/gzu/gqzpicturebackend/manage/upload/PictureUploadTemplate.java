@@ -3,23 +3,32 @@ package com.gzu.gqzpicturebackend.manage.upload;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.util.NumberUtil;
 import cn.hutool.core.util.RandomUtil;
-import com.gzu.gqzpicturebackend.config.CosClientConfig;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONUtil;
 import com.gzu.gqzpicturebackend.exception.BusinessException;
 import com.gzu.gqzpicturebackend.exception.ErrorCode;
-import com.gzu.gqzpicturebackend.manage.CosManager;
+import com.gzu.gqzpicturebackend.exception.ThrowUtils;
+import com.gzu.gqzpicturebackend.manage.image.ImageInfo;
+import com.gzu.gqzpicturebackend.manage.image.ImageProber;
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine;
+import com.gzu.gqzpicturebackend.manage.storage.LocalPictureProcessor;
+import com.gzu.gqzpicturebackend.manage.storage.ObjectStorage;
+import com.gzu.gqzpicturebackend.manage.storage.StoredPicture;
 import com.gzu.gqzpicturebackend.model.dto.file.UploadPictureResult;
-import com.qcloud.cos.model.PutObjectResult;
-import com.qcloud.cos.model.ciModel.job.ProcessResult;
-import com.qcloud.cos.model.ciModel.persistence.CIObject;
-import com.qcloud.cos.model.ciModel.persistence.ImageInfo;
-import com.qcloud.cos.model.ciModel.persistence.ProcessResults;
+import com.gzu.gqzpicturebackend.model.entity.PictureFile;
+import com.gzu.gqzpicturebackend.service.PictureFileService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+
 import javax.annotation.Resource;
 import java.io.File;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * 图片上传模板
@@ -28,10 +37,30 @@ import java.util.List;
 public abstract class PictureUploadTemplate {
 
     @Resource
-    private CosClientConfig cosClientConfig;
+    private ObjectStorage objectStorage;
+
+    @Resource
+    private PictureFileService pictureFileService;
 
     @Resource
-    private CosManager cosManager;
+    private LocalPictureProcessor localPictureProcessor;
+
+    /**
+     * 是否在本地生成衍生图（压缩图、缩略图），不使用 COS 数据万象的处理规则
+     */
+    @Value("${picture.image.local-processing:false}")
+    private boolean localProcessing;
+
+    /**
+     * 上传文件的大小上限（字节）
+     */
+    protected static final long MAX_FILE_SIZE = 2 * 1024 * 1024L;
+
+    /**
+     * 允许上传的图片格式（按文件内容判断）
+     */
+    private static final List<String> ALLOW_PROBED_FORMAT_LIST = Arrays.asList(
+            ImageProber.FORMAT_PNG, ImageProber.FORMAT_JPG, ImageProber.FORMAT_WEBP);
 
     /**
      * 上传图片
@@ -52,41 +81,145 @@ public abstract class PictureUploadTemplate {
         String uploadPath = String.format("%s/%s", uploadPathPrefix, uploadFilename);
 
         File file = null;
+        PictureStream pictureStream = null;
         try {
-            // 3. 创建临时文件，获取文件到服务器
-            file = File.createTempFile(uploadPath, null);
-
-            // 处理文件来源
-            processFile(inputSource, file);
-            // 4. 上传对象到对象存储
-            PutObjectResult putObjectResult = cosManager.putPictureObject(uploadPath, file);
-            // 5. 获取图片信息对象，封装返回结果
-            ImageInfo imageInfo = putObjectResult.getCiUploadResult().getOriginalInfo().getImageInfo();
-            // 获取到图片处理结果
-            ProcessResults processResults = putObjectResult.getCiUploadResult().getProcessResults();
-            List<CIObject> objectList = processResults.getObjectList();
-            if (CollUtil.isNotEmpty(objectList)) {
-                CIObject compressedCiObject = objectList.get(0);
-                // 缩略图默认等于压缩后的图片
-                CIObject thumbnailCiObject = compressedCiObject;
-                if (objectList.size()>1) {
-                    thumbnailCiObject = objectList.get(1);
+            // 3. 优先打开输入流，长度已知时读入池化缓冲区直接上传，不落临时文件
+            pictureStream = openPictureStream(inputSource);
+            if (pictureStream != null && pictureStream.isLengthKnown() && !localProcessing) {
+                // 先计算哈希，已存在的文件不再上传（本地生成衍生图时需要完整的文件，走临时文件）
+                long picSize = pictureStream.getContentLength();
+                try (UploadBuffer uploadBuffer = UploadBuffer.read(pictureStream.getInputStream(), picSize)) {
+                    // 先探测文件头，不合法时不再上传
+                    ImageInfo imageInfo = validImageInfo(ImageProber.probe(uploadBuffer.newInputStream()));
+                    String fileHash = DigestUtil.sha256Hex(uploadBuffer.newInputStream());
+                    return uploadIfAbsent(fileHash, uploadPath, originalFilename, imageInfo,
+                            () -> objectStorage.putPicture(uploadPath, uploadBuffer.newInputStream(), picSize));
                 }
-                // 封装压缩图的返回结果
-                return buildResult(originalFilename, compressedCiObject,thumbnailCiObject);
             }
-            return buildResult(imageInfo, uploadPath, originalFilename, file);
+            // 长度未知，兜底：创建临时文件，获取文件到服务器
+            file = File.createTempFile(uploadPath, null);
+            if (pictureStream != null) {
+                // 已经打开的流直接写入临时文件，避免重复下载
+                FileUtil.writeFromStream(pictureStream.getInputStream(), file);
+            } else {
+                // 处理文件来源
+                processFile(inputSource, file);
+            }
+            File tempFile = file;
+            ImageInfo imageInfo = validImageInfo(ImageProber.probe(tempFile));
+            String fileHash = DigestUtil.sha256Hex(tempFile);
+            return uploadIfAbsent(fileHash, uploadPath, originalFilename, imageInfo,
+                    () -> localProcessing
+                            ? localPictureProcessor.putPicture(objectStorage, uploadPath, tempFile)
+                            : objectStorage.putPicture(uploadPath, tempFile));
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             // 记录文件上传过程中的错误日志
             log.error("图片上传到对象存储失败= ", e);
             // 抛出业务异常，表示文件上传失败
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
         } finally {
-            // 6. 清理临时文件
+            // 6. 关闭输入流，清理临时文件
+            IoUtil.close(pictureStream);
             this.deleteTempFile(file);
         }
     }
 
+    /**
+     * 文件不存在时才上传，已存在则复用已有的存储对象
+     *
+     * @param fileHash 文件内容哈希
+     * @param uploadPath 上传路径
+     * @param originalFilename 原始文件名
+     * @param imageInfo 文件头探测结果
+     * @param uploader 实际上传操作
+     * @return
+     */
+    private UploadPictureResult uploadIfAbsent(String fileHash, String uploadPath, String originalFilename,
+                                               ImageInfo imageInfo, Supplier<StoredPicture> uploader) {
+        PictureFile pictureFile = pictureFileService.getByFileHash(fileHash);
+        if (pictureFile != null) {
+            return buildResult(pictureFile, originalFilename);
+        }
+        // 4. 上传对象到对象存储，并发上传同一份文件时由唯一索引决定保留哪一份
+        StoredPicture storedPicture = uploader.get();
+        UploadPictureResult uploadPictureResult = buildResult(storedPicture, originalFilename, imageInfo);
+        uploadPictureResult.setFileHash(fileHash);
+        return savePictureFile(uploadPictureResult, uploadPath, storedPicture);
+    }
+
+    /**
+     * 登记图片文件
+     * 唯一索引冲突说明其他节点已经上传了同一份文件，删除本次上传的对象，改用已登记的
+     *
+     * @param uploadPictureResult 本次上传结果
+     * @param uploadPath 本次上传路径
+     * @param storedPicture 本次存储的对象
+     * @return
+     */
+    private UploadPictureResult savePictureFile(UploadPictureResult uploadPictureResult, String uploadPath,
+                                                StoredPicture storedPicture) {
+        PictureFile pictureFile = new PictureFile();
+        pictureFile.setFileHash(uploadPictureResult.getFileHash());
+        pictureFile.setOriginalKey(uploadPath);
+        pictureFile.setUrl(uploadPictureResult.getUrl());
+        pictureFile.setThumbnailUrl(uploadPictureResult.getThumbnailUrl());
+        pictureFile.setPicSize(uploadPictureResult.getPicSize());
+        pictureFile.setPicWidth(uploadPictureResult.getPicWidth());
+        pictureFile.setPicHeight(uploadPictureResult.getPicHeight());
+        pictureFile.setPicScale(uploadPictureResult.getPicScale());
+        pictureFile.setPicFormat(uploadPictureResult.getPicFormat());
+        if (CollUtil.isNotEmpty(storedPicture.getExtraKeys())) {
+            pictureFile.setExtraKeys(JSONUtil.toJsonStr(storedPicture.getExtraKeys()));
+        }
+        // 图片记录入库时再增加引用计数
+        pictureFile.setRefCount(0);
+        try {
+            pictureFileService.save(pictureFile);
+            return uploadPictureResult;
+        } catch (DuplicateKeyException e) {
+            PictureFile existPictureFile = pictureFileService.getByFileHash(uploadPictureResult.getFileHash());
+            if (existPictureFile == null) {
+                throw e;
+            }
+            log.info("文件已被并发上传，复用已有对象，fileHash = {}", uploadPictureResult.getFileHash());
+            // 删除本次上传的原图和所有衍生图
+            Set<String> keys = new HashSet<>();
+            keys.add(uploadPath);
+            keys.add(objectStorage.getKeyFromUrl(uploadPictureResult.getUrl()));
+            keys.addAll(storedPicture.getExtraKeys());
+            if (StrUtil.isNotBlank(uploadPictureResult.getThumbnailUrl())) {
+                keys.add(objectStorage.getKeyFromUrl(uploadPictureResult.getThumbnailUrl()));
+            }
+            objectStorage.deleteObjects(new ArrayList<>(keys));
+            return buildResult(existPictureFile, uploadPictureResult.getPicName());
+        }
+    }
+
+    /**
+     * 校验文件头探测结果：必须是允许的图片格式，且像素数不超过上限
+     *
+     * @param imageInfo 探测结果，无法识别时为 null
+     * @return
+     */
+    private ImageInfo validImageInfo(ImageInfo imageInfo) {
+        ThrowUtils.throwIf(imageInfo == null, ErrorCode.PARAMS_ERROR, "文件不是有效的图片");
+        ThrowUtils.throwIf(!ALLOW_PROBED_FORMAT_LIST.contains(imageInfo.getFormat()), ErrorCode.PARAMS_ERROR, "文件类型错误");
+        ThrowUtils.throwIf(imageInfo.getPixels() > PictureProcessingEngine.MAX_PIXELS, ErrorCode.PARAMS_ERROR, "图片分辨率过大");
+        return imageInfo;
+    }
+
+    /**
+     * 打开输入源的输入流（流式上传）
+     * 返回 null 或长度未知时，回退到临时文件上传
+     *
+     * @param inputSource
+     * @return
+     */
+    protected PictureStream openPictureStream(Object inputSource) throws Exception {
+        return null;
+    }
 
     /**
      * 处理输入流（本地文件或url）
@@ -110,63 +243,52 @@ public abstract class PictureUploadTemplate {
     protected abstract void validPicture(Object inputSource);
 
     /**
-     * 封装返回结果
-     * @param imageInfo
-     * @param uploadPath
+     * 根据上传结果封装返回结果
+     * 宽高以本地探测结果为准（压缩不改变宽高），格式优先使用存储后的实际格式
+     * @param storedPicture
      * @param originalFilename
-     * @param file
+     * @param imageInfo
      * @return
      */
-    private UploadPictureResult buildResult(ImageInfo imageInfo, String uploadPath, String originalFilename, File file) {
-        // 计算宽高比
+    private UploadPictureResult buildResult(StoredPicture storedPicture, String originalFilename, ImageInfo imageInfo) {
+        // 5. 计算宽高比，封装返回结果
         int picWidth = imageInfo.getWidth();
         int picHeight = imageInfo.getHeight();
         double picScale = NumberUtil.round(picHeight * 1.0 / picWidth, 2).doubleValue();
+        String picFormat = StrUtil.blankToDefault(storedPicture.getPicFormat(), imageInfo.getFormat());
 
-        // 封装返回结果
         UploadPictureResult uploadPictureResult = new UploadPictureResult();
-        uploadPictureResult.setUrl(cosClientConfig.getHost() + "/" + uploadPath);
+        uploadPictureResult.setUrl(storedPicture.getUrl());
+        uploadPictureResult.setThumbnailUrl(storedPicture.getThumbnailUrl());
         uploadPictureResult.setPicName(FileUtil.mainName(originalFilename));
-        uploadPictureResult.setPicSize(FileUtil.size(file));
+        uploadPictureResult.setPicSize(storedPicture.getPicSize());
         uploadPictureResult.setPicWidth(picWidth);
         uploadPictureResult.setPicHeight(picHeight);
         uploadPictureResult.setPicScale(picScale);
-        uploadPictureResult.setPicFormat(imageInfo.getFormat());
-
-        // 返回可访问的地址
+        uploadPictureResult.setPicFormat(picFormat);
         return uploadPictureResult;
     }
 
     /**
-     * 封装返回结果
-     * @param originalFilename 原始文件名
-     * @param compressedCiObject 压缩后的图片对象
+     * 根据已有的图片文件封装返回结果
+     * @param pictureFile
+     * @param originalFilename
      * @return
      */
-    private UploadPictureResult buildResult(String originalFilename, CIObject compressedCiObject ,CIObject thumbnailCiObject) {
-        // 计算宽高比
-        int picWidth = compressedCiObject.getWidth();
-        int picHeight = compressedCiObject.getHeight();
-        double picScale = NumberUtil.round(picHeight * 1.0 / picWidth, 2).doubleValue();
-
-        // 封装返回结果
+    private UploadPictureResult buildResult(PictureFile pictureFile, String originalFilename) {
         UploadPictureResult uploadPictureResult = new UploadPictureResult();
-        // 设置压缩后的原图地址
-        uploadPictureResult.setUrl(cosClientConfig.getHost() + "/" + compressedCiObject.getKey());
+        uploadPictureResult.setUrl(pictureFile.getUrl());
+        uploadPictureResult.setThumbnailUrl(pictureFile.getThumbnailUrl());
         uploadPictureResult.setPicName(FileUtil.mainName(originalFilename));
-        uploadPictureResult.setPicSize(compressedCiObject.getSize().longValue());
-        uploadPictureResult.setPicWidth(picWidth);
-        uploadPictureResult.setPicHeight(picHeight);
-        uploadPictureResult.setPicScale(picScale);
-        uploadPictureResult.setPicFormat(compressedCiObject.getFormat());
-        // 设置缩略图地址
-        uploadPictureResult.setThumbnailUrl(cosClientConfig.getHost() + "/" + thumbnailCiObject.getKey());
-
-        // 返回可访问的地址
+        uploadPictureResult.setPicSize(pictureFile.getPicSize());
+        uploadPictureResult.setPicWidth(pictureFile.getPicWidth());
+        uploadPictureResult.setPicHeight(pictureFile.getPicHeight());
+        uploadPictureResult.setPicScale(pictureFile.getPicScale());
+        uploadPictureResult.setPicFormat(pictureFile.getPicFormat());
+        uploadPictureResult.setFileHash(pictureFile.getFileHash());
         return uploadPictureResult;
     }
 
-
     /**
      * 清理临时文件
      *
@@ -0,0 +1,66 @@
+package com.gzu.gqzpicturebackend.manage.upload;
+
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 限制读取总量的输入流
+ * 最多比上限多读 1 个字节，超过上限时抛出异常，不会把截断的内容当作完整文件上传
+ */
+class SizeLimitInputStream extends FilterInputStream {
+
+    private final long limit;
+
+    private long total;
+
+    SizeLimitInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int n = in.read(b, off, (int) Math.min(len, limit - total + 1));
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(Math.min(n, limit - total + 1));
+        if (skipped > 0) {
+            count(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) {
+        total += n;
+        if (total > limit) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, String.format("文件大小不能超过%dM", limit / 1024 / 1024));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.gzu.gqzpicturebackend.manage.upload;
+
+import cn.hutool.core.util.StrUtil;
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 池化的上传缓冲区
+ * 上传文件不超过 MAX_FILE_SIZE，长度已知时整份读入复用的字节数组，探测文件头、上传都基于同一份数据
+ */
+class UploadBuffer implements Closeable {
+
+    /**
+     * 缓冲区池，最多保留 16 个（32MB），池空时临时分配，关闭时池满则丢弃
+     */
+    private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<>(16);
+
+    private byte[] buf;
+
+    private final int length;
+
+    private UploadBuffer(byte[] buf, int length) {
+        this.buf = buf;
+        this.length = length;
+    }
+
+    /**
+     * 从输入流读入指定长度的数据
+     *
+     * @param inputStream 输入流
+     * @param contentLength 内容长度，不能超过 MAX_FILE_SIZE
+     * @return
+     */
+    static UploadBuffer read(InputStream inputStream, long contentLength) throws IOException {
+        if (contentLength > PictureUploadTemplate.MAX_FILE_SIZE) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件大小不能超过2M");
+        }
+        byte[] pooled = BUFFER_POOL.poll();
+        byte[] buf = pooled != null ? pooled : new byte[(int) PictureUploadTemplate.MAX_FILE_SIZE];
+        UploadBuffer uploadBuffer = new UploadBuffer(buf, (int) contentLength);
+        try {
+            int total = 0;
+            while (total < contentLength) {
+                int n = inputStream.read(buf, total, (int) contentLength - total);
+                if (n < 0) {
+                    throw new IOException(StrUtil.format("文件数据不完整，期望 {} 字节，实际 {} 字节", contentLength, total));
+                }
+                total += n;
+            }
+            return uploadBuffer;
+        } catch (IOException | RuntimeException e) {
+            uploadBuffer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 打开一个从头读取缓冲数据的输入流，可多次调用
+     */
+    InputStream newInputStream() {
+        if (buf == null) {
+            throw new IllegalStateException("UploadBuffer closed");
+        }
+        return new ByteArrayInputStream(buf, 0, length);
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    @Override
+    public void close() {
+        byte[] b = buf;
+        if (b == null) {
+            return;
+        }
+        buf = null;
+        // 归还缓冲区，池满则丢弃
+        BUFFER_POOL.offer(b);
+    }
+}
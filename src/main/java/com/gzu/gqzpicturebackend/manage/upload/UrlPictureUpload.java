@@ -29,6 +29,34 @@ public class UrlPictureUpload extends PictureUploadTemplate{
         HttpUtil.downloadFile(fileUrl, file);
     }
 
+    @Override
+    protected PictureStream openPictureStream(Object inputSource) throws Exception {
+        String fileUrl = (String) inputSource;
+        // 异步执行，不读取响应体，由上传过程直接消费响应流
+        HttpResponse httpResponse = HttpUtil.createGet(fileUrl).executeAsync();
+        if (!httpResponse.isOk()) {
+            httpResponse.close();
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "文件下载失败");
+        }
+        long contentLength = -1;
+        String contentLengthStr = httpResponse.header("Content-Length");
+        if (StrUtil.isNotBlank(contentLengthStr)) {
+            try {
+                contentLength = Long.parseLong(contentLengthStr);
+            } catch (NumberFormatException e) {
+                // 长度非法时按未知处理，回退到临时文件
+                contentLength = -1;
+            }
+        }
+        // HEAD 和 GET 的响应可能不一致，以 GET 为准重新校验大小
+        if (contentLength > MAX_FILE_SIZE) {
+            httpResponse.close();
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件大小不能超过2M");
+        }
+        // 长度未知或与实际不符时，读取超过上限立即失败
+        return new PictureStream(new SizeLimitInputStream(httpResponse.bodyStream(), MAX_FILE_SIZE), contentLength);
+    }
+
     @Override
     protected String getOriginalFilename(Object inputSource) {
         String fileUrl = (String) inputSource;
@@ -72,8 +100,7 @@ public class UrlPictureUpload extends PictureUploadTemplate{
             if (StrUtil.isNotBlank(contentLengthStr)) {
                 try {
                     long contentLength = Long.parseLong(contentLengthStr);
-                    final long OME_M = 1024 * 1024;
-                    ThrowUtils.throwIf(contentLength > 2 * OME_M, ErrorCode.PARAMS_ERROR, "文件大小不能超过2M");
+                    ThrowUtils.throwIf(contentLength > MAX_FILE_SIZE, ErrorCode.PARAMS_ERROR, "文件大小不能超过2M");
                 } catch (NumberFormatException e) {
                     throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件大小格式错误");
                 }
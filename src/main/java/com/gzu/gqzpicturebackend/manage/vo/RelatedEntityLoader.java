@@ -0,0 +1,95 @@
+package com.gzu.gqzpicturebackend.manage.vo;
+
+import com.gzu.gqzpicturebackend.manage.cache.UserVOCache;
+import com.gzu.gqzpicturebackend.mapper.SpaceMapper;
+import com.gzu.gqzpicturebackend.model.entity.Space;
+import com.gzu.gqzpicturebackend.model.vo.UserVO;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.*;
+
+/**
+ * 关联数据批量加载
+ * 组装视图前先收集本次需要的用户（创建人、审核人）和空间 id，每类数据只查询一次，
+ * 查询次数与分页大小无关
+ */
+@Component
+public class RelatedEntityLoader {
+
+    @Resource
+    private UserVOCache userVOCache;
+
+    @Resource
+    private SpaceMapper spaceMapper;
+
+    /**
+     * 创建一次组装使用的批次
+     *
+     * @return
+     */
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * 一次组装的关联数据：先 add 收集 id，再 load 批量加载，最后按 id 取用
+     */
+    public class Batch {
+
+        private final Set<Long> userIdSet = new HashSet<>();
+
+        private final Set<Long> spaceIdSet = new HashSet<>();
+
+        private Map<Long, UserVO> userVOMap = Collections.emptyMap();
+
+        private Map<Long, Space> spaceMap = Collections.emptyMap();
+
+        private Batch() {
+        }
+
+        public Batch addUserId(Long userId) {
+            if (userId != null && userId > 0) {
+                userIdSet.add(userId);
+            }
+            return this;
+        }
+
+        public Batch addSpaceId(Long spaceId) {
+            if (spaceId != null && spaceId > 0) {
+                spaceIdSet.add(spaceId);
+            }
+            return this;
+        }
+
+        /**
+         * 批量加载收集到的关联数据，每类数据最多一次查询
+         */
+        public Batch load() {
+            if (!userIdSet.isEmpty()) {
+                userVOMap = userVOCache.getAll(userIdSet);
+            }
+            if (!spaceIdSet.isEmpty()) {
+                spaceMap = new HashMap<>(spaceIdSet.size() * 2);
+                for (Space space : spaceMapper.selectBatchIds(spaceIdSet)) {
+                    spaceMap.put(space.getId(), space);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 获取脱敏用户，不存在返回 null
+         */
+        public UserVO getUser(Long userId) {
+            return userId == null ? null : userVOMap.get(userId);
+        }
+
+        /**
+         * 获取空间，不存在返回 null
+         */
+        public Space getSpace(Long spaceId) {
+            return spaceId == null ? null : spaceMap.get(spaceId);
+        }
+    }
+}
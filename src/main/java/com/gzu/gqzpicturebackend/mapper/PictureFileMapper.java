@@ -0,0 +1,14 @@
+package com.gzu.gqzpicturebackend.mapper;
+
+import com.gzu.gqzpicturebackend.model.entity.PictureFile;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+* @author 86185
+* @description 针对表【picture_file(图片文件)】的数据库操作Mapper
+* @createDate 2025-05-10 21:12:45
+* @Entity com.gzu.gqzpicturebackend.model.entity.PictureFile
+*/
+public interface PictureFileMapper extends BaseMapper<PictureFile> {
+
+}
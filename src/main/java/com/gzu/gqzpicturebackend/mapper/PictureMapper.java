@@ -3,6 +3,10 @@ package com.gzu.gqzpicturebackend.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.gzu.gqzpicturebackend.model.entity.Picture;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+import java.util.List;
 
 /**
 * @author 86185
@@ -12,6 +16,15 @@ import com.gzu.gqzpicturebackend.model.entity.Picture;
 */
 public interface PictureMapper extends BaseMapper<Picture> {
 
+    /**
+     * 按 (updateTime, id) 顺序查询变更的图片（包含已逻辑删除的），用于同步全文索引
+     * @param since 从该更新时间开始
+     * @param lastId 更新时间等于 since 时，从该 id 之后开始
+     * @param limit 数量
+     * @return
+     */
+    List<Picture> listForSearchIndex(@Param("since") Date since, @Param("lastId") long lastId,
+                                     @Param("limit") int limit);
 }
 
 
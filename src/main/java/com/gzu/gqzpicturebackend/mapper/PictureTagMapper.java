@@ -0,0 +1,14 @@
+package com.gzu.gqzpicturebackend.mapper;
+
+import com.gzu.gqzpicturebackend.model.entity.PictureTag;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+* @author 86185
+* @description 针对表【picture_tag(图片标签)】的数据库操作Mapper
+* @createDate 2025-05-12 20:31:08
+* @Entity com.gzu.gqzpicturebackend.model.entity.PictureTag
+*/
+public interface PictureTagMapper extends BaseMapper<PictureTag> {
+
+}
@@ -0,0 +1,102 @@
+package com.gzu.gqzpicturebackend.model.convert;
+
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+
+/**
+ * 图片转换（逐字段赋值，不使用反射复制）
+ * 实体或视图新增字段时需要同步修改这里
+ */
+public final class PictureConverter {
+
+    private PictureConverter() {
+    }
+
+    /**
+     * 实体转视图（不含关联的用户、空间信息）
+     */
+    public static PictureVO toVO(Picture picture) {
+        if (picture == null) {
+            return null;
+        }
+        PictureVO pictureVO = new PictureVO();
+        pictureVO.setId(picture.getId());
+        pictureVO.setUrl(picture.getUrl());
+        pictureVO.setName(picture.getName());
+        pictureVO.setIntroduction(picture.getIntroduction());
+        pictureVO.setTags(TagsCodec.decode(picture.getTags()));
+        pictureVO.setCategory(picture.getCategory());
+        pictureVO.setPicSize(picture.getPicSize());
+        pictureVO.setPicWidth(picture.getPicWidth());
+        pictureVO.setPicHeight(picture.getPicHeight());
+        pictureVO.setPicScale(picture.getPicScale());
+        pictureVO.setPicFormat(picture.getPicFormat());
+        pictureVO.setUserId(picture.getUserId());
+        pictureVO.setReviewerId(picture.getReviewerId());
+        pictureVO.setSpaceId(picture.getSpaceId());
+        pictureVO.setCreateTime(picture.getCreateTime());
+        pictureVO.setEditTime(picture.getEditTime());
+        pictureVO.setUpdateTime(picture.getUpdateTime());
+        return pictureVO;
+    }
+
+    /**
+     * 视图转实体
+     */
+    public static Picture toEntity(PictureVO pictureVO) {
+        if (pictureVO == null) {
+            return null;
+        }
+        Picture picture = new Picture();
+        picture.setId(pictureVO.getId());
+        picture.setUrl(pictureVO.getUrl());
+        picture.setName(pictureVO.getName());
+        picture.setIntroduction(pictureVO.getIntroduction());
+        picture.setTags(TagsCodec.encode(pictureVO.getTags()));
+        picture.setCategory(pictureVO.getCategory());
+        picture.setPicSize(pictureVO.getPicSize());
+        picture.setPicWidth(pictureVO.getPicWidth());
+        picture.setPicHeight(pictureVO.getPicHeight());
+        picture.setPicScale(pictureVO.getPicScale());
+        picture.setPicFormat(pictureVO.getPicFormat());
+        picture.setUserId(pictureVO.getUserId());
+        picture.setSpaceId(pictureVO.getSpaceId());
+        picture.setCreateTime(pictureVO.getCreateTime());
+        picture.setEditTime(pictureVO.getEditTime());
+        picture.setUpdateTime(pictureVO.getUpdateTime());
+        return picture;
+    }
+
+    /**
+     * 复制实体（缓存返回副本时使用）
+     */
+    public static Picture copy(Picture picture) {
+        if (picture == null) {
+            return null;
+        }
+        Picture copy = new Picture();
+        copy.setId(picture.getId());
+        copy.setUrl(picture.getUrl());
+        copy.setThumbnailUrl(picture.getThumbnailUrl());
+        copy.setName(picture.getName());
+        copy.setIntroduction(picture.getIntroduction());
+        copy.setCategory(picture.getCategory());
+        copy.setTags(picture.getTags());
+        copy.setPicSize(picture.getPicSize());
+        copy.setPicWidth(picture.getPicWidth());
+        copy.setPicHeight(picture.getPicHeight());
+        copy.setPicScale(picture.getPicScale());
+        copy.setPicFormat(picture.getPicFormat());
+        copy.setUserId(picture.getUserId());
+        copy.setSpaceId(picture.getSpaceId());
+        copy.setCreateTime(picture.getCreateTime());
+        copy.setEditTime(picture.getEditTime());
+        copy.setUpdateTime(picture.getUpdateTime());
+        copy.setIsDelete(picture.getIsDelete());
+        copy.setReviewStatus(picture.getReviewStatus());
+        copy.setReviewMessage(picture.getReviewMessage());
+        copy.setReviewerId(picture.getReviewerId());
+        copy.setReviewTime(picture.getReviewTime());
+        return copy;
+    }
+}
@@ -0,0 +1,58 @@
+package com.gzu.gqzpicturebackend.model.convert;
+
+import com.gzu.gqzpicturebackend.model.entity.Space;
+import com.gzu.gqzpicturebackend.model.vo.SpaceVO;
+
+/**
+ * 空间转换（逐字段赋值，不使用反射复制）
+ * 实体或视图新增字段时需要同步修改这里
+ */
+public final class SpaceConverter {
+
+    private SpaceConverter() {
+    }
+
+    /**
+     * 实体转视图（不含创建用户信息）
+     */
+    public static SpaceVO toVO(Space space) {
+        if (space == null) {
+            return null;
+        }
+        SpaceVO spaceVO = new SpaceVO();
+        spaceVO.setId(space.getId());
+        spaceVO.setSpaceName(space.getSpaceName());
+        spaceVO.setSpaceLevel(space.getSpaceLevel());
+        spaceVO.setMaxSize(space.getMaxSize());
+        spaceVO.setMaxCount(space.getMaxCount());
+        spaceVO.setTotalSize(space.getTotalSize());
+        spaceVO.setTotalCount(space.getTotalCount());
+        spaceVO.setUserId(space.getUserId());
+        spaceVO.setCreateTime(space.getCreateTime());
+        spaceVO.setEditTime(space.getEditTime());
+        spaceVO.setUpdateTime(space.getUpdateTime());
+        return spaceVO;
+    }
+
+    /**
+     * 视图转实体
+     */
+    public static Space toEntity(SpaceVO spaceVO) {
+        if (spaceVO == null) {
+            return null;
+        }
+        Space space = new Space();
+        space.setId(spaceVO.getId());
+        space.setSpaceName(spaceVO.getSpaceName());
+        space.setSpaceLevel(spaceVO.getSpaceLevel());
+        space.setMaxSize(spaceVO.getMaxSize());
+        space.setMaxCount(spaceVO.getMaxCount());
+        space.setTotalSize(spaceVO.getTotalSize());
+        space.setTotalCount(spaceVO.getTotalCount());
+        space.setUserId(spaceVO.getUserId());
+        space.setCreateTime(spaceVO.getCreateTime());
+        space.setEditTime(spaceVO.getEditTime());
+        space.setUpdateTime(spaceVO.getUpdateTime());
+        return space;
+    }
+}
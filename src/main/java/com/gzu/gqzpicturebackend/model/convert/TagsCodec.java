@@ -0,0 +1,222 @@
+package com.gzu.gqzpicturebackend.model.convert;
+
+import cn.hutool.json.JSONUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 标签编解码（数据库中的 JSON 字符串数组 <-> 标签列表）
+ * 标签只有字符串数组一种形式，直接扫描字符，不经过通用 JSON 解析；
+ * 遇到不认识的格式时交给 JSONUtil 处理，结果与原来一致
+ */
+public final class TagsCodec {
+
+    private TagsCodec() {
+    }
+
+    /**
+     * 解析标签
+     *
+     * @param tags JSON 字符串数组
+     * @return 标签列表，为空时返回空列表
+     */
+    public static List<String> decode(String tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        List<String> tagList = tryDecode(tags);
+        return tagList != null ? tagList : JSONUtil.toList(tags, String.class);
+    }
+
+    /**
+     * 编码标签
+     *
+     * @param tagList 标签列表
+     * @return JSON 字符串数组，列表为 null 时返回 null
+     */
+    public static String encode(List<String> tagList) {
+        if (tagList == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(tagList.size() * 8 + 2);
+        sb.append('[');
+        for (int i = 0; i < tagList.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            String tag = tagList.get(i);
+            if (tag == null) {
+                sb.append("null");
+            } else {
+                appendQuoted(sb, tag);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * 快速解析，格式不符合时返回 null
+     */
+    private static List<String> tryDecode(String s) {
+        int length = s.length();
+        int i = skipWhitespace(s, 0);
+        if (i == length) {
+            return new ArrayList<>();
+        }
+        if (s.charAt(i) != '[') {
+            return null;
+        }
+        List<String> tagList = new ArrayList<>();
+        i = skipWhitespace(s, i + 1);
+        if (i < length && s.charAt(i) == ']') {
+            return skipWhitespace(s, i + 1) == length ? tagList : null;
+        }
+        StringBuilder sb = null;
+        while (i < length) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                int start = ++i;
+                // 没有转义字符时直接截取
+                while (i < length && (c = s.charAt(i)) != '"' && c != '\\') {
+                    i++;
+                }
+                if (i == length) {
+                    return null;
+                }
+                if (c == '"') {
+                    tagList.add(s.substring(start, i));
+                    i++;
+                } else {
+                    if (sb == null) {
+                        sb = new StringBuilder();
+                    }
+                    sb.setLength(0);
+                    sb.append(s, start, i);
+                    i = readEscaped(s, i, sb);
+                    if (i < 0) {
+                        return null;
+                    }
+                    tagList.add(sb.toString());
+                }
+            } else if (s.startsWith("null", i)) {
+                tagList.add(null);
+                i += 4;
+            } else {
+                return null;
+            }
+            i = skipWhitespace(s, i);
+            if (i == length) {
+                return null;
+            }
+            c = s.charAt(i);
+            if (c == ']') {
+                return skipWhitespace(s, i + 1) == length ? tagList : null;
+            }
+            if (c != ',') {
+                return null;
+            }
+            i = skipWhitespace(s, i + 1);
+        }
+        return null;
+    }
+
+    /**
+     * 从转义字符处继续读取字符串，返回结束引号之后的位置，格式错误返回 -1
+     */
+    private static int readEscaped(String s, int i, StringBuilder sb) {
+        int length = s.length();
+        while (i < length) {
+            char c = s.charAt(i++);
+            if (c == '"') {
+                return i;
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (i == length) {
+                return -1;
+            }
+            char e = s.charAt(i++);
+            switch (e) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(e);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 > length) {
+                        return -1;
+                    }
+                    int code = 0;
+                    for (int j = 0; j < 4; j++) {
+                        int digit = Character.digit(s.charAt(i + j), 16);
+                        if (digit < 0) {
+                            return -1;
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    sb.append((char) code);
+                    i += 4;
+                    break;
+                default:
+                    return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendQuoted(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static int skipWhitespace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gzu.gqzpicturebackend.model.convert;
+
+import com.gzu.gqzpicturebackend.model.entity.User;
+import com.gzu.gqzpicturebackend.model.vo.LoginUserVo;
+import com.gzu.gqzpicturebackend.model.vo.UserVO;
+
+/**
+ * 用户转换（逐字段赋值，不使用反射复制）
+ * 只复制脱敏后的字段，实体或视图新增字段时需要同步修改这里
+ */
+public final class UserConverter {
+
+    private UserConverter() {
+    }
+
+    /**
+     * 实体转脱敏视图
+     */
+    public static UserVO toVO(User user) {
+        if (user == null) {
+            return null;
+        }
+        UserVO userVO = new UserVO();
+        userVO.setId(user.getId());
+        userVO.setUserName(user.getUserName());
+        userVO.setUserAccount(user.getUserAccount());
+        userVO.setUserAvatar(user.getUserAvatar());
+        userVO.setUserProfile(user.getUserProfile());
+        userVO.setUserRole(user.getUserRole());
+        userVO.setCreateTime(user.getCreateTime());
+        return userVO;
+    }
+
+    /**
+     * 复制脱敏视图（缓存返回副本时使用）
+     */
+    public static UserVO copy(UserVO userVO) {
+        if (userVO == null) {
+            return null;
+        }
+        UserVO copy = new UserVO();
+        copy.setId(userVO.getId());
+        copy.setUserName(userVO.getUserName());
+        copy.setUserAccount(userVO.getUserAccount());
+        copy.setUserAvatar(userVO.getUserAvatar());
+        copy.setUserProfile(userVO.getUserProfile());
+        copy.setUserRole(userVO.getUserRole());
+        copy.setCreateTime(userVO.getCreateTime());
+        return copy;
+    }
+
+    /**
+     * 实体转登录用户视图
+     */
+    public static LoginUserVo toLoginUserVo(User user) {
+        if (user == null) {
+            return null;
+        }
+        LoginUserVo loginUserVo = new LoginUserVo();
+        loginUserVo.setId(user.getId());
+        loginUserVo.setUserAccount(user.getUserAccount());
+        loginUserVo.setUserName(user.getUserName());
+        loginUserVo.setUserAvatar(user.getUserAvatar());
+        loginUserVo.setUserProfile(user.getUserProfile());
+        loginUserVo.setUserRole(user.getUserRole());
+        loginUserVo.setEditTime(user.getEditTime());
+        loginUserVo.setCreateTime(user.getCreateTime());
+        loginUserVo.setUpdateTime(user.getUpdateTime());
+        return loginUserVo;
+    }
+
+    /**
+     * 复制实体（缓存返回副本时使用）
+     */
+    public static User copy(User user) {
+        if (user == null) {
+            return null;
+        }
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUserAccount(user.getUserAccount());
+        copy.setUserPassword(user.getUserPassword());
+        copy.setUserName(user.getUserName());
+        copy.setUserAvatar(user.getUserAvatar());
+        copy.setUserProfile(user.getUserProfile());
+        copy.setUserRole(user.getUserRole());
+        copy.setEditTime(user.getEditTime());
+        copy.setCreateTime(user.getCreateTime());
+        copy.setUpdateTime(user.getUpdateTime());
+        copy.setIsDelete(user.getIsDelete());
+        return copy;
+    }
+}
@@ -47,5 +47,10 @@ public class UploadPictureResult {
      * 图片格式  
      */  
     private String picFormat;  
+
+    /**
+     * 文件内容哈希
+     */
+    private String fileHash;
  
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.gzu.gqzpicturebackend.model.dto.picture;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 图片游标（编码后作为 nextCursor 返回给前端，对前端不透明）
+ */
+@Data
+public class PictureCursor implements Serializable {
+
+    /**
+     * 排序字段
+     */
+    private String sortField;
+
+    /**
+     * 排序顺序
+     */
+    private String sortOrder;
+
+    /**
+     * 上一页最后一条记录的排序值（时间字段为毫秒时间戳），为空表示该记录的排序值为空
+     */
+    private Long lastValue;
+
+    /**
+     * 上一页最后一条记录的 id
+     */
+    private Long lastId;
+
+    private static final long serialVersionUID = 1L;
+}
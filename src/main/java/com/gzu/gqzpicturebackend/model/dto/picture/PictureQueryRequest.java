@@ -40,6 +40,11 @@ public class PictureQueryRequest extends PageRequest implements Serializable {
      */
     private List<String> tags;
 
+    /**
+     * 标签匹配方式：false-包含全部标签（默认）；true-包含任意一个标签
+     */
+    private boolean tagMatchAny;
+
     /**
      * 文件体积
      */
@@ -106,5 +111,15 @@ public class PictureQueryRequest extends PageRequest implements Serializable {
      */
     private Date reviewTime;
 
+    /**
+     * 是否使用游标分页（不查询总数，支持按 createTime、id、picSize、editTime 排序）
+     */
+    private boolean cursorMode;
+
+    /**
+     * 游标，传上一页返回的 nextCursor，为空表示查询第一页
+     */
+    private String cursor;
+
     private static final long serialVersionUID = 1L;
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.gzu.gqzpicturebackend.model.dto.user;
+
+import com.gzu.gqzpicturebackend.model.entity.User;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 精简的登录态（会话中只保存用户 id、角色和版本号）
+ */
+@Data
+public class LoginUserSession implements Serializable {
+
+    /**
+     * 用户 id
+     */
+    private long userId;
+
+    /**
+     * 用户角色
+     */
+    private String userRole;
+
+    /**
+     * 版本号：登录时用户的更新时间（毫秒），用户被修改后与之不一致
+     */
+    private long version;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 由用户创建登录态
+     *
+     * @param user 用户
+     * @return
+     */
+    public static LoginUserSession of(User user) {
+        LoginUserSession loginUserSession = new LoginUserSession();
+        loginUserSession.setUserId(user.getId());
+        loginUserSession.setUserRole(user.getUserRole());
+        loginUserSession.setVersion(versionOf(user));
+        return loginUserSession;
+    }
+
+    /**
+     * 用户当前的版本号
+     *
+     * @param user 用户
+     * @return
+     */
+    public static long versionOf(User user) {
+        return user.getUpdateTime() == null ? 0 : user.getUpdateTime().getTime();
+    }
+}
@@ -0,0 +1,20 @@
+package com.gzu.gqzpicturebackend.model.dto.user;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 刷新令牌请求
+ */
+@Data
+public class TokenRefreshRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 刷新令牌
+     */
+    private String refreshToken;
+
+}
@@ -0,0 +1,42 @@
+package com.gzu.gqzpicturebackend.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 图片标签（picture.tags 的倒排索引）
+ * @TableName picture_tag
+ */
+@TableName(value ="picture_tag")
+@Data
+public class PictureTag implements Serializable {
+    /**
+     * id
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 标签
+     */
+    private String tag;
+
+    /**
+     * 图片 id
+     */
+    private Long pictureId;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
@@ -60,4 +60,19 @@ public class LoginUserVo {
      */
     private Date updateTime;
 
+    /**
+     * 访问令牌（启用无状态令牌时返回）
+     */
+    private String accessToken;
+
+    /**
+     * 刷新令牌（启用无状态令牌时返回）
+     */
+    private String refreshToken;
+
+    /**
+     * 访问令牌有效期（秒）
+     */
+    private Long expiresIn;
+
 }
\ No newline at end of file
@@ -1,9 +1,8 @@
 package com.gzu.gqzpicturebackend.model.vo;
 
-import cn.hutool.json.JSONUtil;
+import com.gzu.gqzpicturebackend.model.convert.PictureConverter;
 import com.gzu.gqzpicturebackend.model.entity.Picture;
 import lombok.Data;
-import org.springframework.beans.BeanUtils;
 
 import java.io.Serializable;
 import java.util.Date;
@@ -72,6 +71,11 @@ public class PictureVO implements Serializable {
      */  
     private Long userId;
 
+    /**
+     * 审核人 id
+     */
+    private Long reviewerId;
+
     /**
      * 空间 id
      */
@@ -96,34 +100,30 @@ public class PictureVO implements Serializable {
      * 创建用户信息  
      */  
     private UserVO user;  
+
+    /**
+     * 审核人信息
+     */
+    private UserVO reviewer;
+
+    /**
+     * 所属空间信息（公共图库为空）
+     */
+    private SpaceVO space;
  
     private static final long serialVersionUID = 1L;  
  
-    /**  
-     * 封装类转对象  
-     */  
+    /**
+     * 封装类转对象
+     */
     public static Picture voToObj(PictureVO pictureVO) {
-        if (pictureVO == null) {  
-            return null;  
-        }  
-        Picture picture = new Picture();  
-        BeanUtils.copyProperties(pictureVO, picture);
-        // 类型不同，需要转换  
-        picture.setTags(JSONUtil.toJsonStr(pictureVO.getTags()));
-        return picture;  
-    }  
- 
-    /**  
-     * 对象转封装类  
-     */  
-    public static PictureVO objToVo(Picture picture) {  
-        if (picture == null) {  
-            return null;  
-        }  
-        PictureVO pictureVO = new PictureVO();  
-        BeanUtils.copyProperties(picture, pictureVO);  
-        // 类型不同，需要转换  
-        pictureVO.setTags(JSONUtil.toList(picture.getTags(), String.class));  
-        return pictureVO;  
-    }  
-}
\ No newline at end of file
+        return PictureConverter.toEntity(pictureVO);
+    }
+
+    /**
+     * 对象转封装类
+     */
+    public static PictureVO objToVo(Picture picture) {
+        return PictureConverter.toVO(picture);
+    }
+}
@@ -1,8 +1,8 @@
 package com.gzu.gqzpicturebackend.model.vo;
 
+import com.gzu.gqzpicturebackend.model.convert.SpaceConverter;
 import com.gzu.gqzpicturebackend.model.entity.Space;
 import lombok.Data;
-import org.springframework.beans.BeanUtils;
 
 import java.io.Serializable;
 import java.util.Date;
@@ -81,12 +81,7 @@ public class SpaceVO implements Serializable {
      * @return
      */
     public static Space voToObj(SpaceVO spaceVO) {
-        if (spaceVO == null) {
-            return null;
-        }
-        Space space = new Space();
-        BeanUtils.copyProperties(spaceVO, space);
-        return space;
+        return SpaceConverter.toEntity(spaceVO);
     }
 
     /**
@@ -96,11 +91,6 @@ public class SpaceVO implements Serializable {
      * @return
      */
     public static SpaceVO objToVo(Space space) {
-        if (space == null) {
-            return null;
-        }
-        SpaceVO spaceVO = new SpaceVO();
-        BeanUtils.copyProperties(space, spaceVO);
-        return spaceVO;
+        return SpaceConverter.toVO(space);
     }
 }
@@ -0,0 +1,50 @@
+package com.gzu.gqzpicturebackend.service;
+
+import com.gzu.gqzpicturebackend.model.entity.PictureFile;
+import com.baomidou.mybatisplus.extension.service.IService;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+* @author 86185
+* @description 针对表【picture_file(图片文件)】的数据库操作Service
+* @createDate 2025-05-10 21:12:45
+*/
+public interface PictureFileService extends IService<PictureFile> {
+
+    /**
+     * 根据文件哈希获取图片文件
+     * @param fileHash
+     * @return 不存在时返回 null
+     */
+    PictureFile getByFileHash(String fileHash);
+
+    /**
+     * 增加引用计数（需在图片入库的事务中调用）
+     * @param url 图片 url
+     */
+    void increaseRefCount(String url);
+
+    /**
+     * 减少引用计数（需在图片删除的事务中调用），计数归零的文件由后台任务回收
+     * @param url 图片 url
+     * @return 是否找到对应的文件
+     */
+    boolean decreaseRefCount(String url);
+
+    /**
+     * 获取待回收的图片文件
+     * @param before 最后更新时间早于该时间
+     * @param limit 数量上限
+     * @return
+     */
+    List<PictureFile> listUnreferenced(Date before, int limit);
+
+    /**
+     * 引用计数仍为 0 时删除文件记录
+     * @param id
+     * @return 是否删除成功
+     */
+    boolean removeIfUnreferenced(Long id);
+}
@@ -2,6 +2,8 @@ package com.gzu.gqzpicturebackend.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.gzu.gqzpicturebackend.common.CursorPage;
+import com.gzu.gqzpicturebackend.manage.cache.CachedResponse;
 import com.gzu.gqzpicturebackend.model.dto.picture.*;
 import com.gzu.gqzpicturebackend.model.entity.Picture;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -53,6 +55,20 @@ public interface PictureService extends IService<Picture> {
      */
     QueryWrapper<Picture> getQueryWrapper(PictureQueryRequest pictureQueryRequest);
 
+    /**
+     * 分页查询图片（全文检索时在索引内分页）
+     * @param pictureQueryRequest
+     * @return
+     */
+    Page<Picture> listPictureByPage(PictureQueryRequest pictureQueryRequest);
+
+    /**
+     * 游标分页查询图片（不查询总数）
+     * @param pictureQueryRequest
+     * @return
+     */
+    CursorPage<Picture> listPictureByCursor(PictureQueryRequest pictureQueryRequest);
+
     /**
      * 校验图片
      * @param picture
@@ -91,7 +107,29 @@ public interface PictureService extends IService<Picture> {
     Page<PictureVO> listPictureVOByPageWithCache (PictureQueryRequest pictureQueryRequest, HttpServletRequest request);
 
     /**
-     * 清理图片文件
+     * 分页查询图片，返回缓存的响应体字节
+     * @param pictureQueryRequest
+     * @param request
+     * @return
+     */
+    CachedResponse listPictureVOByPageResponseWithCache(PictureQueryRequest pictureQueryRequest, HttpServletRequest request);
+
+    /**
+     * 根据 id 获取图片（读穿透缓存，不存在的 id 会被短暂缓存或由布隆过滤器拦截）
+     * @param pictureId
+     * @return 图片副本，不存在返回 null
+     */
+    Picture getPictureByIdWithCache(long pictureId);
+
+    /**
+     * 图片变更后失效缓存（在事务提交后调用）
+     * @param oldPicture 变更前的图片，新增时为 null
+     * @param newPicture 本次更新的字段（未更新的字段为 null），删除时为 null
+     */
+    void invalidatePictureCache(Picture oldPicture, Picture newPicture);
+
+    /**
+     * 清理图片文件（释放图片对文件的引用）
      * @param oldPicture
      */
     void cleanPictureFile(Picture oldPicture);
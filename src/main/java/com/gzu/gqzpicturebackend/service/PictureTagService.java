@@ -0,0 +1,37 @@
+package com.gzu.gqzpicturebackend.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import com.gzu.gqzpicturebackend.model.entity.PictureTag;
+import com.baomidou.mybatisplus.extension.service.IService;
+
+import java.util.List;
+
+/**
+* @author 86185
+* @description 针对表【picture_tag(图片标签)】的数据库操作Service
+* @createDate 2025-05-12 20:31:08
+*/
+public interface PictureTagService extends IService<PictureTag> {
+
+    /**
+     * 同步图片的标签索引（需在更新图片的事务中调用）
+     * @param pictureId 图片 id
+     * @param tags 图片的全部标签，为 null 表示标签没有修改
+     */
+    void syncTags(Long pictureId, List<String> tags);
+
+    /**
+     * 删除图片的标签索引
+     * @param pictureId
+     */
+    void removeByPictureId(Long pictureId);
+
+    /**
+     * 添加标签过滤条件
+     * @param queryWrapper 图片查询条件
+     * @param tags 标签，为空时不过滤
+     * @param matchAll true 表示同时包含所有标签，false 表示包含任意一个标签
+     */
+    void applyTagCondition(QueryWrapper<Picture> queryWrapper, List<String> tags, boolean matchAll);
+}
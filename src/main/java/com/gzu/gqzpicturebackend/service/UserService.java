@@ -84,6 +84,19 @@ public interface UserService extends IService<User> {
      */
     QueryWrapper<User> getQueryWrapper(UserQueryRequest userQueryRequest);
 
+    /**
+     * 用户修改或删除后清除登录用户和脱敏用户缓存，并吊销已签发的令牌
+     * @param userId
+     */
+    void invalidateLoginUser(long userId);
+
+    /**
+     * 刷新令牌（启用无状态令牌时可用）
+     * @param refreshToken 刷新令牌
+     * @return 用户信息和新的令牌
+     */
+    LoginUserVo refreshToken(String refreshToken);
+
     /**
      * 是否为管理员
      * @param user
@@ -0,0 +1,90 @@
+package com.gzu.gqzpicturebackend.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import com.gzu.gqzpicturebackend.exception.ThrowUtils;
+import com.gzu.gqzpicturebackend.model.entity.PictureFile;
+import com.gzu.gqzpicturebackend.service.PictureFileService;
+import com.gzu.gqzpicturebackend.mapper.PictureFileMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+* @author 86185
+* @description 针对表【picture_file(图片文件)】的数据库操作Service实现
+* @createDate 2025-05-10 21:12:45
+*/
+@Service
+public class PictureFileServiceImpl extends ServiceImpl<PictureFileMapper, PictureFile>
+    implements PictureFileService{
+
+    /**
+     * 根据文件哈希获取图片文件
+     * @param fileHash
+     * @return
+     */
+    @Override
+    public PictureFile getByFileHash(String fileHash) {
+        return this.lambdaQuery()
+                .eq(PictureFile::getFileHash, fileHash)
+                .one();
+    }
+
+    /**
+     * 增加引用计数
+     * @param url
+     */
+    @Override
+    public void increaseRefCount(String url) {
+        boolean update = this.lambdaUpdate()
+                .eq(PictureFile::getUrl, url)
+                .setSql("refCount = refCount + 1")
+                .update();
+        // 文件记录可能刚被后台任务回收
+        ThrowUtils.throwIf(!update, ErrorCode.OPERATION_ERROR, "图片文件已失效，请重新上传");
+    }
+
+    /**
+     * 减少引用计数
+     * @param url
+     * @return
+     */
+    @Override
+    public boolean decreaseRefCount(String url) {
+        return this.lambdaUpdate()
+                .eq(PictureFile::getUrl, url)
+                .gt(PictureFile::getRefCount, 0)
+                .setSql("refCount = refCount - 1")
+                .update();
+    }
+
+    /**
+     * 获取待回收的图片文件
+     * @param before
+     * @param limit
+     * @return
+     */
+    @Override
+    public List<PictureFile> listUnreferenced(Date before, int limit) {
+        return this.lambdaQuery()
+                .eq(PictureFile::getRefCount, 0)
+                .lt(PictureFile::getUpdateTime, before)
+                .last("limit " + limit)
+                .list();
+    }
+
+    /**
+     * 引用计数仍为 0 时删除文件记录
+     * @param id
+     * @return
+     */
+    @Override
+    public boolean removeIfUnreferenced(Long id) {
+        return this.lambdaUpdate()
+                .eq(PictureFile::getId, id)
+                .eq(PictureFile::getRefCount, 0)
+                .remove();
+    }
+}
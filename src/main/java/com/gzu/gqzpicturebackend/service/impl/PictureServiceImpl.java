@@ -1,8 +1,8 @@
 package com.gzu.gqzpicturebackend.service.impl;
 
+import cn.hutool.core.codec.Base64;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjUtil;
-import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
@@ -11,22 +11,45 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gzu.gqzpicturebackend.common.CursorPage;
+import com.gzu.gqzpicturebackend.common.ResultUtils;
+import com.gzu.gqzpicturebackend.config.ThreadPoolConfig;
+import com.gzu.gqzpicturebackend.constant.CacheConstant;
 import com.gzu.gqzpicturebackend.exception.BusinessException;
 import com.gzu.gqzpicturebackend.exception.ErrorCode;
 import com.gzu.gqzpicturebackend.exception.ThrowUtils;
 import com.gzu.gqzpicturebackend.manage.CosManager;
+import com.gzu.gqzpicturebackend.manage.cache.CacheInvalidationBus;
+import com.gzu.gqzpicturebackend.manage.cache.CacheResult;
+import com.gzu.gqzpicturebackend.manage.cache.CachedResponse;
+import com.gzu.gqzpicturebackend.manage.cache.PictureCacheGeneration;
+import com.gzu.gqzpicturebackend.manage.cache.PictureEntityCache;
+import com.gzu.gqzpicturebackend.manage.cache.PictureIdBloomFilter;
+import com.gzu.gqzpicturebackend.manage.cache.PictureIdPage;
+import com.gzu.gqzpicturebackend.manage.cache.PictureQueryKey;
+import com.gzu.gqzpicturebackend.manage.cache.PictureVOCache;
+import com.gzu.gqzpicturebackend.manage.cache.ResponseBodyCache;
+import com.gzu.gqzpicturebackend.manage.cache.StaleWhileRevalidateCache;
+import com.gzu.gqzpicturebackend.manage.cache.codec.BinaryOutput;
+import com.gzu.gqzpicturebackend.manage.cache.codec.BinaryUserVOCodec;
+import com.gzu.gqzpicturebackend.manage.cache.codec.CacheCodec;
+import com.gzu.gqzpicturebackend.manage.search.PictureSearchIndex;
 import com.gzu.gqzpicturebackend.manage.upload.FilePictureUpload;
 import com.gzu.gqzpicturebackend.manage.upload.PictureUploadTemplate;
 import com.gzu.gqzpicturebackend.manage.upload.UrlPictureUpload;
+import com.gzu.gqzpicturebackend.manage.vo.RelatedEntityLoader;
 import com.gzu.gqzpicturebackend.model.dto.file.UploadPictureResult;
+import com.gzu.gqzpicturebackend.model.convert.TagsCodec;
 import com.gzu.gqzpicturebackend.model.dto.picture.*;
 import com.gzu.gqzpicturebackend.model.entity.Picture;
 import com.gzu.gqzpicturebackend.model.entity.Space;
 import com.gzu.gqzpicturebackend.model.entity.User;
 import com.gzu.gqzpicturebackend.model.enums.PictureReviewStatusEnum;
 import com.gzu.gqzpicturebackend.model.vo.PictureVO;
-import com.gzu.gqzpicturebackend.model.vo.UserVO;
+import com.gzu.gqzpicturebackend.model.vo.SpaceVO;
+import com.gzu.gqzpicturebackend.service.PictureFileService;
 import com.gzu.gqzpicturebackend.service.PictureService;
+import com.gzu.gqzpicturebackend.service.PictureTagService;
 import com.gzu.gqzpicturebackend.mapper.PictureMapper;
 import com.gzu.gqzpicturebackend.service.SpaceService;
 import com.gzu.gqzpicturebackend.service.UserService;
@@ -37,22 +60,25 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
-import org.springframework.util.DigestUtils;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -75,24 +101,85 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
     @Resource
     private UrlPictureUpload urlPictureUpload;
 
-    @Resource
-    private StringRedisTemplate stringRedisTemplate;
-
     @Resource
     private SpaceService spaceService;
 
     @Resource
     private TransactionTemplate transactionTemplate;
 
+    @Resource
+    private PictureFileService pictureFileService;
+
+    @Resource
+    private PictureTagService pictureTagService;
+
+    @Resource
+    private PictureSearchIndex pictureSearchIndex;
+
+    @Resource
+    private PictureCacheGeneration pictureCacheGeneration;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Resource
+    private StaleWhileRevalidateCache staleWhileRevalidateCache;
+
+    @Resource
+    private CacheCodec<PictureIdPage> pictureIdPageCodec;
+
+    @Resource
+    private PictureVOCache pictureVOCache;
+
+    @Resource
+    private RelatedEntityLoader relatedEntityLoader;
+
+    @Resource
+    private PictureEntityCache pictureEntityCache;
+
+    @Resource
+    private PictureIdBloomFilter pictureIdBloomFilter;
+
+    @Resource
+    private ResponseBodyCache responseBodyCache;
+
+    @Resource(name = ThreadPoolConfig.CRAWL_EXECUTOR)
+    private ExecutorService crawlExecutor;
+
+    /**
+     * 游标分页支持的排序字段
+     */
+    private static final Set<String> CURSOR_SORT_FIELDS = CollUtil.newHashSet("createTime", "id", "picSize", "editTime");
+
+    /**
+     * 游标分页支持的排序字段中可能为空的字段
+     */
+    private static final Set<String> NULLABLE_CURSOR_SORT_FIELDS = CollUtil.newHashSet("picSize", "editTime");
+
+    /**
+     * 交给数据库过滤的全文检索命中数上限，超过时退回 LIKE 查询
+     */
+    private static final int MAX_SEARCH_FILTER_IDS = 1000;
+
     /**
      * 本地缓存，防止缓存击穿
      */
-    private final Cache<String, String> LOCAL_CACHE = Caffeine.newBuilder()
+    private final Cache<String, byte[]> LOCAL_CACHE = Caffeine.newBuilder()
             .initialCapacity(1024)
             .maximumSize(10_000L) // 最大10000条
-            // 缓存5分钟过期
-            .expireAfterWrite(Duration.ofMinutes(5))
+            // 存储带软/硬过期时间的缓存条目，key 带版本号，并接入失效总线，缓存30分钟过期
+            .expireAfterWrite(Duration.ofMinutes(30))
             .build();
+
+    /**
+     * 图片列表本地缓存区域
+     */
+    public static final String LIST_CACHE_REGION = "listPictureVOByPage";
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(LIST_CACHE_REGION, LOCAL_CACHE);
+    }
     @Autowired
     private CosManager cosManager;
 
@@ -161,8 +248,9 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         }
 
         // 如果是更新的话，判断图片是否存在
+        Picture oldPicture = null;
         if (pictureId != null) {
-            Picture oldPicture = this.getById(pictureId);
+            oldPicture = this.getPictureByIdWithCache(pictureId);
             ThrowUtils.throwIf(oldPicture == null, ErrorCode.NOT_FOUND_ERROR, "图片不存在");
             // 仅本人或管理员可更新
             if (!oldPicture.getUserId().equals(loginUser.getId()) && !userService.isAdmin(loginUser)) {
@@ -225,11 +313,17 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         }
         // 开启事务
         Long finalSpaceId = spaceId;
+        Picture finalOldPicture = oldPicture;
         transactionTemplate.execute((status) -> {
             // 插入数据
             boolean result = this.saveOrUpdate(picture);
             // 如果操作数据库失败，抛出异常
             ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR, "图片上传失败");
+            // 增加新文件的引用计数，更新时释放旧文件
+            pictureFileService.increaseRefCount(picture.getUrl());
+            if (finalOldPicture != null) {
+                this.cleanPictureFile(finalOldPicture);
+            }
             // 更新空间的使用额度
             boolean update = spaceService.lambdaUpdate()
                     .eq(Space::getId, finalSpaceId)
@@ -239,6 +333,8 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
             ThrowUtils.throwIf(!update, ErrorCode.OPERATION_ERROR, "额度更新失败");
             return picture;
         });
+        pictureSearchIndex.refresh(picture.getId());
+        this.invalidatePictureCache(finalOldPicture, picture);
         return PictureVO.objToVo(picture);
     }
 
@@ -249,16 +345,33 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
      * @return
      */
     public PictureVO getPictureVO(Picture picture, HttpServletRequest request) {
-        // 对象封装类
-        PictureVO pictureVO = PictureVO.objToVo(picture);
-        // 关联查询用户信息
-        Long userId = picture.getUserId();
-        if (userId != null && userId > 0) {
-            User user = userService.getById(userId);
-            UserVO userVO = userService.getUserVO(user);
-            pictureVO.setUser(userVO);
+        return this.getPictureVOList(Collections.singletonList(picture)).get(0);
+    }
+
+    /**
+     * 批量转换为VO对象，关联的用户（创建人、审核人）和空间每类只查询一次
+     *
+     * @param pictureList 图片列表
+     * @return
+     */
+    private List<PictureVO> getPictureVOList(List<Picture> pictureList) {
+        // 收集本次需要的关联数据
+        RelatedEntityLoader.Batch batch = relatedEntityLoader.newBatch();
+        for (Picture picture : pictureList) {
+            batch.addUserId(picture.getUserId())
+                    .addUserId(picture.getReviewerId())
+                    .addSpaceId(picture.getSpaceId());
+        }
+        batch.load();
+        List<PictureVO> pictureVOList = new ArrayList<>(pictureList.size());
+        for (Picture picture : pictureList) {
+            PictureVO pictureVO = PictureVO.objToVo(picture);
+            pictureVO.setUser(batch.getUser(picture.getUserId()));
+            pictureVO.setReviewer(batch.getUser(picture.getReviewerId()));
+            pictureVO.setSpace(SpaceVO.objToVo(batch.getSpace(picture.getSpaceId())));
+            pictureVOList.add(pictureVO);
         }
-        return pictureVO;
+        return pictureVOList;
     }
 
     /**
@@ -273,7 +386,15 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         // 获取图片列表
         List<Picture> pictureList = picturePage.getRecords();
         // 创建一个新的图片VO分页对象，初始化当前页码、页面大小和总记录数
-        Page<PictureVO> pictureVOPage = new Page<>(picturePage.getCurrent(), picturePage.getSize(), picturePage.getTotal());
+        Page<PictureVO> pictureVOPage;
+        if (picturePage instanceof CursorPage) {
+            // 游标分页，带上下一页游标
+            CursorPage<PictureVO> cursorPage = new CursorPage<>(picturePage.getSize());
+            cursorPage.setNextCursor(((CursorPage<Picture>) picturePage).getNextCursor());
+            pictureVOPage = cursorPage;
+        } else {
+            pictureVOPage = new Page<>(picturePage.getCurrent(), picturePage.getSize(), picturePage.getTotal());
+        }
 
         // 检查图片列表是否为空
         if (CollUtil.isEmpty(pictureList)) {
@@ -281,28 +402,8 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
             return pictureVOPage;
         }
 
-        // 将图片实体列表转换为图片VO列表
-        List<PictureVO> pictureVOList = pictureList.stream().map(PictureVO::objToVo).collect(Collectors.toList());
-
-        // 提取所有图片的用户ID，并去除重复值
-        Set<Long> userIdSet = pictureVOList.stream().map(PictureVO::getUserId).collect(Collectors.toSet());
-
-        // 根据用户ID列表查询所有相关用户，并按用户ID分组
-        Map<Long, List<User>> userIdUserListMap = userService.listByIds(userIdSet).stream()
-                .collect(Collectors.groupingBy(User::getId));
-
-        // 为每个图片VO设置关联的用户信息
-        pictureVOList.forEach(pictureVO -> {
-            Long userId = pictureVO.getUserId();
-            User user = null;
-            if (userIdUserListMap.containsKey(userId)) {
-                user = userIdUserListMap.get(userId).get(0);
-            }
-            pictureVO.setUser(userService.getUserVO(user));
-        });
-
-        // 将转换后的图片VO列表设置到图片VO分页对象中
-        pictureVOPage.setRecords(pictureVOList);
+        // 将图片实体列表转换为图片VO列表，并填充关联的用户和空间信息
+        pictureVOPage.setRecords(this.getPictureVOList(pictureList));
 
         // 返回填充完毕的图片VO分页对象
         return pictureVOPage;
@@ -319,6 +420,16 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
      */
     @Override
     public QueryWrapper<Picture> getQueryWrapper(PictureQueryRequest pictureQueryRequest) {
+        return this.getQueryWrapper(pictureQueryRequest, this.searchPictureIds(pictureQueryRequest));
+    }
+
+    /**
+     * 构建查询条件
+     * @param pictureQueryRequest
+     * @param searchPictureIdList 全文检索命中的图片 id，null 表示索引不可用
+     * @return
+     */
+    private QueryWrapper<Picture> getQueryWrapper(PictureQueryRequest pictureQueryRequest, List<Long> searchPictureIdList) {
         // 初始化QueryWrapper对象
         QueryWrapper<Picture> queryWrapper = new QueryWrapper<>();
         // 如果查询请求为空，则直接返回空的QueryWrapper对象
@@ -348,20 +459,28 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         Long reviewerId = pictureQueryRequest.getReviewerId();
 
 
-        // 从多字段搜索
-        if (StrUtil.isNotBlank(searchText)) {
-            // 需要拼接查询条件
-            queryWrapper.and(qw -> qw.like("name", searchText)
-                    .or()
-                    .like("introduction", searchText));
+        // 全文检索：搜索词、名称、简介通过全文索引得到命中的图片 id，命中过多时和索引加载完成前一样退回 LIKE 查询
+        if (searchPictureIdList != null && searchPictureIdList.size() <= MAX_SEARCH_FILTER_IDS) {
+            if (searchPictureIdList.isEmpty()) {
+                queryWrapper.apply("1 = 0");
+            } else {
+                queryWrapper.in("id", searchPictureIdList);
+            }
+        } else {
+            if (StrUtil.isNotBlank(searchText)) {
+                // 需要拼接查询条件
+                queryWrapper.and(qw -> qw.like("name", searchText)
+                        .or()
+                        .like("introduction", searchText));
+            }
+            queryWrapper.like(StrUtil.isNotBlank(name), "name", name);
+            queryWrapper.like(StrUtil.isNotBlank(introduction), "introduction", introduction);
         }
         // 构建查询条件
         queryWrapper.eq(ObjUtil.isNotEmpty(id), "id", id);
         queryWrapper.eq(ObjUtil.isNotEmpty(userId), "userId", userId);
         queryWrapper.eq(ObjUtil.isNotEmpty(spaceId), "spaceId", spaceId);
         queryWrapper.isNull(nullSpaceId, "spaceId");
-        queryWrapper.like(StrUtil.isNotBlank(name), "name", name);
-        queryWrapper.like(StrUtil.isNotBlank(introduction), "introduction", introduction);
         queryWrapper.like(StrUtil.isNotBlank(picFormat), "picFormat", picFormat);
         queryWrapper.like(StrUtil.isNotBlank(category), "category", category);
         queryWrapper.eq(ObjUtil.isNotEmpty(picWidth), "picWidth", picWidth);
@@ -371,20 +490,242 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         queryWrapper.eq(ObjUtil.isNotEmpty(reviewStatus), "reviewStatus", reviewStatus);
         queryWrapper.eq(ObjUtil.isNotEmpty(reviewerId), "reviewerId", reviewerId);
         queryWrapper.like(StrUtil.isNotBlank(reviewMessage), "reviewMessage", reviewMessage);
-        // JSON 数组查询
+        // 标签查询走 picture_tag 倒排索引，在数据库中用子查询过滤
         if (CollUtil.isNotEmpty(tags)) {
-            for (String tag : tags) {
-                queryWrapper.like("tags", "\"" + tag + "\"");
-            }
+            pictureTagService.applyTagCondition(queryWrapper, tags, !pictureQueryRequest.isTagMatchAny());
         }
         // 排序
-        queryWrapper.orderBy(StrUtil.isNotBlank(sortField),
-                sortOrder.equals("ascend"),
-                sortField);
+        if (pictureQueryRequest.isCursorMode()) {
+            // 游标分页：用上一页最后一条记录做范围条件，代替 OFFSET
+            this.applyCursorCondition(queryWrapper, pictureQueryRequest);
+        } else {
+            queryWrapper.orderBy(StrUtil.isNotBlank(sortField),
+                    sortOrder.equals("ascend"),
+                    sortField);
+        }
         // 返回构建好的QueryWrapper对象
         return queryWrapper;
     }
 
+    /**
+     * 全文检索图片，空间、上传者和审核状态在索引内过滤
+     * @param pictureQueryRequest
+     * @return 按相关度排序的全部命中 id，没有检索词或索引不可用时返回 null
+     */
+    private List<Long> searchPictureIds(PictureQueryRequest pictureQueryRequest) {
+        if (pictureQueryRequest == null || !pictureSearchIndex.isReady()) {
+            return null;
+        }
+        PictureSearchIndex.SearchScope scope = new PictureSearchIndex.SearchScope();
+        scope.setSpaceId(pictureQueryRequest.getSpaceId());
+        scope.setNullSpaceId(pictureQueryRequest.isNullSpaceId());
+        scope.setUserId(pictureQueryRequest.getUserId());
+        scope.setReviewStatus(pictureQueryRequest.getReviewStatus());
+        List<Long> searchPictureIdList = this.retainSearch(null, pictureQueryRequest.getSearchText(),
+                PictureSearchIndex.FIELD_ALL, scope);
+        searchPictureIdList = this.retainSearch(searchPictureIdList, pictureQueryRequest.getName(),
+                PictureSearchIndex.FIELD_NAME, scope);
+        return this.retainSearch(searchPictureIdList, pictureQueryRequest.getIntroduction(),
+                PictureSearchIndex.FIELD_INTRODUCTION, scope);
+    }
+
+    /**
+     * 用全文检索结果过滤候选图片 id
+     * @param pictureIdList 当前候选图片 id，null 表示不限制
+     * @param text 查询词
+     * @param fieldMask 检索的字段
+     * @param scope 检索范围
+     * @return 过滤后的图片 id，保持 pictureIdList 的顺序
+     */
+    private List<Long> retainSearch(List<Long> pictureIdList, String text, int fieldMask,
+                                    PictureSearchIndex.SearchScope scope) {
+        if (StrUtil.isBlank(text)) {
+            return pictureIdList;
+        }
+        List<Long> hitIdList = pictureSearchIndex.search(text, fieldMask, scope);
+        if (hitIdList == null) {
+            return pictureIdList;
+        }
+        if (pictureIdList == null) {
+            return hitIdList;
+        }
+        Set<Long> hitIdSet = new HashSet<>(hitIdList);
+        return pictureIdList.stream().filter(hitIdSet::contains).collect(Collectors.toList());
+    }
+
+    /**
+     * 是否有全文索引无法判断、只能由数据库过滤的条件
+     */
+    private static boolean hasDatabaseOnlyCondition(PictureQueryRequest pictureQueryRequest) {
+        return ObjUtil.isNotEmpty(pictureQueryRequest.getId())
+                || StrUtil.isNotBlank(pictureQueryRequest.getCategory())
+                || CollUtil.isNotEmpty(pictureQueryRequest.getTags())
+                || ObjUtil.isNotEmpty(pictureQueryRequest.getPicSize())
+                || ObjUtil.isNotEmpty(pictureQueryRequest.getPicWidth())
+                || ObjUtil.isNotEmpty(pictureQueryRequest.getPicHeight())
+                || ObjUtil.isNotEmpty(pictureQueryRequest.getPicScale())
+                || StrUtil.isNotBlank(pictureQueryRequest.getPicFormat())
+                || StrUtil.isNotBlank(pictureQueryRequest.getReviewMessage())
+                || ObjUtil.isNotEmpty(pictureQueryRequest.getReviewerId());
+    }
+
+    /**
+     * 分页查询图片
+     * 全文检索且没有指定排序时按相关度排序：在索引的命中结果内分页，只查询当前页的图片
+     * @param pictureQueryRequest
+     * @return
+     */
+    @Override
+    public Page<Picture> listPictureByPage(PictureQueryRequest pictureQueryRequest) {
+        long current = pictureQueryRequest.getCurrent();
+        long size = pictureQueryRequest.getPageSize();
+        List<Long> searchPictureIdList = this.searchPictureIds(pictureQueryRequest);
+        boolean databaseOnly = hasDatabaseOnlyCondition(pictureQueryRequest);
+        if (searchPictureIdList == null || StrUtil.isNotBlank(pictureQueryRequest.getSortField())
+                || (databaseOnly && searchPictureIdList.size() > MAX_SEARCH_FILTER_IDS)) {
+            return this.page(new Page<>(current, size), this.getQueryWrapper(pictureQueryRequest, searchPictureIdList));
+        }
+        List<Long> rankedIdList = searchPictureIdList;
+        if (databaseOnly && !rankedIdList.isEmpty()) {
+            // 索引之外的条件由数据库过滤，只查询 id，再按相关度顺序保留
+            QueryWrapper<Picture> idQueryWrapper = this.getQueryWrapper(pictureQueryRequest, searchPictureIdList).select("id");
+            Set<Long> matchedIdSet = new HashSet<>(this.listObjs(idQueryWrapper, id -> ((Number) id).longValue()));
+            rankedIdList = rankedIdList.stream().filter(matchedIdSet::contains).collect(Collectors.toList());
+        }
+        Page<Picture> picturePage = new Page<>(current, size, rankedIdList.size());
+        long from = Math.max(current - 1, 0) * size;
+        if (from >= rankedIdList.size()) {
+            return picturePage;
+        }
+        List<Long> pageIdList = rankedIdList.subList((int) from, (int) Math.min(from + size, rankedIdList.size()));
+        // 查询当前页时带上全部条件，索引还没同步到的变更（如审核不通过）以数据库为准
+        Map<Long, Picture> pictureMap = this.list(this.getQueryWrapper(pictureQueryRequest, pageIdList)).stream()
+                .collect(Collectors.toMap(Picture::getId, picture -> picture));
+        List<Picture> pictureList = new ArrayList<>(pageIdList.size());
+        for (Long pictureId : pageIdList) {
+            Picture picture = pictureMap.get(pictureId);
+            if (picture != null) {
+                pictureList.add(picture);
+            }
+        }
+        picturePage.setRecords(pictureList);
+        return picturePage;
+    }
+
+    /**
+     * 游标分页查询图片
+     * 多查一条判断是否还有下一页，不执行 count 查询
+     * @param pictureQueryRequest
+     * @return
+     */
+    @Override
+    public CursorPage<Picture> listPictureByCursor(PictureQueryRequest pictureQueryRequest) {
+        long size = pictureQueryRequest.getPageSize();
+        Page<Picture> picturePage = this.page(new Page<>(1, size + 1, false),
+                this.getQueryWrapper(pictureQueryRequest));
+        List<Picture> pictureList = picturePage.getRecords();
+        CursorPage<Picture> cursorPage = new CursorPage<>(size);
+        if (pictureList.size() > size) {
+            pictureList = new ArrayList<>(pictureList.subList(0, (int) size));
+            Picture lastPicture = pictureList.get(pictureList.size() - 1);
+            cursorPage.setNextCursor(encodeCursor(pictureQueryRequest, lastPicture));
+        }
+        cursorPage.setRecords(pictureList);
+        return cursorPage;
+    }
+
+    /**
+     * 拼接游标分页的范围条件和排序（排序值相同时按 id 排序，保证顺序稳定）
+     * 排序值为空的记录与 MySQL 的默认顺序一致，视为最小值：升序时排在最前，降序时排在最后，
+     * 这样仍然可以使用 (排序字段, id) 索引
+     * @param queryWrapper
+     * @param pictureQueryRequest
+     */
+    private void applyCursorCondition(QueryWrapper<Picture> queryWrapper, PictureQueryRequest pictureQueryRequest) {
+        String sortField = StrUtil.blankToDefault(pictureQueryRequest.getSortField(), "createTime");
+        ThrowUtils.throwIf(!CURSOR_SORT_FIELDS.contains(sortField), ErrorCode.PARAMS_ERROR, "游标分页不支持该排序字段");
+        boolean isAsc = "ascend".equals(pictureQueryRequest.getSortOrder());
+        boolean sortById = "id".equals(sortField);
+        boolean nullable = NULLABLE_CURSOR_SORT_FIELDS.contains(sortField);
+        String cursorStr = pictureQueryRequest.getCursor();
+        if (StrUtil.isNotBlank(cursorStr)) {
+            PictureCursor cursor = decodeCursor(cursorStr);
+            ThrowUtils.throwIf(!sortField.equals(cursor.getSortField())
+                            || isAsc != "ascend".equals(cursor.getSortOrder())
+                            || cursor.getLastId() == null || cursor.getLastValue() == null && !nullable,
+                    ErrorCode.PARAMS_ERROR, "游标与排序条件不一致");
+            Long lastId = cursor.getLastId();
+            if (sortById) {
+                queryWrapper.gt(isAsc, "id", lastId).lt(!isAsc, "id", lastId);
+            } else if (cursor.getLastValue() == null) {
+                // 上一页停在空值记录上：升序时剩下同为空值的记录和全部非空记录，降序时只剩同为空值的记录
+                if (isAsc) {
+                    queryWrapper.and(qw -> qw.isNull(sortField).gt("id", lastId)
+                            .or(o -> o.isNotNull(sortField)));
+                } else {
+                    queryWrapper.and(qw -> qw.isNull(sortField).lt("id", lastId));
+                }
+            } else {
+                Object lastValue = "picSize".equals(sortField) ? cursor.getLastValue() : new Date(cursor.getLastValue());
+                if (isAsc) {
+                    queryWrapper.and(qw -> qw.gt(sortField, lastValue)
+                            .or(o -> o.eq(sortField, lastValue).gt("id", lastId)));
+                } else {
+                    // 降序时空值记录排在所有非空记录之后
+                    queryWrapper.and(qw -> qw.lt(sortField, lastValue)
+                            .or(o -> o.eq(sortField, lastValue).lt("id", lastId))
+                            .or(nullable, o -> o.isNull(sortField)));
+                }
+            }
+        }
+        queryWrapper.orderBy(true, isAsc, sortField);
+        queryWrapper.orderBy(!sortById, isAsc, "id");
+    }
+
+    /**
+     * 根据当前页最后一条记录生成下一页游标
+     * @param pictureQueryRequest
+     * @param lastPicture
+     * @return
+     */
+    static String encodeCursor(PictureQueryRequest pictureQueryRequest, Picture lastPicture) {
+        String sortField = StrUtil.blankToDefault(pictureQueryRequest.getSortField(), "createTime");
+        // 排序值为空时 lastValue 为空
+        Long lastValue;
+        switch (sortField) {
+            case "id":
+                lastValue = lastPicture.getId();
+                break;
+            case "picSize":
+                lastValue = lastPicture.getPicSize();
+                break;
+            case "editTime":
+                lastValue = lastPicture.getEditTime() == null ? null : lastPicture.getEditTime().getTime();
+                break;
+            default:
+                lastValue = lastPicture.getCreateTime().getTime();
+        }
+        PictureCursor cursor = new PictureCursor();
+        cursor.setSortField(sortField);
+        cursor.setSortOrder(pictureQueryRequest.getSortOrder());
+        cursor.setLastValue(lastValue);
+        cursor.setLastId(lastPicture.getId());
+        return Base64.encodeUrlSafe(JSONUtil.toJsonStr(cursor));
+    }
+
+    /**
+     * 解析游标
+     * @param cursorStr
+     * @return
+     */
+    static PictureCursor decodeCursor(String cursorStr) {
+        try {
+            return JSONUtil.toBean(Base64.decodeStr(cursorStr), PictureCursor.class);
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标无效");
+        }
+    }
+
 
     /**
      * 审核图片
@@ -403,7 +744,7 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         // 2. 判断图片是否存在
-        Picture oldPicture = this.getById(id);
+        Picture oldPicture = this.getPictureByIdWithCache(id);
         ThrowUtils.throwIf(oldPicture == null, ErrorCode.NOT_FOUND_ERROR);
         // 3. 校验审核状态是否重复
         if (oldPicture.getReviewStatus().equals(reviewStatus)) {
@@ -416,6 +757,9 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         updatePicture.setReviewerId(loginUser.getId());
         boolean result = this.updateById(updatePicture);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        // 审核状态是全文索引的检索范围之一
+        pictureSearchIndex.refresh(id);
+        this.invalidatePictureCache(oldPicture, updatePicture);
     }
 
     /**
@@ -474,8 +818,8 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
             throw new BusinessException(ErrorCode.OPERATION_ERROR, "获取元素失败");
         }
         Elements imgElementList = div.select("a.iusc");
-        // 遍历元素，依次处理上传图片
-        int uploadCount = 0;
+        // 解析图片地址
+        List<String> fileUrlList = new ArrayList<>();
         for (Element imgElement : imgElementList) {
             String metadata  = imgElement.attr("m");
             JSONObject jsonObject = JSONUtil.parseObj(metadata );
@@ -489,22 +833,34 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
             if (questionMarkIndex > -1) {
                 fileUrl = fileUrl.substring(0, questionMarkIndex);
             }
-
-            // 上传图片
-            PictureUploadRequest pictureUploadRequest = new PictureUploadRequest();
-            pictureUploadRequest.setFileUrl(fileUrl);
-            pictureUploadRequest.setPicName(namePrefix + (uploadCount + 1));
-
-            try {
-                PictureVO pictureVO = this.uploadPicture(fileUrl, pictureUploadRequest, loginUser);
-                log.info("上传图片成功,id：{}", pictureVO.getId());
-                uploadCount++;
-            } catch (Exception e) {
-                log.error("上传图片失败：{}", fileUrl);
-                continue;
+            fileUrlList.add(fileUrl);
+        }
+        // 在抓取线程池中并行上传，每一轮只提交还差的数量，失败的由下一轮补齐
+        int uploadCount = 0;
+        int nameIndex = 0;
+        int urlIndex = 0;
+        while (uploadCount < count && urlIndex < fileUrlList.size()) {
+            List<Future<PictureVO>> futureList = new ArrayList<>();
+            int need = count - uploadCount;
+            for (int i = 0; i < need && urlIndex < fileUrlList.size(); i++) {
+                String fileUrl = fileUrlList.get(urlIndex++);
+                // 上传图片
+                PictureUploadRequest pictureUploadRequest = new PictureUploadRequest();
+                pictureUploadRequest.setFileUrl(fileUrl);
+                pictureUploadRequest.setPicName(namePrefix + (++nameIndex));
+                futureList.add(crawlExecutor.submit(() -> this.uploadPicture(fileUrl, pictureUploadRequest, loginUser)));
             }
-            if (uploadCount >= count) {
-                break;
+            for (Future<PictureVO> future : futureList) {
+                try {
+                    PictureVO pictureVO = future.get();
+                    log.info("上传图片成功,id：{}", pictureVO.getId());
+                    uploadCount++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BusinessException(ErrorCode.OPERATION_ERROR, "批量上传被中断");
+                } catch (ExecutionException e) {
+                    log.error("上传图片失败", e.getCause());
+                }
             }
         }
 
@@ -519,65 +875,194 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
      */
     @Override
     public Page<PictureVO> listPictureVOByPageWithCache(PictureQueryRequest pictureQueryRequest, HttpServletRequest request) {
-        long current = pictureQueryRequest.getCurrent();
-        long size = pictureQueryRequest.getPageSize();
+        PictureIdPage idPage = pictureIdPageCodec.decode(this.getPictureIdPageCache(pictureQueryRequest, request));
+        // 获取封装类
+        return this.toPictureVOPage(idPage, this.getPictureVOBytesList(idPage.getIds()));
+    }
+
+    /**
+     * 分页查询（缓存序列化好的响应体）
+     * @param pictureQueryRequest
+     * @param request
+     * @return
+     */
+    @Override
+    public CachedResponse listPictureVOByPageResponseWithCache(PictureQueryRequest pictureQueryRequest, HttpServletRequest request) {
+        byte[] idPageBytes = this.getPictureIdPageCache(pictureQueryRequest, request);
+        PictureIdPage idPage = pictureIdPageCodec.decode(idPageBytes);
+        List<byte[]> pictureVOBytesList = this.getPictureVOBytesList(idPage.getIds());
+        Page<PictureVO> pictureVOPage = this.toPictureVOPage(idPage, pictureVOBytesList);
+        // 响应由 id 列表、各图片的缓存值和关联的用户决定，其中任意一项变化都会得到新的响应体
+        List<byte[]> parts = new ArrayList<>();
+        parts.add(idPageBytes);
+        parts.addAll(pictureVOBytesList);
+        parts.add(this.encodeRelatedUsers(pictureVOPage.getRecords()));
+        // 同一份数据只在第一次序列化
+        return responseBodyCache.get(parts, () -> ResultUtils.success(pictureVOPage));
+    }
+
+    /**
+     * 编码图片关联的上传者和审核人，作为响应体摘要的一部分
+     */
+    private byte[] encodeRelatedUsers(List<PictureVO> pictureVOList) {
+        BinaryOutput out = new BinaryOutput(128 * pictureVOList.size() + 16);
+        for (PictureVO pictureVO : pictureVOList) {
+            BinaryUserVOCodec.write(out, pictureVO.getUser());
+            BinaryUserVOCodec.write(out, pictureVO.getReviewer());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 由 id 分页和编码后的图片组装图片分页，上传者和审核人批量从用户缓存关联
+     */
+    private Page<PictureVO> toPictureVOPage(PictureIdPage idPage, List<byte[]> pictureVOBytesList) {
+        Page<PictureVO> pictureVOPage;
+        if (idPage.isCursorPage()) {
+            CursorPage<PictureVO> cursorPage = new CursorPage<>(idPage.getSize());
+            cursorPage.setNextCursor(idPage.getNextCursor());
+            pictureVOPage = cursorPage;
+        } else {
+            pictureVOPage = new Page<>(idPage.getCurrent(), idPage.getSize(), idPage.getTotal());
+        }
+        List<PictureVO> pictureVOList = new ArrayList<>(pictureVOBytesList.size());
+        RelatedEntityLoader.Batch batch = relatedEntityLoader.newBatch();
+        for (byte[] bytes : pictureVOBytesList) {
+            PictureVO pictureVO = pictureVOCache.decode(bytes);
+            batch.addUserId(pictureVO.getUserId()).addUserId(pictureVO.getReviewerId());
+            pictureVOList.add(pictureVO);
+        }
+        batch.load();
+        for (PictureVO pictureVO : pictureVOList) {
+            pictureVO.setUser(batch.getUser(pictureVO.getUserId()));
+            pictureVO.setReviewer(batch.getUser(pictureVO.getReviewerId()));
+        }
+        pictureVOPage.setRecords(pictureVOList);
+        return pictureVOPage;
+    }
+
+    /**
+     * 查询列表缓存（只保存按顺序排列的图片 id 和分页信息），返回编码后的缓存值
+     */
+    private byte[] getPictureIdPageCache(PictureQueryRequest pictureQueryRequest, HttpServletRequest request) {
         // 普通用户默认只能看到审核通过的顺序
         pictureQueryRequest.setReviewStatus(PictureReviewStatusEnum.PASS.getValue());
         // 查询缓存，没有再查询数据库
-        // 构建缓存的key
-        String queryCondition = JSONUtil.toJsonStr(pictureQueryRequest);
-        String hashKey = DigestUtils.md5DigestAsHex(queryCondition.getBytes());
-        String cacheKey = String.format("gqzpicture:listPictureVOByPage:%s", hashKey);
-        // 1. 从本地缓存中查询
-        String cachedValue = LOCAL_CACHE.getIfPresent(cacheKey);
-        if (cachedValue != null){
-            // 命中，直接返回
-            Page<PictureVO> cachedPage = JSONUtil.toBean(cachedValue, Page.class);
-            return cachedPage;
-        }
-        // 2. 本地缓存未命中，查询redis缓存
-        ValueOperations<String,String> opsForValue = stringRedisTemplate.opsForValue();
-        cachedValue = opsForValue.get(cacheKey);
-        if (cachedValue != null) {
-            // 缓存命中，更新本地缓存，返回结果
-            LOCAL_CACHE.put(cacheKey, cachedValue);
-            Page<PictureVO> cachePage = JSONUtil.toBean(cachedValue, Page.class);
-            return cachePage;
-        }
-        // 3. 查询数据库
-        Page<Picture> picturePage = this.page(new Page<>(current, size),
-                this.getQueryWrapper(pictureQueryRequest));
-        Page<PictureVO> pictureVOPage = this.getPictureVOPage(picturePage, request);
-        // 4. 更新缓存
-        // 存入redis缓存
-        String cacheValue = JSONUtil.toJsonStr(pictureVOPage);
-        // 设置缓存的过期时间，5 - 10 分钟过期，防止缓存雪崩
-        int cacheExpireTime = RandomUtil.randomInt(0, 300);
-        opsForValue.set(cacheKey, cacheValue, cacheExpireTime, TimeUnit.SECONDS);
-        // 写入本地缓存
-        LOCAL_CACHE.put(cacheKey, cacheValue);
-        // 获取封装类
-        return pictureVOPage;
+        // 构建缓存的key：规范化后的查询条件，字段顺序和空值不影响 key
+        String hashKey = PictureQueryKey.hash(pictureQueryRequest);
+        // key 中带上缓存版本号，图片增删、审核或影响查询结果的修改后旧 key 自动失效
+        String version = pictureCacheGeneration.getVersion(pictureQueryRequest);
+        String stableKey = String.format("gqzpicture:listPictureIds:%s", hashKey);
+        Supplier<byte[]> loader = () -> {
+            Page<Picture> picturePage = pictureQueryRequest.isCursorMode()
+                    ? this.listPictureByCursor(pictureQueryRequest)
+                    : this.listPictureByPage(pictureQueryRequest);
+            // 查到的图片顺便写入图片缓存（只有图片自身的字段），组装时不用再查一次数据库
+            pictureVOCache.putAll(picturePage.getRecords().stream().map(PictureVO::objToVo).collect(Collectors.toList()));
+            PictureIdPage idPage = new PictureIdPage();
+            idPage.setCurrent(picturePage.getCurrent());
+            idPage.setSize(picturePage.getSize());
+            idPage.setTotal(picturePage.getTotal());
+            if (picturePage instanceof CursorPage) {
+                idPage.setCursorPage(true);
+                idPage.setNextCursor(((CursorPage<Picture>) picturePage).getNextCursor());
+            }
+            idPage.setIds(picturePage.getRecords().stream().map(Picture::getId).collect(Collectors.toList()));
+            return pictureIdPageCodec.encode(idPage);
+        };
+        CacheResult cacheResult;
+        if (version == null) {
+            // 版本号未知时无法判断缓存是否过期，直接查询数据库
+            cacheResult = staleWhileRevalidateCache.getUncached(stableKey, loader);
+        } else {
+            // 依次查询本地缓存、redis 缓存，都未命中再查询数据库；软过期后先返回旧值再后台刷新
+            String cacheKey = String.format("gqzpicture:listPictureIds:%s:%s", version, hashKey);
+            cacheResult = staleWhileRevalidateCache.get(LOCAL_CACHE, cacheKey, stableKey, loader);
+        }
+        if (cacheResult.isStale()) {
+            // 后端不可用，返回的是最近一次的结果
+            request.setAttribute(CacheConstant.STALE_ATTRIBUTE, true);
+        }
+        return cacheResult.getValue();
     }
 
     /**
-     * 清理图片文件
+     * 按 id 顺序批量获取编码后的图片，缓存中缺失的一次性从数据库加载，已删除的图片跳过
+     */
+    private List<byte[]> getPictureVOBytesList(List<Long> pictureIds) {
+        Map<Long, byte[]> pictureVOBytesMap = pictureVOCache.getAll(pictureIds,
+                missIds -> this.listByIds(missIds).stream().map(PictureVO::objToVo).collect(Collectors.toList()));
+        List<byte[]> pictureVOBytesList = new ArrayList<>(pictureIds.size());
+        for (Long pictureId : pictureIds) {
+            byte[] bytes = pictureVOBytesMap.get(pictureId);
+            if (bytes != null) {
+                pictureVOBytesList.add(bytes);
+            }
+        }
+        return pictureVOBytesList;
+    }
+
+    /**
+     * 根据 id 获取图片（读穿透缓存）
+     * @param pictureId
+     * @return
+     */
+    @Override
+    public Picture getPictureByIdWithCache(long pictureId) {
+        return pictureEntityCache.get(pictureId, this::getById);
+    }
+
+    /**
+     * 图片变更后失效缓存（在事务提交后调用）
+     * 图片实体和图片缓存总是失效；只有新增、删除或修改了影响查询结果的字段时，才递增列表缓存的版本号
      * @param oldPicture
+     * @param newPicture
      */
     @Override
-    @Async
-    public void cleanPictureFile(Picture oldPicture) {
-        // 判断该图片是否被多条记录使用
-        String pictureUrl = oldPicture.getUrl();
-        long count = this.count(new QueryWrapper<Picture>().eq("pictureUrl", pictureUrl));
-        if (count > 1){
+    public void invalidatePictureCache(Picture oldPicture, Picture newPicture) {
+        if (oldPicture == null) {
+            // 新增图片：写入布隆过滤器，并清除该 id 可能存在的空值缓存
+            pictureIdBloomFilter.add(newPicture.getId());
+            pictureEntityCache.evict(newPicture.getId());
+            pictureCacheGeneration.bump(newPicture);
             return;
         }
-        // 删除图片文件
-        cosManager.deleteObject(pictureUrl);
-        // 删除缩略图
-        if (StrUtil.isNotBlank(oldPicture.getThumbnailUrl())){
-            cosManager.deleteObject(oldPicture.getThumbnailUrl());
+        pictureEntityCache.evict(oldPicture.getId());
+        pictureVOCache.evict(oldPicture.getId());
+        if (newPicture == null
+                || isChanged(newPicture.getName(), oldPicture.getName())
+                || isChanged(newPicture.getIntroduction(), oldPicture.getIntroduction())
+                || isChanged(newPicture.getCategory(), oldPicture.getCategory())
+                || isChanged(newPicture.getTags(), oldPicture.getTags())
+                || isChanged(newPicture.getPicSize(), oldPicture.getPicSize())
+                || isChanged(newPicture.getPicWidth(), oldPicture.getPicWidth())
+                || isChanged(newPicture.getPicHeight(), oldPicture.getPicHeight())
+                || isChanged(newPicture.getPicScale(), oldPicture.getPicScale())
+                || isChanged(newPicture.getPicFormat(), oldPicture.getPicFormat())
+                || isChanged(newPicture.getReviewStatus(), oldPicture.getReviewStatus())
+                || isChanged(newPicture.getSpaceId(), oldPicture.getSpaceId())) {
+            pictureCacheGeneration.bump(oldPicture);
+        }
+    }
+
+    /**
+     * 本次更新了该字段且值发生变化（未更新的字段为 null）
+     */
+    private static boolean isChanged(Object newValue, Object oldValue) {
+        return newValue != null && !newValue.equals(oldValue);
+    }
+
+    /**
+     * 清理图片文件
+     * 释放图片对文件的引用（需在删除图片的事务中调用），引用计数归零的文件由 PictureFileCleaner 批量回收
+     * @param oldPicture
+     */
+    @Override
+    public void cleanPictureFile(Picture oldPicture) {
+        boolean released = pictureFileService.decreaseRefCount(oldPicture.getUrl());
+        if (!released) {
+            // 引用计数上线前的历史图片没有文件记录，保留其文件
+            log.warn("图片文件没有引用记录，跳过回收，url = {}", oldPicture.getUrl());
         }
     }
 
@@ -591,7 +1076,7 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         ThrowUtils.throwIf(pictureId <= 0, ErrorCode.PARAMS_ERROR);
         ThrowUtils.throwIf(loginUser == null, ErrorCode.NOT_LOGIN_ERROR);
         // 判断是否存在
-        Picture oldPicture = this.getById(pictureId);
+        Picture oldPicture = this.getPictureByIdWithCache(pictureId);
         ThrowUtils.throwIf(oldPicture == null, ErrorCode.NOT_FOUND_ERROR);
         // 校验权限
         this.checkPictureAuth(loginUser, oldPicture);
@@ -607,10 +1092,14 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
                     .setSql("totalCount = totalCount - 1")
                     .update();
             ThrowUtils.throwIf(!update, ErrorCode.OPERATION_ERROR, "额度更新失败");
+            // 释放图片文件的引用
+            this.cleanPictureFile(oldPicture);
+            // 删除标签索引
+            pictureTagService.removeByPictureId(pictureId);
             return true;
         });
-        // 异步清理图片文件
-        this.cleanPictureFile(oldPicture);
+        pictureSearchIndex.refresh(pictureId);
+        this.invalidatePictureCache(oldPicture, null);
     }
 
     /**
@@ -624,22 +1113,28 @@ public class PictureServiceImpl extends ServiceImpl<PictureMapper, Picture>
         Picture picture = new Picture();
         BeanUtils.copyProperties(pictureEditRequest, picture);
         // 注意将 list 转为 string
-        picture.setTags(JSONUtil.toJsonStr(pictureEditRequest.getTags()));
+        picture.setTags(TagsCodec.encode(pictureEditRequest.getTags()));
         // 设置编辑时间
         picture.setEditTime(new Date());
         // 数据校验
         this.validPicture(picture);
         // 判断是否存在
         long id = pictureEditRequest.getId();
-        Picture oldPicture = this.getById(id);
+        Picture oldPicture = this.getPictureByIdWithCache(id);
         ThrowUtils.throwIf(oldPicture == null, ErrorCode.NOT_FOUND_ERROR);
         // 校验权限
         this.checkPictureAuth(loginUser, oldPicture);
         // 补充审核参数
         this.fillReviewParams(picture,loginUser);
-        // 操作数据库
-        boolean result = this.updateById(picture);
-        ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        // 操作数据库，同时更新标签索引
+        transactionTemplate.execute(status -> {
+            boolean result = this.updateById(picture);
+            ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+            pictureTagService.syncTags(id, pictureEditRequest.getTags());
+            return true;
+        });
+        pictureSearchIndex.refresh(id);
+        this.invalidatePictureCache(oldPicture, picture);
     }
 
 
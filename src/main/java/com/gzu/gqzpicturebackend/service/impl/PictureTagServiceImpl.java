@@ -0,0 +1,127 @@
+package com.gzu.gqzpicturebackend.service.impl;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import com.gzu.gqzpicturebackend.model.entity.PictureTag;
+import com.gzu.gqzpicturebackend.service.PictureTagService;
+import com.gzu.gqzpicturebackend.mapper.PictureTagMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+* @author 86185
+* @description 针对表【picture_tag(图片标签)】的数据库操作Service实现
+* @createDate 2025-05-12 20:31:08
+*/
+@Service
+public class PictureTagServiceImpl extends ServiceImpl<PictureTagMapper, PictureTag>
+    implements PictureTagService{
+
+    /**
+     * 同步图片的标签索引，只增删有变化的标签
+     * @param pictureId
+     * @param tags
+     */
+    @Override
+    public void syncTags(Long pictureId, List<String> tags) {
+        if (pictureId == null || tags == null) {
+            return;
+        }
+        Set<String> newTags = normalizeTags(tags);
+        Set<String> oldTags = this.lambdaQuery()
+                .select(PictureTag::getTag)
+                .eq(PictureTag::getPictureId, pictureId)
+                .list()
+                .stream()
+                .map(PictureTag::getTag)
+                .collect(Collectors.toSet());
+        // 删除去掉的标签
+        Collection<String> removedTags = CollUtil.subtract(oldTags, newTags);
+        if (CollUtil.isNotEmpty(removedTags)) {
+            this.lambdaUpdate()
+                    .eq(PictureTag::getPictureId, pictureId)
+                    .in(PictureTag::getTag, removedTags)
+                    .remove();
+        }
+        // 插入新增的标签
+        List<PictureTag> addedList = new ArrayList<>();
+        for (String tag : CollUtil.subtract(newTags, oldTags)) {
+            PictureTag pictureTag = new PictureTag();
+            pictureTag.setPictureId(pictureId);
+            pictureTag.setTag(tag);
+            addedList.add(pictureTag);
+        }
+        if (CollUtil.isNotEmpty(addedList)) {
+            this.saveBatch(addedList);
+        }
+    }
+
+    /**
+     * 删除图片的标签索引
+     * @param pictureId
+     */
+    @Override
+    public void removeByPictureId(Long pictureId) {
+        this.lambdaUpdate()
+                .eq(PictureTag::getPictureId, pictureId)
+                .remove();
+    }
+
+    /**
+     * 添加标签过滤条件
+     * 在数据库中用子查询求交集或并集（走 (tag, pictureId) 唯一索引），图片 id 不经过应用
+     * @param queryWrapper 图片查询条件
+     * @param tags
+     * @param matchAll
+     */
+    @Override
+    public void applyTagCondition(QueryWrapper<Picture> queryWrapper, List<String> tags, boolean matchAll) {
+        Set<String> tagSet = normalizeTags(tags);
+        if (tagSet.isEmpty()) {
+            return;
+        }
+        queryWrapper.apply(buildTagConditionSql(tagSet.size(), matchAll), tagSet.toArray());
+    }
+
+    /**
+     * 构造标签过滤的 SQL 片段，标签通过 {0}、{1}... 占位符绑定
+     * 同时包含所有标签：按图片分组，命中的标签数等于查询的标签数；包含任意一个标签：EXISTS
+     */
+    static String buildTagConditionSql(int tagCount, boolean matchAll) {
+        StringBuilder sb = new StringBuilder(matchAll
+                ? "id IN (SELECT pictureId FROM picture_tag WHERE tag IN ("
+                : "EXISTS (SELECT 1 FROM picture_tag WHERE picture_tag.pictureId = picture.id AND tag IN (");
+        for (int i = 0; i < tagCount; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('{').append(i).append('}');
+        }
+        sb.append(')');
+        if (matchAll) {
+            sb.append(" GROUP BY pictureId HAVING COUNT(DISTINCT tag) = ").append(tagCount);
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * 规范化标签：去掉首尾空白、空标签和重复标签
+     */
+    static Set<String> normalizeTags(Collection<String> tags) {
+        Set<String> tagSet = new LinkedHashSet<>();
+        if (tags == null) {
+            return tagSet;
+        }
+        for (String tag : tags) {
+            if (StrUtil.isNotBlank(tag)) {
+                tagSet.add(tag.trim());
+            }
+        }
+        return tagSet;
+    }
+}
@@ -9,13 +9,13 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.gzu.gqzpicturebackend.exception.BusinessException;
 import com.gzu.gqzpicturebackend.exception.ErrorCode;
 import com.gzu.gqzpicturebackend.exception.ThrowUtils;
+import com.gzu.gqzpicturebackend.manage.vo.RelatedEntityLoader;
 import com.gzu.gqzpicturebackend.model.dto.space.SpaceAddRequest;
 import com.gzu.gqzpicturebackend.model.dto.space.SpaceQueryRequest;
 import com.gzu.gqzpicturebackend.model.entity.Space;
 import com.gzu.gqzpicturebackend.model.entity.User;
 import com.gzu.gqzpicturebackend.model.enums.SpaceLevelEnum;
 import com.gzu.gqzpicturebackend.model.vo.SpaceVO;
-import com.gzu.gqzpicturebackend.model.vo.UserVO;
 import com.gzu.gqzpicturebackend.service.SpaceService;
 import com.gzu.gqzpicturebackend.mapper.SpaceMapper;
 import com.gzu.gqzpicturebackend.service.UserService;
@@ -25,11 +25,10 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
 * @author 86185
@@ -46,6 +45,9 @@ public class SpaceServiceImpl extends ServiceImpl<SpaceMapper, Space>
     @Resource
     private TransactionTemplate transactionTemplate;
 
+    @Resource
+    private RelatedEntityLoader relatedEntityLoader;
+
     /**
      * 创建空间
      * @param spaceAddRequest
@@ -132,19 +134,7 @@ public class SpaceServiceImpl extends ServiceImpl<SpaceMapper, Space>
      */
     @Override
     public SpaceVO getSpaceVO(Space space, HttpServletRequest request) {
-        // 对象转成封装类
-        SpaceVO spaceVO = SpaceVO.objToVo(space);
-        // 判断用户是否为空
-        Long userId = space.getUserId();
-        if (userId != null && userId > 0) {
-            // 不为空根据id获取用户对象
-            User user = userService.getById(userId);
-            // 把对象转出封装类
-            UserVO userVO = userService.getUserVO(user);
-            // 把用户封装类加到给空间对象
-            spaceVO.setUser(userVO);
-        }
-        return spaceVO;
+        return this.getSpaceVOList(Collections.singletonList(space)).get(0);
     }
 
     /**
@@ -166,33 +156,31 @@ public class SpaceServiceImpl extends ServiceImpl<SpaceMapper, Space>
             return pictureVOPage;
         }
 
-        // 将空间实体列表转换为空间VO列表
-        List<SpaceVO> pictureVOList = pictureList.stream().map(SpaceVO::objToVo).collect(Collectors.toList());
-
-        // 提取所有空间的用户ID，并去除重复值
-        Set<Long> userIdSet = pictureVOList.stream().map(SpaceVO::getUserId).collect(Collectors.toSet());
-
-        // 根据用户ID列表查询所有相关用户，并按用户ID分组
-        Map<Long, List<User>> userIdUserListMap = userService.listByIds(userIdSet).stream()
-                .collect(Collectors.groupingBy(User::getId));
-
-        // 为每个空间VO设置关联的用户信息
-        pictureVOList.forEach(pictureVO -> {
-            Long userId = pictureVO.getUserId();
-            User user = null;
-            if (userIdUserListMap.containsKey(userId)) {
-                user = userIdUserListMap.get(userId).get(0);
-            }
-            pictureVO.setUser(userService.getUserVO(user));
-        });
-
-        // 将转换后的空间VO列表设置到空间VO分页对象中
-        pictureVOPage.setRecords(pictureVOList);
+        // 将空间实体列表转换为空间VO列表，并填充创建用户信息
+        pictureVOPage.setRecords(this.getSpaceVOList(pictureList));
 
         // 返回填充完毕的空间VO分页对象
         return pictureVOPage;
     }
 
+    /**
+     * 批量转换为空间VO列表，创建用户只查询一次
+     * @param spaceList
+     * @return
+     */
+    private List<SpaceVO> getSpaceVOList(List<Space> spaceList) {
+        RelatedEntityLoader.Batch batch = relatedEntityLoader.newBatch();
+        spaceList.forEach(space -> batch.addUserId(space.getUserId()));
+        batch.load();
+        List<SpaceVO> spaceVOList = new ArrayList<>(spaceList.size());
+        for (Space space : spaceList) {
+            SpaceVO spaceVO = SpaceVO.objToVo(space);
+            spaceVO.setUser(batch.getUser(space.getUserId()));
+            spaceVOList.add(spaceVO);
+        }
+        return spaceVOList;
+    }
+
     /**
      * 获取查询条件
      * @param spaceQueryRequest
@@ -8,8 +8,15 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.gzu.gqzpicturebackend.constant.UserConstant;
 import com.gzu.gqzpicturebackend.exception.BusinessException;
 import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import com.gzu.gqzpicturebackend.exception.ThrowUtils;
+import com.gzu.gqzpicturebackend.manage.auth.AccessTokenManager;
+import com.gzu.gqzpicturebackend.manage.auth.TokenClaims;
+import com.gzu.gqzpicturebackend.manage.cache.LoginUserCache;
+import com.gzu.gqzpicturebackend.manage.cache.UserVOCache;
+import com.gzu.gqzpicturebackend.model.dto.user.LoginUserSession;
 import com.gzu.gqzpicturebackend.model.dto.user.UserQueryRequest;
 import com.gzu.gqzpicturebackend.model.dto.user.UserRegisterRequest;
+import com.gzu.gqzpicturebackend.model.convert.UserConverter;
 import com.gzu.gqzpicturebackend.model.entity.User;
 import com.gzu.gqzpicturebackend.model.enums.UserRoleEnum;
 import com.gzu.gqzpicturebackend.model.vo.LoginUserVo;
@@ -17,11 +24,13 @@ import com.gzu.gqzpicturebackend.model.vo.UserVO;
 import com.gzu.gqzpicturebackend.service.UserService;
 import com.gzu.gqzpicturebackend.mapper.UserMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
+import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -35,6 +44,21 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
+    @Resource
+    private LoginUserCache loginUserCache;
+
+    @Resource
+    private UserVOCache userVOCache;
+
+    @Resource
+    private AccessTokenManager accessTokenManager;
+
+    /**
+     * 精简会话：登录态只保存用户 id、角色和版本号
+     */
+    @Value("${picture.session.compact:true}")
+    private boolean compactSession;
+
     /**
      * 用户注册
      *
@@ -112,11 +136,44 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             log.info("用户不存在或密码错误");
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户不存在或密码错误");
         }
-        // 4. 保存用户的登录态
-        request.getSession().setAttribute(UserConstant.USER_LOGIN_STATE, user);
+        // 4. 无状态令牌模式下签发令牌，不创建会话
+        if (accessTokenManager.isEnabled()) {
+            return this.getLoginUserVoWithToken(user, accessTokenManager.newSessionId());
+        }
+        // 5. 保存用户的登录态（精简模式只保存 id、角色和版本号）
+        request.getSession().setAttribute(UserConstant.USER_LOGIN_STATE,
+                compactSession ? LoginUserSession.of(user) : user);
         return this.getLoginUserVo(user);
     }
 
+    /**
+     * 刷新令牌：校验刷新令牌后按用户的最新信息签发新的令牌
+     * @param refreshToken
+     * @return
+     */
+    @Override
+    public LoginUserVo refreshToken(String refreshToken) {
+        ThrowUtils.throwIf(!accessTokenManager.isEnabled(), ErrorCode.OPERATION_ERROR, "未启用无状态令牌");
+        ThrowUtils.throwIf(StrUtil.isBlank(refreshToken), ErrorCode.PARAMS_ERROR);
+        TokenClaims claims = accessTokenManager.verify(refreshToken, AccessTokenManager.TYPE_REFRESH);
+        // 刷新时读取数据库，角色以最新的为准；沿用原来的登录会话
+        User user = this.getById(claims.getUserId());
+        ThrowUtils.throwIf(user == null, ErrorCode.NOT_LOGIN_ERROR);
+        String sessionId = claims.getSessionId() != null ? claims.getSessionId() : accessTokenManager.newSessionId();
+        return this.getLoginUserVoWithToken(user, sessionId);
+    }
+
+    /**
+     * 签发访问令牌和刷新令牌
+     */
+    private LoginUserVo getLoginUserVoWithToken(User user, String sessionId) {
+        LoginUserVo loginUserVo = this.getLoginUserVo(user);
+        loginUserVo.setAccessToken(accessTokenManager.issue(user, sessionId, AccessTokenManager.TYPE_ACCESS));
+        loginUserVo.setRefreshToken(accessTokenManager.issue(user, sessionId, AccessTokenManager.TYPE_REFRESH));
+        loginUserVo.setExpiresIn(accessTokenManager.getAccessTtlSeconds());
+        return loginUserVo;
+    }
+
     /**
      * 获取加密密码
      *
@@ -137,21 +194,58 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      */
     @Override
     public User getLoginUser(HttpServletRequest request) {
-        // 判断是否已经登录
-        Object userObj = request.getSession().getAttribute(UserConstant.USER_LOGIN_STATE);
-        User currentUser = (User) userObj;
-        if (currentUser == null || currentUser.getId() == null) {
+        // 同一个请求只解析一次（如 AuthInterceptor 和接口方法各调用一次）
+        Object resolvedUser = request.getAttribute(UserConstant.LOGIN_USER_ATTRIBUTE);
+        if (resolvedUser != null) {
+            return (User) resolvedUser;
+        }
+        // 携带了访问令牌：本地校验签名，不读取会话
+        TokenClaims claims = accessTokenManager.resolve(request);
+        if (claims != null) {
+            User tokenUser = loginUserCache.get(claims.getUserId(), this::getById);
+            if (tokenUser == null) {
+                throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+            }
+            request.setAttribute(UserConstant.LOGIN_USER_ATTRIBUTE, tokenUser);
+            return tokenUser;
+        }
+        // 判断是否已经登录（兼容切换前保存完整用户的会话）
+        HttpSession session = request.getSession(false);
+        Object userObj = session == null ? null : session.getAttribute(UserConstant.USER_LOGIN_STATE);
+        Long userId = null;
+        if (userObj instanceof LoginUserSession) {
+            userId = ((LoginUserSession) userObj).getUserId();
+        } else if (userObj instanceof User) {
+            userId = ((User) userObj).getId();
+        }
+        if (userId == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
-        // 从数据库查询（追求性能的话可以注释，直接走缓存）
-        Long userId = currentUser.getId();
-        currentUser = this.getById(userId);
+        // 先查本地缓存，未命中再查询数据库；用户修改或删除时缓存会被清除
+        User currentUser = loginUserCache.get(userId, this::getById);
         if (currentUser == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
+        if (userObj instanceof LoginUserSession
+                && ((LoginUserSession) userObj).getVersion() != LoginUserSession.versionOf(currentUser)) {
+            // 用户被修改过（如角色变更），刷新会话中的登录态
+            session.setAttribute(UserConstant.USER_LOGIN_STATE, LoginUserSession.of(currentUser));
+        }
+        request.setAttribute(UserConstant.LOGIN_USER_ATTRIBUTE, currentUser);
         return currentUser;
     }
 
+    /**
+     * 用户修改或删除后清除登录用户和脱敏用户缓存，并吊销已签发的令牌
+     * @param userId
+     */
+    @Override
+    public void invalidateLoginUser(long userId) {
+        loginUserCache.evict(userId);
+        userVOCache.evict(userId);
+        accessTokenManager.revoke(userId);
+    }
+
     /**
      * 获取脱敏类的用户信息
      * @param user
@@ -159,12 +253,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      */
     @Override
     public UserVO getUserVO(User user) {
-        if (user == null) {
-            return null;
-        }
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(user, userVO);
-        return userVO;
+        return UserConverter.toVO(user);
     }
 
     /**
@@ -191,12 +280,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      */
     @Override
     public LoginUserVo getLoginUserVo(User user) {
-        if (user == null) {
-            return null;
-        }
-        LoginUserVo loginUserVo = new LoginUserVo();
-        BeanUtils.copyProperties(user, loginUserVo);
-        return loginUserVo;
+        return UserConverter.toLoginUserVo(user);
     }
 
     /**
@@ -206,6 +290,12 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      */
     @Override
     public boolean userLogout(HttpServletRequest request) {
+        // 令牌登录：只吊销当前登录会话的令牌，其他设备上的登录不受影响
+        TokenClaims claims = accessTokenManager.resolve(request);
+        if (claims != null) {
+            accessTokenManager.revokeSession(claims);
+            return true;
+        }
         // 判断是否已经登录
         Object userObj = request.getSession().getAttribute(UserConstant.USER_LOGIN_STATE);
         if (userObj == null) {
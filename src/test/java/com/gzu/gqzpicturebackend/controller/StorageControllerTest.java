@@ -0,0 +1,83 @@
+package com.gzu.gqzpicturebackend.controller;
+
+import com.gzu.gqzpicturebackend.manage.storage.LocalObjectStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地存储文件访问的 Range 处理
+ */
+public class StorageControllerTest {
+
+    private static final String KEY = "public/1/a.png";
+
+    @TempDir
+    Path tempDir;
+
+    private StorageController storageController;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        LocalObjectStorage localObjectStorage = new LocalObjectStorage();
+        ReflectionTestUtils.setField(localObjectStorage, "root", tempDir.toString());
+        ReflectionTestUtils.setField(localObjectStorage, "host", "http://localhost/api/storage");
+        localObjectStorage.init();
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        localObjectStorage.putObject(KEY, new ByteArrayInputStream(content), content.length);
+        storageController = new StorageController();
+        ReflectionTestUtils.setField(storageController, "localObjectStorage", localObjectStorage);
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        MockHttpServletResponse response = get("bytes=2-4");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("234", response.getContentAsString());
+    }
+
+    @Test
+    public void testSuffixRange() throws IOException {
+        MockHttpServletResponse response = get("bytes=-3");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 7-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws IOException {
+        MockHttpServletResponse response = get("bytes=10-");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testMalformedRangeIgnored() throws IOException {
+        for (String range : new String[]{"bytes=abc-", "bytes=1-x", "bytes=-"}) {
+            MockHttpServletResponse response = get(range);
+            assertEquals(200, response.getStatus(), range);
+            assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+            assertEquals("0123456789", response.getContentAsString(), range);
+        }
+    }
+
+    private MockHttpServletResponse get(String range) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/storage/" + KEY);
+        request.addHeader(HttpHeaders.RANGE, range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        storageController.getObject(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,178 @@
+package com.gzu.gqzpicturebackend.manage.auth;
+
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import com.gzu.gqzpicturebackend.model.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 无状态令牌：签发、校验、过期和吊销
+ */
+public class AccessTokenManagerTest {
+
+    private AccessTokenManager accessTokenManager;
+
+    private ZSetOperations<String, String> zSetOperations;
+
+    private User user;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        zSetOperations = mock(ZSetOperations.class);
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        accessTokenManager = new AccessTokenManager();
+        ReflectionTestUtils.setField(accessTokenManager, "enabled", true);
+        ReflectionTestUtils.setField(accessTokenManager, "secret", "0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(accessTokenManager, "accessTtlSeconds", 900L);
+        ReflectionTestUtils.setField(accessTokenManager, "refreshTtlSeconds", 604800L);
+        ReflectionTestUtils.setField(accessTokenManager, "stringRedisTemplate", stringRedisTemplate);
+        accessTokenManager.init();
+
+        user = new User();
+        user.setId(42L);
+        user.setUserRole("admin");
+    }
+
+    @Test
+    public void testIssueAndVerify() {
+        String token = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS);
+
+        TokenClaims claims = accessTokenManager.verify(token, AccessTokenManager.TYPE_ACCESS);
+        assertEquals(42L, claims.getUserId());
+        assertEquals("s1", claims.getSessionId());
+        assertEquals("admin", claims.getUserRole());
+        assertEquals(900_000L, claims.getExpiresAt() - claims.getIssuedAt());
+    }
+
+    @Test
+    public void testWrongType() {
+        String refreshToken = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_REFRESH);
+
+        assertNotLogin(() -> accessTokenManager.verify(refreshToken, AccessTokenManager.TYPE_ACCESS));
+        assertEquals(42L, accessTokenManager.verify(refreshToken, AccessTokenManager.TYPE_REFRESH).getUserId());
+    }
+
+    @Test
+    public void testTamperedToken() {
+        String token = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS);
+        String otherToken = accessTokenManager.issue(user, "s2", AccessTokenManager.TYPE_ACCESS);
+        int index = token.indexOf('.');
+
+        // 换用另一个令牌的载荷（签名不匹配）
+        assertNotLogin(() -> accessTokenManager.verify(
+                otherToken.substring(0, otherToken.indexOf('.')) + token.substring(index), AccessTokenManager.TYPE_ACCESS));
+        assertNotLogin(() -> accessTokenManager.verify(token.substring(0, index), AccessTokenManager.TYPE_ACCESS));
+        assertNotLogin(() -> accessTokenManager.verify("not-a-token", AccessTokenManager.TYPE_ACCESS));
+        assertNotLogin(() -> accessTokenManager.verify(null, AccessTokenManager.TYPE_ACCESS));
+
+        // 不同密钥签发的令牌无效
+        AccessTokenManager otherManager = new AccessTokenManager();
+        ReflectionTestUtils.setField(otherManager, "enabled", true);
+        ReflectionTestUtils.setField(otherManager, "secret", "fedcba9876543210fedcba9876543210");
+        ReflectionTestUtils.setField(otherManager, "accessTtlSeconds", 900L);
+        otherManager.init();
+        String foreignToken = otherManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS);
+        assertNotLogin(() -> accessTokenManager.verify(foreignToken, AccessTokenManager.TYPE_ACCESS));
+    }
+
+    @Test
+    public void testExpiredToken() {
+        ReflectionTestUtils.setField(accessTokenManager, "accessTtlSeconds", -1L);
+        String token = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS);
+
+        BusinessException e = assertNotLogin(() -> accessTokenManager.verify(token, AccessTokenManager.TYPE_ACCESS));
+        assertEquals("令牌已过期", e.getMessage());
+    }
+
+    @Test
+    public void testRevokeSessionOnlyAffectsThatSession() {
+        String token = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS);
+        String refreshToken = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_REFRESH);
+        String otherDeviceToken = accessTokenManager.issue(user, "s2", AccessTokenManager.TYPE_ACCESS);
+
+        accessTokenManager.revokeSession(accessTokenManager.verify(token, AccessTokenManager.TYPE_ACCESS));
+
+        verify(zSetOperations).add(anyString(), eq("sid:s1"), anyDouble());
+        assertNotLogin(() -> accessTokenManager.verify(token, AccessTokenManager.TYPE_ACCESS));
+        assertNotLogin(() -> accessTokenManager.verify(refreshToken, AccessTokenManager.TYPE_REFRESH));
+        // 其他设备上的登录不受影响
+        assertEquals("s2", accessTokenManager.verify(otherDeviceToken, AccessTokenManager.TYPE_ACCESS).getSessionId());
+    }
+
+    @Test
+    public void testRevokeUser() {
+        String token = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS);
+        String otherDeviceToken = accessTokenManager.issue(user, "s2", AccessTokenManager.TYPE_ACCESS);
+        User otherUser = new User();
+        otherUser.setId(43L);
+        otherUser.setUserRole("user");
+        String otherUserToken = accessTokenManager.issue(otherUser, "s3", AccessTokenManager.TYPE_ACCESS);
+
+        accessTokenManager.revoke(42L);
+
+        verify(zSetOperations).add(anyString(), eq("42"), anyDouble());
+        assertNotLogin(() -> accessTokenManager.verify(token, AccessTokenManager.TYPE_ACCESS));
+        assertNotLogin(() -> accessTokenManager.verify(otherDeviceToken, AccessTokenManager.TYPE_ACCESS));
+        assertEquals(43L, accessTokenManager.verify(otherUserToken, AccessTokenManager.TYPE_ACCESS).getUserId());
+    }
+
+    @Test
+    public void testRevokeFailsWhenNotPersisted() {
+        when(zSetOperations.add(anyString(), anyString(), anyDouble()))
+                .thenThrow(new RedisConnectionFailureException("redis down"));
+        TokenClaims claims = accessTokenManager.verify(
+                accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS), AccessTokenManager.TYPE_ACCESS);
+
+        // 只在本节点生效的吊销不能当作注销成功
+        BusinessException e = assertThrows(BusinessException.class, () -> accessTokenManager.revokeSession(claims));
+        assertEquals(ErrorCode.SYSTEM_ERROR.getCode(), e.getCode());
+        verify(zSetOperations, times(3)).add(anyString(), anyString(), anyDouble());
+        assertThrows(BusinessException.class, () -> accessTokenManager.revoke(42L));
+    }
+
+    @Test
+    public void testSyncRevocationsFromOtherNodes() {
+        String token = accessTokenManager.issue(user, "s1", AccessTokenManager.TYPE_ACCESS);
+        User otherUser = new User();
+        otherUser.setId(43L);
+        String otherUserToken = accessTokenManager.issue(otherUser, "s3", AccessTokenManager.TYPE_ACCESS);
+        double now = System.currentTimeMillis();
+        when(zSetOperations.rangeByScoreWithScores(anyString(), anyDouble(), anyDouble()))
+                .thenReturn(new LinkedHashSet<>(Arrays.asList(
+                        new DefaultTypedTuple<>("sid:s1", now), new DefaultTypedTuple<>("43", now))));
+
+        accessTokenManager.syncRevocations();
+
+        assertNotLogin(() -> accessTokenManager.verify(token, AccessTokenManager.TYPE_ACCESS));
+        assertNotLogin(() -> accessTokenManager.verify(otherUserToken, AccessTokenManager.TYPE_ACCESS));
+    }
+
+    @Test
+    public void testShortSecretRejected() {
+        AccessTokenManager manager = new AccessTokenManager();
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "secret", "too-short");
+        assertThrows(IllegalStateException.class, manager::init);
+    }
+
+    private static BusinessException assertNotLogin(Runnable runnable) {
+        BusinessException e = assertThrows(BusinessException.class, runnable::run);
+        assertEquals(ErrorCode.NOT_LOGIN_ERROR.getCode(), e.getCode());
+        return e;
+    }
+}
@@ -0,0 +1,32 @@
+package com.gzu.gqzpicturebackend.manage.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * If-None-Match 解析和 gzip 副本的 ETag
+ */
+public class ResponseBodyCacheTest {
+
+    @Test
+    public void testMatchesIfNoneMatchList() {
+        String etag = "\"abc\"";
+        assertTrue(ResponseBodyCache.matchesIfNoneMatch("\"abc\"", etag));
+        assertTrue(ResponseBodyCache.matchesIfNoneMatch("\"x\", \"abc\"", etag));
+        assertTrue(ResponseBodyCache.matchesIfNoneMatch("W/\"abc\"", etag));
+        assertTrue(ResponseBodyCache.matchesIfNoneMatch("*", etag));
+        assertFalse(ResponseBodyCache.matchesIfNoneMatch(null, etag));
+        // 只是包含子串不算命中
+        assertFalse(ResponseBodyCache.matchesIfNoneMatch("\"abcd\"", etag));
+        assertFalse(ResponseBodyCache.matchesIfNoneMatch("\"xabc\"", etag));
+    }
+
+    @Test
+    public void testGzipEtagDiffers() {
+        String gzipEtag = ResponseBodyCache.gzipEtag("\"abc\"");
+        assertEquals("\"abc-gzip\"", gzipEtag);
+        assertFalse(ResponseBodyCache.matchesIfNoneMatch("\"abc\"", gzipEtag));
+        assertFalse(ResponseBodyCache.matchesIfNoneMatch(gzipEtag, "\"abc\""));
+    }
+}
@@ -0,0 +1,110 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 紧凑二进制读写
+ */
+public class BinaryInputOutputTest {
+
+    @Test
+    public void testVarLong() {
+        long[] values = {0, 1, -1, 63, 64, -64, -65, 127, 128, 300, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        BinaryOutput out = new BinaryOutput(16);
+        for (long value : values) {
+            out.writeVarLong(value);
+        }
+        BinaryInput in = new BinaryInput(out.toByteArray(), 0);
+        for (long value : values) {
+            assertEquals(value, in.readVarLong());
+        }
+    }
+
+    @Test
+    public void testVarLongIsCompact() {
+        // zigzag 之后绝对值小的数（包括负数）只占 1 字节
+        BinaryOutput out = new BinaryOutput(16);
+        out.writeVarLong(-64);
+        out.writeVarLong(63);
+        assertEquals(2, out.toByteArray().length);
+    }
+
+    @Test
+    public void testNullableValues() {
+        Date date = new Date(1_700_000_000_123L);
+        BinaryOutput out = new BinaryOutput(16);
+        out.writeNullableLong(null);
+        out.writeNullableLong(-42L);
+        out.writeNullableInt(null);
+        out.writeNullableInt(1080);
+        out.writeNullableDouble(null);
+        out.writeNullableDouble(0.56);
+        out.writeNullableDouble(Double.NaN);
+        out.writeNullableDate(null);
+        out.writeNullableDate(date);
+        out.writeBoolean(true);
+
+        BinaryInput in = new BinaryInput(out.toByteArray(), 0);
+        assertNull(in.readNullableLong());
+        assertEquals(-42L, in.readNullableLong());
+        assertNull(in.readNullableInt());
+        assertEquals(1080, in.readNullableInt());
+        assertNull(in.readNullableDouble());
+        assertEquals(0.56, in.readNullableDouble());
+        assertTrue(in.readNullableDouble().isNaN());
+        assertNull(in.readNullableDate());
+        assertEquals(date, in.readNullableDate());
+        assertTrue(in.readBoolean());
+    }
+
+    @Test
+    public void testStrings() {
+        BinaryOutput out = new BinaryOutput(16);
+        out.writeString(null);
+        out.writeString("");
+        out.writeString("风景 sunset 🌅");
+        out.writeStringList(null);
+        out.writeStringList(Collections.emptyList());
+        out.writeStringList(Arrays.asList("a", null, "动漫"));
+
+        BinaryInput in = new BinaryInput(out.toByteArray(), 0);
+        assertNull(in.readString());
+        assertEquals("", in.readString());
+        assertEquals("风景 sunset 🌅", in.readString());
+        assertNull(in.readStringList());
+        assertEquals(Collections.emptyList(), in.readStringList());
+        assertEquals(Arrays.asList("a", null, "动漫"), in.readStringList());
+    }
+
+    @Test
+    public void testOffset() {
+        BinaryOutput out = new BinaryOutput(16);
+        out.writeByte(9);
+        out.writeString("abc");
+        BinaryInput in = new BinaryInput(out.toByteArray(), 1);
+        assertEquals("abc", in.readString());
+    }
+
+    @Test
+    public void testTruncatedData() {
+        BinaryOutput out = new BinaryOutput(16);
+        out.writeString("abcdef");
+        out.writeVarLong(Long.MAX_VALUE);
+        byte[] bytes = out.toByteArray();
+
+        // 字符串长度超出剩余数据
+        assertThrows(IllegalStateException.class,
+                () -> new BinaryInput(Arrays.copyOf(bytes, 4), 0).readString());
+        // 变长整数缺少后续字节
+        assertThrows(IllegalStateException.class,
+                () -> new BinaryInput(Arrays.copyOf(bytes, bytes.length - 1), 7).readVarLong());
+        assertThrows(IllegalStateException.class, () -> new BinaryInput(new byte[0], 0).readBoolean());
+    }
+}
@@ -0,0 +1,144 @@
+package com.gzu.gqzpicturebackend.manage.cache.codec;
+
+import com.gzu.gqzpicturebackend.model.vo.PictureVO;
+import com.gzu.gqzpicturebackend.model.vo.UserVO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单张图片二进制编解码：可空字段、关联用户只保存 id、版本校验
+ */
+public class BinaryPictureVOCodecTest {
+
+    private final BinaryPictureVOCodec codec = new BinaryPictureVOCodec();
+
+    @Test
+    public void testRoundTrip() {
+        PictureVO pictureVO = new PictureVO();
+        pictureVO.setId(1900000000000000001L);
+        pictureVO.setUrl("https://cdn/public/1/a.webp");
+        pictureVO.setName("贵州的山");
+        pictureVO.setIntroduction("雨后的黔东南");
+        pictureVO.setTags(Arrays.asList("风景", "山"));
+        pictureVO.setCategory("风景");
+        pictureVO.setPicSize(123456L);
+        pictureVO.setPicWidth(1920);
+        pictureVO.setPicHeight(1080);
+        pictureVO.setPicScale(1.78);
+        pictureVO.setPicFormat("webp");
+        pictureVO.setUserId(1800000000000000001L);
+        pictureVO.setReviewerId(1700000000000000001L);
+        pictureVO.setCreateTime(new Date(1700000000000L));
+        pictureVO.setEditTime(new Date(1700000001000L));
+        pictureVO.setUpdateTime(new Date(1700000002000L));
+
+        PictureVO decoded = codec.decode(codec.encode(pictureVO));
+
+        assertEquals(pictureVO.getId(), decoded.getId());
+        assertEquals(pictureVO.getUrl(), decoded.getUrl());
+        assertEquals(pictureVO.getName(), decoded.getName());
+        assertEquals(pictureVO.getIntroduction(), decoded.getIntroduction());
+        assertEquals(pictureVO.getTags(), decoded.getTags());
+        assertEquals(pictureVO.getCategory(), decoded.getCategory());
+        assertEquals(pictureVO.getPicSize(), decoded.getPicSize());
+        assertEquals(pictureVO.getPicWidth(), decoded.getPicWidth());
+        assertEquals(pictureVO.getPicHeight(), decoded.getPicHeight());
+        assertEquals(pictureVO.getPicScale(), decoded.getPicScale());
+        assertEquals(pictureVO.getPicFormat(), decoded.getPicFormat());
+        assertEquals(pictureVO.getUserId(), decoded.getUserId());
+        assertEquals(pictureVO.getReviewerId(), decoded.getReviewerId());
+        assertNull(decoded.getSpaceId());
+        assertEquals(pictureVO.getCreateTime(), decoded.getCreateTime());
+        assertEquals(pictureVO.getEditTime(), decoded.getEditTime());
+        assertEquals(pictureVO.getUpdateTime(), decoded.getUpdateTime());
+    }
+
+    @Test
+    public void testNullableFields() {
+        PictureVO pictureVO = new PictureVO();
+        pictureVO.setId(1L);
+
+        PictureVO decoded = codec.decode(codec.encode(pictureVO));
+
+        assertEquals(1L, decoded.getId());
+        assertNull(decoded.getUrl());
+        assertNull(decoded.getTags());
+        assertNull(decoded.getPicSize());
+        assertNull(decoded.getPicWidth());
+        assertNull(decoded.getPicScale());
+        assertNull(decoded.getUserId());
+        assertNull(decoded.getReviewerId());
+        assertNull(decoded.getEditTime());
+    }
+
+    @Test
+    public void testRelatedUsersNotStored() {
+        PictureVO pictureVO = new PictureVO();
+        pictureVO.setId(1L);
+        pictureVO.setUserId(2L);
+        pictureVO.setReviewerId(3L);
+        pictureVO.setUser(buildUser(2L));
+        pictureVO.setReviewer(buildUser(3L));
+
+        PictureVO decoded = codec.decode(codec.encode(pictureVO));
+
+        // 上传者、审核人只保存 id，组装时再从用户缓存关联
+        assertNull(decoded.getUser());
+        assertNull(decoded.getReviewer());
+        assertEquals(2L, decoded.getUserId());
+        assertEquals(3L, decoded.getReviewerId());
+    }
+
+    @Test
+    public void testUserRoundTrip() {
+        UserVO user = buildUser(2L);
+        UserVO emptyUser = new UserVO();
+        BinaryOutput out = new BinaryOutput(64);
+        BinaryUserVOCodec.write(out, user);
+        BinaryUserVOCodec.write(out, null);
+        BinaryUserVOCodec.write(out, emptyUser);
+
+        BinaryInput in = new BinaryInput(out.toByteArray(), 0);
+        UserVO decodedUser = BinaryUserVOCodec.read(in);
+        assertEquals(user.getId(), decodedUser.getId());
+        assertEquals(user.getUserName(), decodedUser.getUserName());
+        assertEquals(user.getUserAccount(), decodedUser.getUserAccount());
+        assertEquals(user.getUserAvatar(), decodedUser.getUserAvatar());
+        assertEquals(user.getUserProfile(), decodedUser.getUserProfile());
+        assertEquals(user.getUserRole(), decodedUser.getUserRole());
+        assertEquals(user.getCreateTime(), decodedUser.getCreateTime());
+        assertNull(BinaryUserVOCodec.read(in));
+        UserVO decodedEmptyUser = BinaryUserVOCodec.read(in);
+        assertNotNull(decodedEmptyUser);
+        assertNull(decodedEmptyUser.getId());
+        assertNull(decodedEmptyUser.getUserName());
+        assertNull(decodedEmptyUser.getCreateTime());
+    }
+
+    @Test
+    public void testRejectOldVersion() {
+        PictureVO pictureVO = new PictureVO();
+        pictureVO.setId(1L);
+        byte[] bytes = codec.encode(pictureVO);
+        // 旧版本的数据中嵌入了用户，字段顺序不同，不能按新格式解码
+        bytes[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[0]));
+    }
+
+    private static UserVO buildUser(long id) {
+        UserVO user = new UserVO();
+        user.setId(id);
+        user.setUserName("gqz");
+        user.setUserAccount("gqz123");
+        user.setUserAvatar("https://cdn/avatar/gqz.png");
+        user.setUserProfile("喜欢拍照");
+        user.setUserRole("user");
+        user.setCreateTime(new Date(1600000000000L));
+        return user;
+    }
+}
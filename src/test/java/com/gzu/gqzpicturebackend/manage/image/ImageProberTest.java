@@ -0,0 +1,175 @@
+package com.gzu.gqzpicturebackend.manage.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 图片文件头探测，包括文件头不完整和超过读取上限的情况
+ */
+public class ImageProberTest {
+
+    @Test
+    public void testImageIoFormats() throws IOException {
+        assertImageInfo(ImageProber.FORMAT_PNG, 300, 200, ImageProber.probe(encode("png", 300, 200)));
+        assertImageInfo(ImageProber.FORMAT_JPG, 64, 480, ImageProber.probe(encode("jpg", 64, 480)));
+        assertImageInfo(ImageProber.FORMAT_GIF, 17, 9, ImageProber.probe(encode("gif", 17, 9)));
+    }
+
+    @Test
+    public void testWebp() {
+        // VP8X：画布宽高减一，小端 3 字节
+        byte[] vp8x = webp("VP8X", 0, 0, 0, 0, 0x7F, 0x07, 0x00, 0x37, 0x04, 0x00);
+        assertImageInfo(ImageProber.FORMAT_WEBP, 1920, 1080, ImageProber.probe(vp8x));
+        // VP8L：签名 0x2F 之后宽高减一各 14 位
+        int bits = (100 - 1) | (50 - 1) << 14;
+        byte[] vp8l = webp("VP8L", 0x2F, bits & 0xFF, bits >> 8 & 0xFF, bits >> 16 & 0xFF, bits >> 24 & 0xFF, 0, 0, 0, 0, 0);
+        assertImageInfo(ImageProber.FORMAT_WEBP, 100, 50, ImageProber.probe(vp8l));
+        // VP8：帧标记 3 字节、起始码 9D 01 2A，之后宽高小端各 14 位
+        byte[] vp8 = webp("VP8 ", 0, 0, 0, 0x9D, 0x01, 0x2A, 640 & 0xFF, 640 >> 8, 360 & 0xFF, 360 >> 8);
+        assertImageInfo(ImageProber.FORMAT_WEBP, 640, 360, ImageProber.probe(vp8));
+        // 起始码错误
+        byte[] badVp8 = webp("VP8 ", 0, 0, 0, 0x9D, 0x01, 0x2B, 0, 0, 0, 0);
+        assertNull(ImageProber.probe(badVp8));
+    }
+
+    @Test
+    public void testTruncatedHeaders() throws IOException {
+        byte[] png = encode("png", 300, 200);
+        assertNull(ImageProber.probe(Arrays.copyOf(png, 20)), "PNG 的 IHDR 不完整");
+        byte[] jpg = encode("jpg", 64, 480);
+        assertNull(ImageProber.probe(Arrays.copyOf(jpg, 30)), "JPEG 在帧头之前结束");
+        byte[] webp = webp("VP8X", 0, 0, 0, 0, 0x7F, 0x07, 0x00, 0x37, 0x04, 0x00);
+        assertNull(ImageProber.probe(Arrays.copyOf(webp, 25)), "WebP 块不完整");
+        assertNull(ImageProber.probe(Arrays.copyOf(encode("gif", 17, 9), 8)), "GIF 逻辑屏幕描述不完整");
+        assertNull(ImageProber.probe(new byte[0]));
+        assertNull(ImageProber.probe(new byte[]{(byte) 0xFF, (byte) 0xD8}));
+    }
+
+    @Test
+    public void testInvalidHeaders() {
+        assertNull(ImageProber.probe("<html>not an image</html>".getBytes()));
+        // JPEG 段之间缺少 0xFF 标记
+        assertNull(ImageProber.probe(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 4, 0, 0, 0x12, 0x34}));
+        // 宽或高为 0
+        assertNull(ImageProber.probe(new byte[]{'G', 'I', 'F', '8', '9', 'a', 0, 0, 10, 0}));
+    }
+
+    @Test
+    public void testJpegSegmentsBeforeFrame() throws IOException {
+        // SOF 之前有 EXIF 之类的大段和填充的 0xFF，仍在读取上限之内
+        byte[] jpg = jpegWithAppSegments(3, 65_000);
+        assertImageInfo(ImageProber.FORMAT_JPG, 321, 123, ImageProber.probe(jpg));
+        assertImageInfo(ImageProber.FORMAT_JPG, 321, 123, ImageProber.probe(new ByteArrayInputStream(jpg)));
+    }
+
+    @Test
+    public void testJpegFrameBeyondProbeLimit() throws IOException {
+        // 帧头之前的段超过读取上限，不再继续读取
+        byte[] jpg = jpegWithAppSegments(5, 65_000);
+        assertTrue(jpg.length > ImageProber.MAX_PROBE_BYTES);
+        assertNull(ImageProber.probe(jpg));
+
+        // 探测不会读超过上限，调用方可以 reset 回到流的开头
+        BufferedInputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(jpg));
+        inputStream.mark(ImageProber.MAX_PROBE_BYTES);
+        assertNull(ImageProber.probe(inputStream));
+        assertDoesNotThrow(inputStream::reset);
+        assertEquals(0xFF, inputStream.read());
+    }
+
+    @Test
+    public void testMarkResetAfterProbe() throws IOException {
+        byte[] png = encode("png", 300, 200);
+        BufferedInputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(png));
+        inputStream.mark(ImageProber.MAX_PROBE_BYTES);
+        assertImageInfo(ImageProber.FORMAT_PNG, 300, 200, ImageProber.probe(inputStream));
+        inputStream.reset();
+        byte[] read = new byte[png.length];
+        assertEquals(png.length, inputStream.read(read));
+        assertArrayEquals(png, read);
+    }
+
+    private static byte[] encode(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        int type = "jpg".equals(format) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        assertTrue(ImageIO.write(new BufferedImage(width, height, type), format, outputStream));
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * RIFF 头 + 第一个块（块长度之后 10 字节的内容）
+     */
+    private static byte[] webp(String chunkType, int... content) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        outputStream.write('R');
+        outputStream.write('I');
+        outputStream.write('F');
+        outputStream.write('F');
+        writeIntLE(outputStream, 4 + 8 + content.length);
+        outputStream.write('W');
+        outputStream.write('E');
+        outputStream.write('B');
+        outputStream.write('P');
+        for (char c : chunkType.toCharArray()) {
+            outputStream.write(c);
+        }
+        writeIntLE(outputStream, content.length);
+        for (int b : content) {
+            outputStream.write(b);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * SOI + count 个 APP1 段（每段 segmentLength 字节）+ 填充的 0xFF + SOF0（321x123）
+     */
+    private static byte[] jpegWithAppSegments(int count, int segmentLength) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        outputStream.write(0xFF);
+        outputStream.write(0xD8);
+        for (int i = 0; i < count; i++) {
+            outputStream.write(0xFF);
+            outputStream.write(0xE1);
+            outputStream.write(segmentLength >> 8);
+            outputStream.write(segmentLength & 0xFF);
+            outputStream.write(new byte[segmentLength - 2], 0, segmentLength - 2);
+        }
+        outputStream.write(0xFF);
+        outputStream.write(0xFF);
+        outputStream.write(0xC0);
+        outputStream.write(0);
+        outputStream.write(11);
+        outputStream.write(8);
+        outputStream.write(123 >> 8);
+        outputStream.write(123 & 0xFF);
+        outputStream.write(321 >> 8);
+        outputStream.write(321 & 0xFF);
+        outputStream.write(new byte[6], 0, 6);
+        outputStream.write(0xFF);
+        outputStream.write(0xD9);
+        return outputStream.toByteArray();
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream outputStream, int value) {
+        outputStream.write(value & 0xFF);
+        outputStream.write(value >> 8 & 0xFF);
+        outputStream.write(value >> 16 & 0xFF);
+        outputStream.write(value >> 24 & 0xFF);
+    }
+
+    private static void assertImageInfo(String format, int width, int height, ImageInfo imageInfo) {
+        assertNotNull(imageInfo);
+        assertEquals(format, imageInfo.getFormat());
+        assertEquals(width, imageInfo.getWidth());
+        assertEquals(height, imageInfo.getHeight());
+    }
+}
@@ -0,0 +1,154 @@
+package com.gzu.gqzpicturebackend.manage.image;
+
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine.Derivative;
+import com.gzu.gqzpicturebackend.manage.image.PictureProcessingEngine.ProcessResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 图片处理引擎：等比缩小、尺寸规范化、衍生图对象键、线程池已满时立即失败
+ */
+public class PictureProcessingEngineTest {
+
+    @Test
+    public void testScaleDownKeepsAspectRatio() {
+        BufferedImage image = new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB);
+        BufferedImage scaled = PictureProcessingEngine.scaleDown(image, 256, 256);
+        assertEquals(256, scaled.getWidth());
+        assertEquals(128, scaled.getHeight());
+
+        BufferedImage tall = PictureProcessingEngine.scaleDown(new BufferedImage(333, 1001, BufferedImage.TYPE_INT_RGB), 256, 256);
+        assertEquals(256, tall.getHeight());
+        assertEquals((int) Math.round(333 * 256.0 / 1001), tall.getWidth());
+
+        // 极端比例时短边至少 1 像素
+        BufferedImage thin = PictureProcessingEngine.scaleDown(new BufferedImage(4000, 2, BufferedImage.TYPE_INT_RGB), 256, 256);
+        assertEquals(256, thin.getWidth());
+        assertEquals(1, thin.getHeight());
+    }
+
+    @Test
+    public void testScaleDownNeverEnlarges() {
+        BufferedImage small = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        assertSame(small, PictureProcessingEngine.scaleDown(small, 256, 256));
+        BufferedImage exact = new BufferedImage(256, 100, BufferedImage.TYPE_INT_RGB);
+        assertSame(exact, PictureProcessingEngine.scaleDown(exact, 256, 256));
+    }
+
+    @Test
+    public void testNormalizeSizes() {
+        assertArrayEquals(new int[]{2048, 1024, 512},
+                PictureProcessingEngine.normalizeSizes(new int[]{100, 1024, 512, 1024, 256, 2048, -1}));
+        assertArrayEquals(new int[0], PictureProcessingEngine.normalizeSizes(null));
+        assertArrayEquals(new int[0], PictureProcessingEngine.normalizeSizes(new int[]{PictureProcessingEngine.THUMBNAIL_SIZE}));
+    }
+
+    @Test
+    public void testKeyForDiffersFromOriginal() {
+        Derivative compressed = derivative(PictureProcessingEngine.SUFFIX_COMPRESSED, "jpg");
+        // 压缩图格式与原图相同时也不能覆盖原图
+        assertEquals("public/1/a_compressed.jpg", compressed.keyFor("public/1/a.jpg"));
+        assertNotEquals("public/1/a.jpg", compressed.keyFor("public/1/a.jpg"));
+        // 目录名中的点不当作扩展名
+        assertEquals("public/1.x/a_compressed.jpg", compressed.keyFor("public/1.x/a"));
+        assertEquals("public/1/a_thumbnail.png",
+                derivative(PictureProcessingEngine.SUFFIX_THUMBNAIL, "png").keyFor("public/1/a.png"));
+    }
+
+    @Test
+    public void testGetThumbnail() {
+        Derivative compressed = derivative(PictureProcessingEngine.SUFFIX_COMPRESSED, "jpg");
+        Derivative extra = derivative("_1024", "jpg");
+        Derivative thumbnail = derivative(PictureProcessingEngine.SUFFIX_THUMBNAIL, "jpg");
+        ProcessResult result = new ProcessResult();
+        // 有额外尺寸但没有缩略图（原图不超过 2KB）
+        result.setDerivatives(Arrays.asList(compressed, extra));
+        assertSame(compressed, result.getCompressed());
+        assertNull(result.getThumbnail());
+        result.setDerivatives(Arrays.asList(compressed, extra, thumbnail));
+        assertSame(thumbnail, result.getThumbnail());
+        result.setDerivatives(Arrays.asList(compressed));
+        assertNull(result.getThumbnail());
+    }
+
+    @Test
+    public void testProcessGeneratesDerivatives() throws IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PictureProcessingEngine engine = newEngine(executor, new int[]{400});
+            ProcessResult result = engine.await(engine.submit(noisePng(600, 300)));
+
+            assertNotNull(result);
+            assertEquals(600, result.getWidth());
+            assertEquals(300, result.getHeight());
+            assertEquals(3, result.getDerivatives().size());
+            assertEquals(600, result.getCompressed().getWidth());
+            assertEquals("_400", result.getDerivatives().get(1).getSuffix());
+            assertEquals(400, result.getDerivatives().get(1).getWidth());
+            assertEquals(200, result.getDerivatives().get(1).getHeight());
+            assertEquals(256, result.getThumbnail().getWidth());
+            assertEquals(128, result.getThumbnail().getHeight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedSubmitFailsFast() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        PictureProcessingEngine engine = newEngine(executor, new int[0]);
+
+        // 线程池拒绝时不在调用线程解码，直接返回空结果
+        Future<ProcessResult> future = engine.submit(noisePng(600, 300));
+        assertTrue(future.isDone());
+        assertNull(future.get());
+        assertNull(engine.await(future));
+    }
+
+    private static PictureProcessingEngine newEngine(ExecutorService executor, int[] extraSizes) {
+        PictureProcessingEngine engine = new PictureProcessingEngine();
+        ReflectionTestUtils.setField(engine, "imageProcessExecutor", executor);
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "memoryBudgetMb", 64);
+        ReflectionTestUtils.setField(engine, "extraSizes", extraSizes);
+        engine.init();
+        return engine;
+    }
+
+    private static Derivative derivative(String suffix, String format) {
+        Derivative derivative = new Derivative();
+        derivative.setSuffix(suffix);
+        derivative.setFormat(format);
+        return derivative;
+    }
+
+    /**
+     * 随机像素的图片，保证编码后超过 2KB，会生成缩略图
+     */
+    private static byte[] noisePng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+}
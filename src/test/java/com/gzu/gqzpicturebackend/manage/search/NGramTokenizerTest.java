@@ -0,0 +1,54 @@
+package com.gzu.gqzpicturebackend.manage.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * n-gram 分词
+ */
+public class NGramTokenizerTest {
+
+    @Test
+    public void testTokenizeForIndex() {
+        // 单字 + 相邻两字，重复的词保留（词频）
+        assertEquals(Arrays.asList("风", "风景", "景", "景风", "风"),
+                NGramTokenizer.tokenizeForIndex("风景风"));
+    }
+
+    @Test
+    public void testSplitAndLowerCase() {
+        // 非字母数字字符切分片段，片段之间不产生 bigram
+        assertEquals(Arrays.asList("a", "ab", "b", "猫"),
+                NGramTokenizer.tokenizeForIndex("AB, 猫!"));
+        assertEquals(Arrays.asList("ab", "猫"),
+                NGramTokenizer.tokenizeForQuery("AB 猫"));
+    }
+
+    @Test
+    public void testTokenizeForQuery() {
+        // 长度大于 1 的片段只用 bigram
+        assertEquals(Arrays.asList("蓝天", "天白", "白云"),
+                NGramTokenizer.tokenizeForQuery("蓝天白云"));
+        assertEquals(Collections.singletonList("猫"), NGramTokenizer.tokenizeForQuery("猫"));
+    }
+
+    @Test
+    public void testQueryTokensAreIndexed() {
+        // 子串的查询词必须全部出现在原文的索引词中
+        String text = "Sunset over 西湖 2024";
+        for (String query : Arrays.asList("sun", "西湖", "湖", "2024", "SET")) {
+            assertTrue(NGramTokenizer.tokenizeForIndex(text).containsAll(NGramTokenizer.tokenizeForQuery(query)), query);
+        }
+    }
+
+    @Test
+    public void testEmptyText() {
+        assertTrue(NGramTokenizer.tokenizeForIndex(null).isEmpty());
+        assertTrue(NGramTokenizer.tokenizeForIndex("  ,.!").isEmpty());
+        assertTrue(NGramTokenizer.tokenizeForQuery("").isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package com.gzu.gqzpicturebackend.manage.session;
+
+import com.gzu.gqzpicturebackend.model.dto.user.LoginUserSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 会话属性序列化：常用类型紧凑编码，其他类型和旧数据走 JDK 序列化
+ */
+public class CompactSessionRedisSerializerTest {
+
+    private final CompactSessionRedisSerializer serializer = new CompactSessionRedisSerializer();
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    @Test
+    public void testLoginUserSession() {
+        LoginUserSession loginUserSession = newLoginUserSession();
+
+        byte[] bytes = serializer.serialize(loginUserSession);
+        assertTrue(bytes.length < jdkSerializer.serialize(loginUserSession).length / 4,
+                "紧凑编码应远小于 JDK 序列化");
+        assertEquals(loginUserSession, serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void testCommonTypes() {
+        for (Object value : new Object[]{0L, -1L, Long.MAX_VALUE, 1_700_000_000_000L, 1800, Integer.MIN_VALUE,
+                "", "user_login", "登录态", true, false}) {
+            Object decoded = serializer.deserialize(serializer.serialize(value));
+            assertEquals(value, decoded);
+            assertEquals(value.getClass(), decoded.getClass());
+        }
+    }
+
+    @Test
+    public void testNull() {
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    public void testJdkFallback() {
+        Map<String, Object> value = new HashMap<>();
+        value.put("time", new Date(1_700_000_000_000L));
+
+        byte[] bytes = serializer.serialize(value);
+        // 其他类型原样使用 JDK 序列化
+        assertEquals((byte) 0xAC, bytes[0]);
+        assertEquals((byte) 0xED, bytes[1]);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void testReadOldJdkSession() {
+        // 切换序列化器之前写入的会话仍然可以读取
+        LoginUserSession loginUserSession = newLoginUserSession();
+        assertEquals(loginUserSession, serializer.deserialize(jdkSerializer.serialize(loginUserSession)));
+        assertEquals(1_700_000_000_000L, serializer.deserialize(jdkSerializer.serialize(1_700_000_000_000L)));
+    }
+
+    @Test
+    public void testUnknownType() {
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{99, 1}));
+    }
+
+    private static LoginUserSession newLoginUserSession() {
+        LoginUserSession loginUserSession = new LoginUserSession();
+        loginUserSession.setUserId(1_875_432_198_765_432_101L);
+        loginUserSession.setUserRole("admin");
+        loginUserSession.setVersion(1_700_000_000_123L);
+        return loginUserSession;
+    }
+}
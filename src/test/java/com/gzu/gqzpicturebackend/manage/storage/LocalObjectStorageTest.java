@@ -0,0 +1,130 @@
+package com.gzu.gqzpicturebackend.manage.storage;
+
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地存储：对象键校验、请求范围、先写临时文件再改名、零拷贝输出的字节数
+ */
+public class LocalObjectStorageTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private LocalObjectStorage localObjectStorage;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        localObjectStorage = new LocalObjectStorage();
+        ReflectionTestUtils.setField(localObjectStorage, "root", tempDir.toString());
+        ReflectionTestUtils.setField(localObjectStorage, "host", "http://localhost/api/storage/");
+        localObjectStorage.init();
+    }
+
+    @Test
+    public void testRejectParentSegments() {
+        assertEquals("public/1/a.png", LocalObjectStorage.normalizeKey("/public/1/a.png"));
+        assertEquals("public/1/a..b.png", LocalObjectStorage.normalizeKey("public/1/a..b.png"));
+        assertThrows(BusinessException.class, () -> LocalObjectStorage.normalizeKey("../a.png"));
+        assertThrows(BusinessException.class, () -> LocalObjectStorage.normalizeKey("public/../../a.png"));
+        assertThrows(BusinessException.class, () -> LocalObjectStorage.normalizeKey("public\\..\\a.png"));
+        assertThrows(BusinessException.class, () -> LocalObjectStorage.normalizeKey(" "));
+        assertThrows(BusinessException.class, () -> localObjectStorage.resolve("public/../../../etc/passwd"));
+        assertTrue(localObjectStorage.resolve("public/1/a.png").startsWith(tempDir.toAbsolutePath().normalize()));
+    }
+
+    @Test
+    public void testRangeLength() {
+        assertEquals(10, LocalObjectStorage.rangeLength(10, 0, Long.MAX_VALUE));
+        assertEquals(10, LocalObjectStorage.rangeLength(10, 0, 9));
+        assertEquals(3, LocalObjectStorage.rangeLength(10, 3, 5));
+        // 结束位置超过文件末尾时截断
+        assertEquals(8, LocalObjectStorage.rangeLength(10, 2, 100));
+        // 最后 3 个字节（bytes=-3）
+        assertEquals(3, LocalObjectStorage.rangeLength(10, 7, Long.MAX_VALUE));
+        // 起始位置等于文件大小：空范围
+        assertEquals(0, LocalObjectStorage.rangeLength(10, 10, Long.MAX_VALUE));
+        assertEquals(0, LocalObjectStorage.rangeLength(10, 10, 9));
+        assertEquals(0, LocalObjectStorage.rangeLength(0, 0, Long.MAX_VALUE));
+        assertThrows(BusinessException.class, () -> LocalObjectStorage.rangeLength(10, 11, Long.MAX_VALUE));
+        assertThrows(BusinessException.class, () -> LocalObjectStorage.rangeLength(10, -1, 5));
+        assertThrows(BusinessException.class, () -> LocalObjectStorage.rangeLength(10, 5, 3));
+    }
+
+    @Test
+    public void testPutObjectRenamesTempFile() throws IOException {
+        String key = "public/1/a.png";
+        localObjectStorage.putObject(key, new ByteArrayInputStream(CONTENT), CONTENT.length);
+
+        Path path = localObjectStorage.resolve(key);
+        assertArrayEquals(CONTENT, Files.readAllBytes(path));
+        // 临时文件已改名为目标文件，目录中没有残留
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testFailedWriteLeavesNoFile() throws IOException {
+        String key = "public/1/broken.png";
+        InputStream brokenStream = new InputStream() {
+            private int count;
+
+            @Override
+            public int read() throws IOException {
+                if (count++ >= 5) {
+                    throw new IOException("连接断开");
+                }
+                return 'a';
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> localObjectStorage.putObject(key, brokenStream, 10));
+
+        // 写了一半的内容不会出现在目标路径，临时文件也已删除
+        Path path = localObjectStorage.resolve(key);
+        assertFalse(Files.exists(path));
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testTransferToByteCounts() throws IOException {
+        String key = "public/1/a.png";
+        localObjectStorage.putObject(key, new ByteArrayInputStream(CONTENT), CONTENT.length);
+
+        assertTransfer(key, 0, Long.MAX_VALUE, "0123456789");
+        assertTransfer(key, 3, 5, "345");
+        assertTransfer(key, 7, Long.MAX_VALUE, "789");
+        assertTransfer(key, 8, 100, "89");
+        assertTransfer(key, 10, Long.MAX_VALUE, "");
+        assertThrows(BusinessException.class, () -> localObjectStorage.transferTo("public/1/missing.png", 0,
+                Long.MAX_VALUE, Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    private void assertTransfer(String key, long start, long end, String expected) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long transferred = localObjectStorage.transferTo(key, start, end, Channels.newChannel(outputStream));
+        assertEquals(expected.length(), transferred);
+        assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,147 @@
+package com.gzu.gqzpicturebackend.manage.upload;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.gzu.gqzpicturebackend.manage.storage.LocalPictureProcessor;
+import com.gzu.gqzpicturebackend.manage.storage.ObjectStorage;
+import com.gzu.gqzpicturebackend.manage.storage.StoredPicture;
+import com.gzu.gqzpicturebackend.model.dto.file.UploadPictureResult;
+import com.gzu.gqzpicturebackend.model.entity.PictureFile;
+import com.gzu.gqzpicturebackend.service.PictureFileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 流式上传：上传前计算哈希，已存在的文件不再上传，并发上传同一份文件时删除本次上传的对象
+ */
+public class PictureUploadTemplateTest {
+
+    private ObjectStorage objectStorage;
+
+    private PictureFileService pictureFileService;
+
+    private PictureUploadTemplate pictureUploadTemplate;
+
+    private byte[] pngBytes;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+        pngBytes = outputStream.toByteArray();
+
+        objectStorage = mock(ObjectStorage.class);
+        pictureFileService = mock(PictureFileService.class);
+        // 模拟对象存储读完整个输入流
+        when(objectStorage.putPicture(anyString(), any(InputStream.class), anyLong())).thenAnswer(invocation -> {
+            InputStream inputStream = invocation.getArgument(1);
+            byte[] buffer = new byte[8192];
+            while (inputStream.read(buffer) >= 0) {
+                // 丢弃
+            }
+            StoredPicture storedPicture = new StoredPicture();
+            storedPicture.setUrl("https://cdn/" + invocation.getArgument(0));
+            storedPicture.setPicSize(pngBytes.length);
+            return storedPicture;
+        });
+        when(objectStorage.getKeyFromUrl(anyString())).thenAnswer(invocation ->
+                ((String) invocation.getArgument(0)).substring("https://cdn/".length()));
+
+        pictureUploadTemplate = new PictureUploadTemplate() {
+            @Override
+            protected PictureStream openPictureStream(Object inputSource) {
+                return new PictureStream(new ByteArrayInputStream(pngBytes), pngBytes.length);
+            }
+
+            @Override
+            protected void processFile(Object inputSource, File file) {
+                fail("长度已知时不应写临时文件");
+            }
+
+            @Override
+            protected String getOriginalFilename(Object inputSource) {
+                return "test.png";
+            }
+
+            @Override
+            protected void validPicture(Object inputSource) {
+            }
+        };
+        ReflectionTestUtils.setField(pictureUploadTemplate, "objectStorage", objectStorage);
+        ReflectionTestUtils.setField(pictureUploadTemplate, "pictureFileService", pictureFileService);
+        ReflectionTestUtils.setField(pictureUploadTemplate, "localPictureProcessor", mock(LocalPictureProcessor.class));
+    }
+
+    @Test
+    public void testStreamingUploadHashesContent() {
+        UploadPictureResult result = pictureUploadTemplate.uploadPicture("source", "public/1");
+
+        assertEquals(DigestUtil.sha256Hex(pngBytes), result.getFileHash());
+        assertEquals(40, result.getPicWidth());
+        assertEquals(20, result.getPicHeight());
+        ArgumentCaptor<PictureFile> captor = ArgumentCaptor.forClass(PictureFile.class);
+        verify(pictureFileService).save(captor.capture());
+        PictureFile pictureFile = captor.getValue();
+        assertEquals(result.getFileHash(), pictureFile.getFileHash());
+        assertTrue(pictureFile.getOriginalKey().startsWith("public/1/"));
+        assertEquals(result.getUrl(), "https://cdn/" + pictureFile.getOriginalKey());
+        verify(objectStorage, never()).deleteObjects(anyList());
+    }
+
+    @Test
+    public void testConcurrentDuplicateDeletesOwnUpload() {
+        PictureFile existPictureFile = new PictureFile();
+        existPictureFile.setFileHash(DigestUtil.sha256Hex(pngBytes));
+        existPictureFile.setUrl("https://cdn/public/1/exist.png");
+        existPictureFile.setPicWidth(40);
+        existPictureFile.setPicHeight(20);
+        when(pictureFileService.save(any(PictureFile.class))).thenThrow(new DuplicateKeyException("fileHash"));
+        // 上传前还不存在，登记时另一个请求已经先登记
+        when(pictureFileService.getByFileHash(existPictureFile.getFileHash())).thenReturn(null, existPictureFile);
+
+        UploadPictureResult result = pictureUploadTemplate.uploadPicture("source", "public/1");
+
+        assertEquals(existPictureFile.getUrl(), result.getUrl());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        verify(objectStorage).deleteObjects(captor.capture());
+        List<String> deletedKeys = captor.getValue();
+        assertEquals(1, deletedKeys.size());
+        assertTrue(deletedKeys.get(0).startsWith("public/1/"));
+        assertNotEquals("public/1/exist.png", deletedKeys.get(0));
+    }
+
+    @Test
+    public void testSavedDuplicateSkipsUpload() {
+        PictureFile existPictureFile = new PictureFile();
+        existPictureFile.setFileHash(DigestUtil.sha256Hex(pngBytes));
+        existPictureFile.setUrl("https://cdn/public/1/exist.png");
+        existPictureFile.setPicWidth(40);
+        existPictureFile.setPicHeight(20);
+        when(pictureFileService.getByFileHash(existPictureFile.getFileHash())).thenReturn(existPictureFile);
+
+        UploadPictureResult result = pictureUploadTemplate.uploadPicture("source", "public/1");
+
+        assertEquals(existPictureFile.getUrl(), result.getUrl());
+        assertEquals(existPictureFile.getFileHash(), result.getFileHash());
+        verify(objectStorage, never()).putPicture(anyString(), any(InputStream.class), anyLong());
+        verify(objectStorage, never()).putPicture(anyString(), any(File.class));
+        verify(pictureFileService, never()).save(any(PictureFile.class));
+        verify(objectStorage, never()).deleteObjects(anyList());
+    }
+}
@@ -0,0 +1,55 @@
+package com.gzu.gqzpicturebackend.model.convert;
+
+import cn.hutool.json.JSONUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 标签编解码，结果与 JSONUtil 一致
+ */
+public class TagsCodecTest {
+
+    @Test
+    public void testEncode() {
+        assertNull(TagsCodec.encode(null));
+        assertEquals("[]", TagsCodec.encode(Collections.emptyList()));
+        assertEquals("[\"风景\",\"sunset\",null]", TagsCodec.encode(Arrays.asList("风景", "sunset", null)));
+    }
+
+    @Test
+    public void testEscapes() {
+        List<String> tagList = Arrays.asList("a\"b", "c\\d", "line\nbreak", "tab\there", "cr\r", "bell\u0007", "斜杠/");
+        String tags = TagsCodec.encode(tagList);
+        assertEquals("[\"a\\\"b\",\"c\\\\d\",\"line\\nbreak\",\"tab\\there\",\"cr\\r\",\"bell\\u0007\",\"斜杠/\"]", tags);
+        assertEquals(tagList, TagsCodec.decode(tags));
+        // 与通用 JSON 解析结果一致
+        assertEquals(tagList, JSONUtil.toList(tags, String.class));
+    }
+
+    @Test
+    public void testDecodeEscapesWrittenByOtherEncoders() {
+        assertEquals(Arrays.asList("/", "\b\f", "中文", "A"),
+                TagsCodec.decode("[\"\\/\",\"\\b\\f\",\"\\u4e2d\\u6587\",\"\\u0041\"]"));
+    }
+
+    @Test
+    public void testDecodeWhitespaceAndNull() {
+        assertEquals(Collections.emptyList(), TagsCodec.decode(null));
+        assertEquals(Collections.emptyList(), TagsCodec.decode(""));
+        assertEquals(Collections.emptyList(), TagsCodec.decode(" [ ] "));
+        assertEquals(Arrays.asList("a", null, "b"), TagsCodec.decode(" [ \"a\" , null ,\"b\" ] "));
+    }
+
+    @Test
+    public void testMalformedFallsBackToJsonUtil() {
+        // 快速解析不认识的格式交给 JSONUtil，错误与原来一致
+        assertThrows(RuntimeException.class, () -> TagsCodec.decode("[\"a\\x\"]"));
+        assertThrows(RuntimeException.class, () -> TagsCodec.decode("[\"unterminated"));
+        assertThrows(RuntimeException.class, () -> TagsCodec.decode("[\"a\\u12\"]"));
+    }
+}
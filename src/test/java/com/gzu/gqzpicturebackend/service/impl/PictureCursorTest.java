@@ -0,0 +1,81 @@
+package com.gzu.gqzpicturebackend.service.impl;
+
+import com.gzu.gqzpicturebackend.exception.BusinessException;
+import com.gzu.gqzpicturebackend.exception.ErrorCode;
+import com.gzu.gqzpicturebackend.model.dto.picture.PictureCursor;
+import com.gzu.gqzpicturebackend.model.dto.picture.PictureQueryRequest;
+import com.gzu.gqzpicturebackend.model.entity.Picture;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标分页的游标编解码
+ */
+public class PictureCursorTest {
+
+    @Test
+    public void testDefaultSortByCreateTime() {
+        PictureQueryRequest pictureQueryRequest = new PictureQueryRequest();
+        Picture picture = newPicture(7L);
+        picture.setCreateTime(new Date(1_700_000_000_123L));
+
+        String cursorStr = PictureServiceImpl.encodeCursor(pictureQueryRequest, picture);
+        // 游标放在请求体中原样传回，不能含有需要转义的字符
+        assertFalse(cursorStr.contains("+") || cursorStr.contains("/") || cursorStr.contains("="));
+        PictureCursor cursor = PictureServiceImpl.decodeCursor(cursorStr);
+        assertEquals("createTime", cursor.getSortField());
+        assertEquals("descend", cursor.getSortOrder());
+        assertEquals(1_700_000_000_123L, cursor.getLastValue());
+        assertEquals(7L, cursor.getLastId());
+    }
+
+    @Test
+    public void testSortByPicSize() {
+        PictureQueryRequest pictureQueryRequest = new PictureQueryRequest();
+        pictureQueryRequest.setSortField("picSize");
+        pictureQueryRequest.setSortOrder("ascend");
+        Picture picture = newPicture(8L);
+        picture.setPicSize(2048L);
+
+        PictureCursor cursor = PictureServiceImpl.decodeCursor(PictureServiceImpl.encodeCursor(pictureQueryRequest, picture));
+        assertEquals("picSize", cursor.getSortField());
+        assertEquals("ascend", cursor.getSortOrder());
+        assertEquals(2048L, cursor.getLastValue());
+        assertEquals(8L, cursor.getLastId());
+    }
+
+    @Test
+    public void testNullSortValue() {
+        PictureQueryRequest pictureQueryRequest = new PictureQueryRequest();
+        pictureQueryRequest.setSortField("editTime");
+        Picture picture = newPicture(9L);
+
+        // 排序值为空时编码为空的 lastValue，而不是抛出空指针
+        PictureCursor cursor = PictureServiceImpl.decodeCursor(PictureServiceImpl.encodeCursor(pictureQueryRequest, picture));
+        assertEquals("editTime", cursor.getSortField());
+        assertNull(cursor.getLastValue());
+        assertEquals(9L, cursor.getLastId());
+
+        pictureQueryRequest.setSortField("picSize");
+        cursor = PictureServiceImpl.decodeCursor(PictureServiceImpl.encodeCursor(pictureQueryRequest, picture));
+        assertNull(cursor.getLastValue());
+        assertEquals(9L, cursor.getLastId());
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> PictureServiceImpl.decodeCursor("not a cursor"));
+        assertEquals(ErrorCode.PARAMS_ERROR.getCode(), e.getCode());
+    }
+
+    private static Picture newPicture(Long id) {
+        Picture picture = new Picture();
+        picture.setId(id);
+        picture.setCreateTime(new Date());
+        return picture;
+    }
+}
@@ -0,0 +1,37 @@
+package com.gzu.gqzpicturebackend.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 标签过滤子查询的拼接和标签规范化
+ */
+public class PictureTagServiceImplTest {
+
+    @Test
+    public void testMatchAllCondition() {
+        assertEquals("id IN (SELECT pictureId FROM picture_tag WHERE tag IN ({0}, {1}, {2})"
+                        + " GROUP BY pictureId HAVING COUNT(DISTINCT tag) = 3)",
+                PictureTagServiceImpl.buildTagConditionSql(3, true));
+    }
+
+    @Test
+    public void testMatchAnyCondition() {
+        assertEquals("EXISTS (SELECT 1 FROM picture_tag WHERE picture_tag.pictureId = picture.id AND tag IN ({0}))",
+                PictureTagServiceImpl.buildTagConditionSql(1, false));
+    }
+
+    @Test
+    public void testNormalizeTags() {
+        // 去掉首尾空白、空标签和重复标签，保留原来的顺序
+        Set<String> tagSet = PictureTagServiceImpl.normalizeTags(
+                Arrays.asList(" 风景 ", "", null, "动漫", "风景", "  "));
+        assertEquals(Arrays.asList("风景", "动漫"), new ArrayList<>(tagSet));
+        assertTrue(PictureTagServiceImpl.normalizeTags(null).isEmpty());
+    }
+}